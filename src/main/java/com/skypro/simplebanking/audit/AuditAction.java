@@ -0,0 +1,9 @@
+package com.skypro.simplebanking.audit;
+
+public enum AuditAction {
+  USER_CREATED,
+  DEPOSIT,
+  WITHDRAWAL,
+  TRANSFER,
+  REVERSAL
+}
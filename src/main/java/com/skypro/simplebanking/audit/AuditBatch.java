@@ -0,0 +1,97 @@
+package com.skypro.simplebanking.audit;
+
+/** Reusable batch of audit records the consumer drains from the ring and hands to the sink. */
+public class AuditBatch {
+  private static final AuditAction[] ACTIONS = AuditAction.values();
+
+  private final byte[] actions;
+  private final long[] occurredAt;
+  private final long[] userIds;
+  private final long[] accountIds;
+  private final long[] targetUserIds;
+  private final long[] targetAccountIds;
+  private final long[] amounts;
+  private final long[] targetAmounts;
+  private int size;
+
+  public AuditBatch(int capacity) {
+    actions = new byte[capacity];
+    occurredAt = new long[capacity];
+    userIds = new long[capacity];
+    accountIds = new long[capacity];
+    targetUserIds = new long[capacity];
+    targetAccountIds = new long[capacity];
+    amounts = new long[capacity];
+    targetAmounts = new long[capacity];
+  }
+
+  void add(
+      byte action,
+      long occurredAt,
+      long userId,
+      long accountId,
+      long targetUserId,
+      long targetAccountId,
+      long amount,
+      long targetAmount) {
+    actions[size] = action;
+    this.occurredAt[size] = occurredAt;
+    userIds[size] = userId;
+    accountIds[size] = accountId;
+    targetUserIds[size] = targetUserId;
+    targetAccountIds[size] = targetAccountId;
+    amounts[size] = amount;
+    targetAmounts[size] = targetAmount;
+    size++;
+  }
+
+  void clear() {
+    size = 0;
+  }
+
+  public int capacity() {
+    return actions.length;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isFull() {
+    return size == actions.length;
+  }
+
+  public AuditAction getAction(int index) {
+    return ACTIONS[actions[index]];
+  }
+
+  /** Epoch milliseconds at which the audited change was made. */
+  public long getOccurredAt(int index) {
+    return occurredAt[index];
+  }
+
+  public long getUserId(int index) {
+    return userIds[index];
+  }
+
+  public long getAccountId(int index) {
+    return accountIds[index];
+  }
+
+  public long getTargetUserId(int index) {
+    return targetUserIds[index];
+  }
+
+  public long getTargetAccountId(int index) {
+    return targetAccountIds[index];
+  }
+
+  public long getAmount(int index) {
+    return amounts[index];
+  }
+
+  /** Amount credited to the target account, in its currency; 0 for changes without a target. */
+  public long getTargetAmount(int index) {
+    return targetAmounts[index];
+  }
+}
@@ -0,0 +1,9 @@
+package com.skypro.simplebanking.audit;
+
+/** How far a written batch of audit records is pushed before the next one is taken. */
+public enum AuditDurability {
+  /** The batch is handed to the operating system or committed without waiting for the WAL. */
+  FLUSH,
+  /** The batch is on disk: files are fsynced and commits wait for the WAL flush. */
+  FSYNC
+}
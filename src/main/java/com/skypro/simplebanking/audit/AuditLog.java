@@ -0,0 +1,244 @@
+package com.skypro.simplebanking.audit;
+
+import com.skypro.simplebanking.configuration.AuditProperties;
+import com.skypro.simplebanking.dto.AuditMetricsDTO;
+import com.skypro.simplebanking.exception.ServiceOverloadedException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Audit trail of user creations and balance changes, written off the request path. Each record
+ * claims a slot in a pre-allocated {@link AuditRingBuffer} just before its transaction commits and
+ * is published into it once the commit is through; a single writer thread drains the ring into
+ * batches of up to the configured size, waiting up to the linger time for a batch to fill, and
+ * hands them to the {@link AuditSink}. A batch that fails is retried until it is written, so
+ * records are delivered at least once. Nothing is dropped: if the writer falls behind for longer
+ * than the publish wait, the transaction fails as overloaded instead of committing unaudited.
+ */
+@Component
+public class AuditLog {
+  private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final AuditSink sink;
+  private final boolean enabled;
+  private final AuditRingBuffer ringBuffer;
+  private final AuditBatch batch;
+  private final long lingerNanos;
+  private final long maxPublishWaitNanos;
+  private final long retryIntervalNanos;
+  private final LongAdder written = new LongAdder();
+  private final LongAdder failedBatches = new LongAdder();
+  private final Thread writer;
+  private volatile boolean running = true;
+
+  public AuditLog(AuditSink sink, AuditProperties properties) {
+    this.sink = sink;
+    this.enabled = properties.isEnabled();
+    this.ringBuffer = new AuditRingBuffer(properties.getBufferSize());
+    this.batch = new AuditBatch(properties.getBatchSize());
+    this.lingerNanos = properties.getLinger().toNanos();
+    this.maxPublishWaitNanos = properties.getMaxPublishWait().toNanos();
+    this.retryIntervalNanos = properties.getRetryInterval().toNanos();
+    this.writer = new Thread(this::run, "audit-writer");
+    this.writer.setDaemon(true);
+  }
+
+  @PostConstruct
+  public void start() {
+    if (enabled) {
+      writer.start();
+    }
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException, IOException {
+    if (!enabled) {
+      return;
+    }
+    running = false;
+    writer.join(TimeUnit.SECONDS.toMillis(10));
+    sink.close();
+  }
+
+  public void userCreated(long userId) {
+    record(AuditAction.USER_CREATED, userId, 0, 0, 0, 0, 0);
+  }
+
+  public void deposited(long userId, long accountId, long amount) {
+    record(AuditAction.DEPOSIT, userId, accountId, 0, 0, amount, 0);
+  }
+
+  public void withdrawn(long userId, long accountId, long amount) {
+    record(AuditAction.WITHDRAWAL, userId, accountId, 0, 0, amount, 0);
+  }
+
+  /** The amount is debited in the source currency, the target amount credited in the target's. */
+  public void transferred(
+      long userId,
+      long fromAccountId,
+      long toUserId,
+      long toAccountId,
+      long amount,
+      long toAmount) {
+    record(AuditAction.TRANSFER, userId, fromAccountId, toUserId, toAccountId, amount, toAmount);
+  }
+
+  /** A debit refunded because the transfer to the target could not be completed. */
+  public void reversed(
+      long userId, long accountId, long targetUserId, long targetAccountId, long amount) {
+    record(AuditAction.REVERSAL, userId, accountId, targetUserId, targetAccountId, amount, 0);
+  }
+
+  public AuditMetricsDTO getMetrics() {
+    return new AuditMetricsDTO(
+        ringBuffer.getCapacity(),
+        ringBuffer.size(),
+        ringBuffer.getPublished(),
+        written.sum(),
+        ringBuffer.getSaturations(),
+        ringBuffer.getRejected(),
+        failedBatches.sum());
+  }
+
+  private void record(
+      AuditAction action,
+      long userId,
+      long accountId,
+      long targetUserId,
+      long targetAccountId,
+      long amount,
+      long targetAmount) {
+    if (!enabled) {
+      return;
+    }
+    long occurredAt = System.currentTimeMillis();
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      ringBuffer.publish(
+          ringBuffer.claim(Long.MAX_VALUE),
+          action,
+          occurredAt,
+          userId,
+          accountId,
+          targetUserId,
+          targetAccountId,
+          amount,
+          targetAmount);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new PendingRecord(
+            action,
+            occurredAt,
+            userId,
+            accountId,
+            targetUserId,
+            targetAccountId,
+            amount,
+            targetAmount));
+  }
+
+  private void run() {
+    long batchStart = 0;
+    while (running || ringBuffer.size() > 0 || batch.size() > 0) {
+      if (batch.size() == 0) {
+        batchStart = System.nanoTime();
+      }
+      ringBuffer.drainTo(batch);
+      if (batch.size() == 0
+          || (!batch.isFull() && running && System.nanoTime() - batchStart < lingerNanos)) {
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+        continue;
+      }
+      try {
+        sink.write(batch);
+        written.add(batch.size());
+        batch.clear();
+      } catch (IOException | RuntimeException e) {
+        failedBatches.increment();
+        log.warn("Could not write {} audit records, retrying", batch.size(), e);
+        if (!running) {
+          return;
+        }
+        LockSupport.parkNanos(retryIntervalNanos);
+      }
+    }
+  }
+
+  /**
+   * Reserves the record's slot before the transaction commits, failing the commit as overloaded
+   * if none frees up within the publish wait, and fills the slot once the outcome is known. A
+   * change is therefore never committed without its record having a place in the ring.
+   */
+  private class PendingRecord implements TransactionSynchronization {
+    private final AuditAction action;
+    private final long occurredAt;
+    private final long userId;
+    private final long accountId;
+    private final long targetUserId;
+    private final long targetAccountId;
+    private final long amount;
+    private final long targetAmount;
+    private long sequence = -1;
+
+    PendingRecord(
+        AuditAction action,
+        long occurredAt,
+        long userId,
+        long accountId,
+        long targetUserId,
+        long targetAccountId,
+        long amount,
+        long targetAmount) {
+      this.action = action;
+      this.occurredAt = occurredAt;
+      this.userId = userId;
+      this.accountId = accountId;
+      this.targetUserId = targetUserId;
+      this.targetAccountId = targetAccountId;
+      this.amount = amount;
+      this.targetAmount = targetAmount;
+    }
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+      sequence = ringBuffer.claim(maxPublishWaitNanos);
+      if (sequence < 0) {
+        log.warn("Audit buffer full, rejecting {} by user {}", action, userId);
+        throw new ServiceOverloadedException(1);
+      }
+    }
+
+    /** A commit of unknown outcome is recorded: a duplicate is better than a missing record. */
+    @Override
+    public void afterCompletion(int status) {
+      if (sequence < 0) {
+        return;
+      }
+      if (status == STATUS_ROLLED_BACK) {
+        ringBuffer.skip(sequence);
+      } else {
+        ringBuffer.publish(
+            sequence,
+            action,
+            occurredAt,
+            userId,
+            accountId,
+            targetUserId,
+            targetAccountId,
+            amount,
+            targetAmount);
+      }
+      sequence = -1;
+    }
+  }
+}
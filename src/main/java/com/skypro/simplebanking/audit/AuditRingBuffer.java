@@ -0,0 +1,161 @@
+package com.skypro.simplebanking.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Multi-producer, single-consumer ring of audit records held in pre-allocated parallel arrays, so
+ * the ring itself allocates nothing per record. A producer claims a sequence with a CAS, which
+ * reserves the slot, then fills it and marks it published, or marks it skipped if the audited
+ * change was rolled back after all. The consumer copies published slots out in sequence order,
+ * passes over skipped ones and frees them by advancing its own sequence. While the ring is full,
+ * producers wait for the consumer up to a deadline and the claim fails after it.
+ */
+public class AuditRingBuffer {
+  private static final long PARK_NANOS = 50_000;
+  private static final byte SKIPPED = -1;
+
+  private final int capacity;
+  private final int mask;
+  private final byte[] actions;
+  private final long[] occurredAt;
+  private final long[] userIds;
+  private final long[] accountIds;
+  private final long[] targetUserIds;
+  private final long[] targetAccountIds;
+  private final long[] amounts;
+  private final long[] targetAmounts;
+  private final AtomicLongArray published;
+  private final AtomicLong claimed = new AtomicLong();
+  private final LongAdder publishedRecords = new LongAdder();
+  private final LongAdder saturations = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private volatile long consumed;
+
+  public AuditRingBuffer(int capacity) {
+    if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity should be a power of two");
+    }
+    this.capacity = capacity;
+    this.mask = capacity - 1;
+    actions = new byte[capacity];
+    occurredAt = new long[capacity];
+    userIds = new long[capacity];
+    accountIds = new long[capacity];
+    targetUserIds = new long[capacity];
+    targetAccountIds = new long[capacity];
+    amounts = new long[capacity];
+    targetAmounts = new long[capacity];
+    published = new AtomicLongArray(capacity);
+    for (int slot = 0; slot < capacity; slot++) {
+      published.set(slot, -1);
+    }
+  }
+
+  /**
+   * Reserves the next slot and returns its sequence, or -1 if the ring stayed full for the whole
+   * wait. Every claimed sequence must be passed to {@link #publish} or {@link #skip}, since the
+   * consumer stops at it until then.
+   */
+  public long claim(long maxWaitNanos) {
+    long deadline = 0;
+    boolean waiting = false;
+    while (true) {
+      long sequence = claimed.get();
+      if (sequence - consumed >= capacity) {
+        if (!waiting) {
+          saturations.increment();
+          waiting = true;
+          deadline = System.nanoTime() + maxWaitNanos;
+        } else if (System.nanoTime() - deadline >= 0) {
+          rejected.increment();
+          return -1;
+        }
+        LockSupport.parkNanos(PARK_NANOS);
+      } else if (claimed.compareAndSet(sequence, sequence + 1)) {
+        return sequence;
+      }
+    }
+  }
+
+  public void publish(
+      long sequence,
+      AuditAction action,
+      long occurredAt,
+      long userId,
+      long accountId,
+      long targetUserId,
+      long targetAccountId,
+      long amount,
+      long targetAmount) {
+    int slot = (int) sequence & mask;
+    actions[slot] = (byte) action.ordinal();
+    this.occurredAt[slot] = occurredAt;
+    userIds[slot] = userId;
+    accountIds[slot] = accountId;
+    targetUserIds[slot] = targetUserId;
+    targetAccountIds[slot] = targetAccountId;
+    amounts[slot] = amount;
+    targetAmounts[slot] = targetAmount;
+    publishedRecords.increment();
+    published.set(slot, sequence);
+  }
+
+  /** Gives a claimed slot back without a record. */
+  public void skip(long sequence) {
+    int slot = (int) sequence & mask;
+    actions[slot] = SKIPPED;
+    published.set(slot, sequence);
+  }
+
+  /** Moves published records into the batch until it is full; only the consumer may call it. */
+  public int drainTo(AuditBatch batch) {
+    long next = consumed;
+    int drained = 0;
+    while (!batch.isFull()) {
+      int slot = (int) next & mask;
+      if (published.get(slot) != next) {
+        break;
+      }
+      if (actions[slot] != SKIPPED) {
+        batch.add(
+            actions[slot],
+            occurredAt[slot],
+            userIds[slot],
+            accountIds[slot],
+            targetUserIds[slot],
+            targetAccountIds[slot],
+            amounts[slot],
+            targetAmounts[slot]);
+        drained++;
+      }
+      next++;
+    }
+    consumed = next;
+    return drained;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /** Number of claimed slots not yet consumed, including ones still being filled. */
+  public int size() {
+    return (int) Math.min(capacity, claimed.get() - consumed);
+  }
+
+  public long getPublished() {
+    return publishedRecords.sum();
+  }
+
+  public long getSaturations() {
+    return saturations.sum();
+  }
+
+  /** Claims that gave up because the ring stayed full. */
+  public long getRejected() {
+    return rejected.sum();
+  }
+}
@@ -0,0 +1,10 @@
+package com.skypro.simplebanking.audit;
+
+import java.io.IOException;
+
+public interface AuditSink {
+  /** Writes the whole batch with the sink's durability. A failed batch is written again. */
+  void write(AuditBatch batch) throws IOException;
+
+  default void close() throws IOException {}
+}
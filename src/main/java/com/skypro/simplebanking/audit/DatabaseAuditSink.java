@@ -0,0 +1,62 @@
+package com.skypro.simplebanking.audit;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes each batch into {@code audit_records} in one transaction. With {@link
+ * AuditDurability#FLUSH} the commit does not wait for the WAL flush.
+ */
+public class DatabaseAuditSink implements AuditSink {
+  private static final String INSERT =
+      "insert into audit_records (occurred_at, action, user_id, account_id, target_user_id,"
+          + " target_account_id, amount, target_amount) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final AuditDurability durability;
+
+  public DatabaseAuditSink(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      AuditDurability durability) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.durability = durability;
+  }
+
+  @Override
+  public void write(AuditBatch batch) {
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          if (durability == AuditDurability.FLUSH) {
+            jdbcTemplate.execute("set local synchronous_commit = off");
+          }
+          jdbcTemplate.batchUpdate(
+              INSERT,
+              new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                  statement.setTimestamp(1, new Timestamp(batch.getOccurredAt(i)));
+                  statement.setString(2, batch.getAction(i).name());
+                  statement.setLong(3, batch.getUserId(i));
+                  statement.setLong(4, batch.getAccountId(i));
+                  statement.setLong(5, batch.getTargetUserId(i));
+                  statement.setLong(6, batch.getTargetAccountId(i));
+                  statement.setLong(7, batch.getAmount(i));
+                  statement.setLong(8, batch.getTargetAmount(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                  return batch.size();
+                }
+              });
+        });
+  }
+}
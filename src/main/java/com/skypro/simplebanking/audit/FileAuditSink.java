@@ -0,0 +1,98 @@
+package com.skypro.simplebanking.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Appends each batch as CSV lines to one file per UTC day, {@code audit-yyyy-mm-dd.csv}. With
+ * {@link AuditDurability#FSYNC} the file is forced to disk after every batch.
+ */
+public class FileAuditSink implements AuditSink {
+  private final Path directory;
+  private final AuditDurability durability;
+  private final StringBuilder lines = new StringBuilder();
+  private LocalDate currentDay;
+  private FileChannel channel;
+
+  public FileAuditSink(Path directory, AuditDurability durability) {
+    this.directory = directory;
+    this.durability = durability;
+  }
+
+  @Override
+  public void write(AuditBatch batch) throws IOException {
+    int start = 0;
+    while (start < batch.size()) {
+      LocalDate day = dayOf(batch.getOccurredAt(start));
+      int end = start;
+      lines.setLength(0);
+      while (end < batch.size() && dayOf(batch.getOccurredAt(end)).equals(day)) {
+        appendLine(batch, end++);
+      }
+      write(day, lines);
+      start = end;
+    }
+    if (durability == AuditDurability.FSYNC && channel != null) {
+      channel.force(false);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (channel != null) {
+      channel.force(false);
+      channel.close();
+      channel = null;
+    }
+  }
+
+  private void write(LocalDate day, CharSequence content) throws IOException {
+    if (!day.equals(currentDay)) {
+      close();
+      Files.createDirectories(directory);
+      channel =
+          FileChannel.open(
+              directory.resolve("audit-" + day + ".csv"),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.APPEND);
+      currentDay = day;
+    }
+    ByteBuffer buffer = StandardCharsets.UTF_8.encode(content.toString());
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  private void appendLine(AuditBatch batch, int index) {
+    lines
+        .append(Instant.ofEpochMilli(batch.getOccurredAt(index)))
+        .append(',')
+        .append(batch.getAction(index).name())
+        .append(',')
+        .append(batch.getUserId(index))
+        .append(',')
+        .append(batch.getAccountId(index))
+        .append(',')
+        .append(batch.getTargetUserId(index))
+        .append(',')
+        .append(batch.getTargetAccountId(index))
+        .append(',')
+        .append(batch.getAmount(index))
+        .append(',')
+        .append(batch.getTargetAmount(index))
+        .append('\n');
+  }
+
+  private static LocalDate dayOf(long epochMillis) {
+    return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+  }
+}
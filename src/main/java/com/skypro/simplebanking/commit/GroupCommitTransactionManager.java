@@ -0,0 +1,37 @@
+package com.skypro.simplebanking.commit;
+
+import javax.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * The JPA transaction manager of the application while group commit is enabled. A service that
+ * fails inside a transaction it joined normally marks the whole transaction rollback-only. Work
+ * the {@link GroupCommitter} runs under a savepoint is rolled back to that savepoint instead, so
+ * only there does such a failure leave the shared transaction alone; every other transaction
+ * keeps the default behaviour. Explicit {@code setRollbackOnly} calls are honoured everywhere.
+ */
+public class GroupCommitTransactionManager extends JpaTransactionManager {
+  private static final ThreadLocal<Boolean> UNDER_SAVEPOINT = new ThreadLocal<>();
+
+  public GroupCommitTransactionManager(EntityManagerFactory entityManagerFactory) {
+    super(entityManagerFactory);
+  }
+
+  static void runUnderSavepoint(Runnable work) {
+    UNDER_SAVEPOINT.set(Boolean.TRUE);
+    try {
+      work.run();
+    } finally {
+      UNDER_SAVEPOINT.remove();
+    }
+  }
+
+  @Override
+  protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+    if (UNDER_SAVEPOINT.get() != null && !status.isLocalRollbackOnly()) {
+      return;
+    }
+    super.doSetRollbackOnly(status);
+  }
+}
@@ -0,0 +1,294 @@
+package com.skypro.simplebanking.commit;
+
+import com.skypro.simplebanking.exception.CommitOutcomeUnknownException;
+import com.skypro.simplebanking.exception.ServiceOverloadedException;
+import com.skypro.simplebanking.sharding.ShardContext;
+import com.skypro.simplebanking.sharding.ShardRouter;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs single transfers and balance changes of concurrent requests together on a dedicated
+ * committer thread, one transaction per shard for everything that arrived within the window or
+ * up to the batch size, so the group pays for one commit and WAL flush instead of one each. Each
+ * piece of work runs under its own savepoint: a failing one is rolled back to it, together with
+ * the after-commit callbacks it registered, and only its caller sees the error. The others are
+ * completed once the group commits. If the group fails before its commit is sent, nothing of it
+ * was written and the others are run again one transaction at a time; if the commit itself fails,
+ * the group may be durable already, so its callers are told the outcome is unknown and nothing is
+ * run again.
+ *
+ * <p>Callers wait at most {@code app.group-commit.timeout-millis} for their work to commit. If
+ * the committer has not picked it up by then, the work is dropped and the caller is rejected as
+ * overloaded. Work already picked up runs in a transaction with the same timeout; its caller
+ * waits that long once more and is then told that the outcome is unknown.
+ *
+ * <p>With group commit disabled, or when the caller is already in a transaction, the work runs
+ * on the caller's thread as before.
+ */
+@Component
+public class GroupCommitter {
+  private static final Logger log = LoggerFactory.getLogger(GroupCommitter.class);
+
+  private final ShardRouter shardRouter;
+  private final JdbcTemplate jdbcTemplate;
+  private final EntityManager entityManager;
+  private final TransactionTemplate transaction;
+  private final boolean enabled;
+  private final BlockingQueue<PendingCommit<?>> queue;
+  private final long windowNanos;
+  private final int maxBatchSize;
+  private final long timeoutNanos;
+  private final Thread committer;
+  private volatile boolean running = true;
+
+  public GroupCommitter(
+      ShardRouter shardRouter,
+      JdbcTemplate jdbcTemplate,
+      EntityManager entityManager,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.group-commit.enabled:false}") boolean enabled,
+      @Value("${app.group-commit.window-millis:2}") long windowMillis,
+      @Value("${app.group-commit.max-batch-size:64}") int maxBatchSize,
+      @Value("${app.group-commit.queue-capacity:10000}") int queueCapacity,
+      @Value("${app.group-commit.timeout-millis:5000}") long timeoutMillis) {
+    this.shardRouter = shardRouter;
+    this.jdbcTemplate = jdbcTemplate;
+    this.entityManager = entityManager;
+    this.transaction = new TransactionTemplate(transactionManager);
+    this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.transaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis)));
+    this.enabled = enabled;
+    this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    this.maxBatchSize = maxBatchSize;
+    this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    this.committer = new Thread(this::run, "group-committer");
+    this.committer.setDaemon(true);
+  }
+
+  @PostConstruct
+  public void start() {
+    if (enabled) {
+      committer.start();
+    }
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    running = false;
+    if (enabled) {
+      committer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+  }
+
+  /** Runs the work on the shard and returns its result once it has committed. */
+  public <T> T execute(int shard, Supplier<T> work) {
+    if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+      return shardRouter.inTransaction(shard, status -> work.get());
+    }
+    PendingCommit<T> commit = new PendingCommit<>(shard, work);
+    if (!running || !queue.offer(commit)) {
+      throw new ServiceOverloadedException(1);
+    }
+    if (!running && queue.remove(commit)) {
+      throw new ServiceOverloadedException(1);
+    }
+    try {
+      return commit.await(timeoutNanos);
+    } catch (TimeoutException | InterruptedException e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      if (commit.abandon()) {
+        throw new ServiceOverloadedException(1);
+      }
+    }
+    try {
+      return commit.await(timeoutNanos);
+    } catch (TimeoutException | InterruptedException e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      log.warn("Stopped waiting for a started commit on shard {}, its outcome is unknown", shard);
+      throw new CommitOutcomeUnknownException("Commit did not finish in time", e);
+    }
+  }
+
+  private void run() {
+    List<PendingCommit<?>> window = new ArrayList<>(maxBatchSize);
+    while (running) {
+      try {
+        PendingCommit<?> first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+          continue;
+        }
+        window.add(first);
+        long deadline = System.nanoTime() + windowNanos;
+        while (window.size() < maxBatchSize) {
+          PendingCommit<?> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          window.add(next);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        running = false;
+      }
+      if (!window.isEmpty()) {
+        flush(window);
+        window.clear();
+      }
+    }
+    PendingCommit<?> left;
+    while ((left = queue.poll()) != null) {
+      left.fail(new ServiceOverloadedException(1));
+    }
+  }
+
+  private void flush(List<PendingCommit<?>> window) {
+    Map<Integer, List<PendingCommit<?>>> groups = new TreeMap<>();
+    for (PendingCommit<?> commit : window) {
+      if (!commit.start()) {
+        continue;
+      }
+      groups.computeIfAbsent(commit.getShard(), key -> new ArrayList<>()).add(commit);
+    }
+    groups.forEach(
+        (shard, group) -> {
+          try {
+            commitGroup(shard, group);
+          } catch (RuntimeException | Error e) {
+            group.stream().filter(commit -> !commit.isDone()).forEach(commit -> commit.fail(e));
+          }
+        });
+  }
+
+  private void commitGroup(int shard, List<PendingCommit<?>> group) {
+    List<PendingCommit<?>> succeeded = new ArrayList<>(group.size());
+    AtomicBoolean committing = new AtomicBoolean();
+    try {
+      inNewTransaction(
+          shard,
+          status -> {
+            for (PendingCommit<?> commit : group) {
+              if (runUnderSavepoint(commit)) {
+                succeeded.add(commit);
+              }
+            }
+            committing.set(true);
+            return null;
+          });
+    } catch (RuntimeException e) {
+      if (committing.get() && !(e instanceof UnexpectedRollbackException)) {
+        log.error(
+            "Commit of a group of {} on shard {} failed, outcome unknown", group.size(), shard, e);
+        CommitOutcomeUnknownException unknown =
+            new CommitOutcomeUnknownException("Commit failed, outcome unknown", e);
+        succeeded.forEach(commit -> commit.fail(unknown));
+        return;
+      }
+      log.warn(
+          "Group of {} commits on shard {} failed, retrying one by one", group.size(), shard, e);
+      for (PendingCommit<?> commit : group) {
+        if (!commit.isDone()) {
+          commitAlone(shard, commit);
+        }
+      }
+      return;
+    }
+    succeeded.forEach(PendingCommit::complete);
+  }
+
+  /**
+   * Runs the work under a savepoint and flushes it, so its SQL errors surface while it can still
+   * be undone alone. The persistence context is cleared afterwards either way: every piece of work
+   * reads its entities afresh, as it would in a transaction of its own.
+   */
+  private boolean runUnderSavepoint(PendingCommit<?> commit) {
+    List<TransactionSynchronization> synchronizations =
+        TransactionSynchronizationManager.getSynchronizations();
+    Savepoint savepoint =
+        jdbcTemplate.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+    try {
+      GroupCommitTransactionManager.runUnderSavepoint(
+          () -> {
+            commit.run();
+            entityManager.flush();
+          });
+    } catch (RuntimeException e) {
+      jdbcTemplate.execute(
+          (ConnectionCallback<Void>)
+              connection -> {
+                connection.rollback(savepoint);
+                return null;
+              });
+      entityManager.clear();
+      TransactionSynchronizationManager.clearSynchronization();
+      TransactionSynchronizationManager.initSynchronization();
+      synchronizations.forEach(TransactionSynchronizationManager::registerSynchronization);
+      commit.fail(e);
+      return false;
+    }
+    entityManager.clear();
+    jdbcTemplate.execute(
+        (ConnectionCallback<Void>)
+            connection -> {
+              connection.releaseSavepoint(savepoint);
+              return null;
+            });
+    return true;
+  }
+
+  private void commitAlone(int shard, PendingCommit<?> commit) {
+    AtomicBoolean committing = new AtomicBoolean();
+    try {
+      inNewTransaction(
+          shard,
+          status -> {
+            commit.run();
+            committing.set(true);
+            return null;
+          });
+    } catch (RuntimeException e) {
+      if (committing.get() && !(e instanceof UnexpectedRollbackException)) {
+        commit.fail(new CommitOutcomeUnknownException("Commit failed, outcome unknown", e));
+      } else {
+        commit.fail(e);
+      }
+      return;
+    }
+    commit.complete();
+  }
+
+  private <T> T inNewTransaction(int shard, TransactionCallback<T> work) {
+    return ShardContext.call(shard, () -> transaction.execute(work));
+  }
+}
@@ -0,0 +1,71 @@
+package com.skypro.simplebanking.commit;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+class PendingCommit<T> {
+  private static final int QUEUED = 0;
+  private static final int STARTED = 1;
+  private static final int ABANDONED = 2;
+
+  private final int shard;
+  private final Supplier<T> work;
+  private final CompletableFuture<T> result = new CompletableFuture<>();
+  private final AtomicInteger state = new AtomicInteger(QUEUED);
+  private T value;
+
+  PendingCommit(int shard, Supplier<T> work) {
+    this.shard = shard;
+    this.work = work;
+  }
+
+  int getShard() {
+    return shard;
+  }
+
+  boolean isDone() {
+    return result.isDone();
+  }
+
+  /** Claims the work for the committer; fails if its caller has already given up on it. */
+  boolean start() {
+    return state.compareAndSet(QUEUED, STARTED) || state.get() == STARTED;
+  }
+
+  /** Gives up on work the committer has not started yet, so it will never run. */
+  boolean abandon() {
+    return state.compareAndSet(QUEUED, ABANDONED);
+  }
+
+  /** Runs the work; its result is handed to the caller only once the transaction commits. */
+  void run() {
+    value = work.get();
+  }
+
+  void complete() {
+    result.complete(value);
+  }
+
+  void fail(Throwable error) {
+    result.completeExceptionally(error);
+  }
+
+  T await(long timeoutNanos) throws TimeoutException, InterruptedException {
+    try {
+      return result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+}
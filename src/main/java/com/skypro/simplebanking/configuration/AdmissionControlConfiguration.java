@@ -0,0 +1,84 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.limiter.AdaptiveConcurrencyLimiter;
+import java.util.Arrays;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlConfiguration {
+  static final String[] WRITE_PATHS = {
+    "/transfer/**", "/account/deposit/**", "/account/withdraw/**"
+  };
+  static final String[] READ_PATHS = {"/account/**", "/user/**"};
+
+  /** Runs ahead of Spring Security's filter chain, which is registered at the default order. */
+  private static final int FILTER_ORDER = SecurityProperties.DEFAULT_FILTER_ORDER - 10;
+
+  private final AdmissionControlProperties properties;
+  private final HandlerExceptionResolver handlerExceptionResolver;
+
+  public AdmissionControlConfiguration(
+      AdmissionControlProperties properties,
+      @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver) {
+    this.properties = properties;
+    this.handlerExceptionResolver = handlerExceptionResolver;
+  }
+
+  @Bean
+  public FilterRegistrationBean<AdmissionControlFilter> writeAdmissionControlFilter() {
+    return register("writeAdmissionControl", paths(WRITE_PATHS), properties.getWrite());
+  }
+
+  @Bean
+  public FilterRegistrationBean<AdmissionControlFilter> readAdmissionControlFilter() {
+    return register(
+        "readAdmissionControl",
+        new AndRequestMatcher(paths(READ_PATHS), new NegatedRequestMatcher(paths(WRITE_PATHS))),
+        properties.getRead());
+  }
+
+  private FilterRegistrationBean<AdmissionControlFilter> register(
+      String name, RequestMatcher requestMatcher, AdmissionControlProperties.Budget budget) {
+    AdmissionControlFilter filter =
+        new AdmissionControlFilter(
+            requestMatcher,
+            createLimiter(budget),
+            Math.max(1, properties.getRetryAfter().toSeconds()),
+            handlerExceptionResolver);
+    FilterRegistrationBean<AdmissionControlFilter> registration =
+        new FilterRegistrationBean<>(filter);
+    registration.setName(name);
+    registration.setOrder(FILTER_ORDER);
+    return registration;
+  }
+
+  private static RequestMatcher paths(String[] patterns) {
+    return new OrRequestMatcher(
+        Arrays.stream(patterns)
+            .map(AntPathRequestMatcher::new)
+            .toArray(RequestMatcher[]::new));
+  }
+
+  private AdaptiveConcurrencyLimiter createLimiter(AdmissionControlProperties.Budget budget) {
+    return new AdaptiveConcurrencyLimiter(
+        budget.getInitialLimit(),
+        budget.getMinLimit(),
+        budget.getMaxLimit(),
+        budget.getQueueSize(),
+        budget.getQueueTimeout(),
+        budget.getLatencyThreshold(),
+        properties.getBackoffRatio());
+  }
+}
@@ -0,0 +1,71 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.exception.ServiceOverloadedException;
+import com.skypro.simplebanking.limiter.AdaptiveConcurrencyLimiter;
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Admits matching requests through the limiter before the security chain runs, so that a request
+ * turned away under overload has not yet cost a BCrypt verification. The permit is held until the
+ * request completes or goes asynchronous and gives up its thread.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+  private final RequestMatcher requestMatcher;
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final long retryAfterSeconds;
+  private final HandlerExceptionResolver handlerExceptionResolver;
+
+  public AdmissionControlFilter(
+      RequestMatcher requestMatcher,
+      AdaptiveConcurrencyLimiter limiter,
+      long retryAfterSeconds,
+      HandlerExceptionResolver handlerExceptionResolver) {
+    this.requestMatcher = requestMatcher;
+    this.limiter = limiter;
+    this.retryAfterSeconds = retryAfterSeconds;
+    this.handlerExceptionResolver = handlerExceptionResolver;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+    return !requestMatcher.matches(request);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    boolean acquired;
+    try {
+      acquired = limiter.tryAcquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      handlerExceptionResolver.resolveException(
+          request, response, null, new ServiceOverloadedException(retryAfterSeconds));
+      return;
+    }
+    long start = System.nanoTime();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      limiter.release(System.nanoTime() - start);
+    }
+  }
+
+  public AdaptiveConcurrencyLimiter getLimiter() {
+    return limiter;
+  }
+}
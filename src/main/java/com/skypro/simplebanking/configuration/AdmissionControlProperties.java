@@ -0,0 +1,110 @@
+package com.skypro.simplebanking.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.admission")
+public class AdmissionControlProperties {
+  private Duration retryAfter = Duration.ofSeconds(1);
+  private double backoffRatio = 0.9;
+  private final Budget write =
+      new Budget(20, 2, 100, 50, Duration.ofMillis(200), Duration.ofMillis(250));
+  private final Budget read =
+      new Budget(50, 10, 400, 200, Duration.ofMillis(100), Duration.ofMillis(100));
+
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+
+  public void setRetryAfter(Duration retryAfter) {
+    this.retryAfter = retryAfter;
+  }
+
+  public double getBackoffRatio() {
+    return backoffRatio;
+  }
+
+  public void setBackoffRatio(double backoffRatio) {
+    this.backoffRatio = backoffRatio;
+  }
+
+  public Budget getWrite() {
+    return write;
+  }
+
+  public Budget getRead() {
+    return read;
+  }
+
+  public static class Budget {
+    private int initialLimit;
+    private int minLimit;
+    private int maxLimit;
+    private int queueSize;
+    private Duration queueTimeout;
+    private Duration latencyThreshold;
+
+    public Budget(
+        int initialLimit,
+        int minLimit,
+        int maxLimit,
+        int queueSize,
+        Duration queueTimeout,
+        Duration latencyThreshold) {
+      this.initialLimit = initialLimit;
+      this.minLimit = minLimit;
+      this.maxLimit = maxLimit;
+      this.queueSize = queueSize;
+      this.queueTimeout = queueTimeout;
+      this.latencyThreshold = latencyThreshold;
+    }
+
+    public int getInitialLimit() {
+      return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+      this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+      return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+      this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+      return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+      this.maxLimit = maxLimit;
+    }
+
+    public int getQueueSize() {
+      return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+      this.queueSize = queueSize;
+    }
+
+    public Duration getQueueTimeout() {
+      return queueTimeout;
+    }
+
+    public void setQueueTimeout(Duration queueTimeout) {
+      this.queueTimeout = queueTimeout;
+    }
+
+    public Duration getLatencyThreshold() {
+      return latencyThreshold;
+    }
+
+    public void setLatencyThreshold(Duration latencyThreshold) {
+      this.latencyThreshold = latencyThreshold;
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.audit.AuditSink;
+import com.skypro.simplebanking.audit.DatabaseAuditSink;
+import com.skypro.simplebanking.audit.FileAuditSink;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditConfiguration {
+  @Bean
+  public AuditSink auditSink(
+      AuditProperties properties,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager) {
+    if (properties.getSink() == AuditProperties.Sink.FILE) {
+      return new FileAuditSink(properties.getDirectory(), properties.getDurability());
+    }
+    return new DatabaseAuditSink(jdbcTemplate, transactionManager, properties.getDurability());
+  }
+}
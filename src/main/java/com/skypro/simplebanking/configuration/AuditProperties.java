@@ -0,0 +1,96 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.audit.AuditDurability;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.audit")
+public class AuditProperties {
+  private boolean enabled = true;
+  private Sink sink = Sink.DATABASE;
+  private AuditDurability durability = AuditDurability.FLUSH;
+  private Path directory = Path.of("audit-log");
+  private int bufferSize = 65536;
+  private int batchSize = 1000;
+  private Duration linger = Duration.ofMillis(50);
+  private Duration maxPublishWait = Duration.ofMillis(100);
+  private Duration retryInterval = Duration.ofSeconds(1);
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public Sink getSink() {
+    return sink;
+  }
+
+  public void setSink(Sink sink) {
+    this.sink = sink;
+  }
+
+  public AuditDurability getDurability() {
+    return durability;
+  }
+
+  public void setDurability(AuditDurability durability) {
+    this.durability = durability;
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  public void setDirectory(Path directory) {
+    this.directory = directory;
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  public void setBufferSize(int bufferSize) {
+    this.bufferSize = bufferSize;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public Duration getLinger() {
+    return linger;
+  }
+
+  public void setLinger(Duration linger) {
+    this.linger = linger;
+  }
+
+  public Duration getMaxPublishWait() {
+    return maxPublishWait;
+  }
+
+  public void setMaxPublishWait(Duration maxPublishWait) {
+    this.maxPublishWait = maxPublishWait;
+  }
+
+  public Duration getRetryInterval() {
+    return retryInterval;
+  }
+
+  public void setRetryInterval(Duration retryInterval) {
+    this.retryInterval = retryInterval;
+  }
+
+  public enum Sink {
+    DATABASE,
+    FILE
+  }
+}
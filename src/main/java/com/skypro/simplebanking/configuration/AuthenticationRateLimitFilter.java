@@ -0,0 +1,93 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.exception.RateLimitExceededException;
+import com.skypro.simplebanking.exception.ServiceOverloadedException;
+import com.skypro.simplebanking.limiter.RequestRateLimiter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Applies the per-username limit on failed attempts before basic authentication runs, so a client
+ * guessing passwords cannot make us spend a BCrypt verification per request, and counts the
+ * attempt afterwards if it failed. Rejections, and verifications turned away because the hashing
+ * pool is full, are rendered by the regular exception handlers.
+ */
+@Component
+public class AuthenticationRateLimitFilter extends OncePerRequestFilter {
+  private static final String BASIC_PREFIX = "basic ";
+
+  private final RequestRateLimiter requestRateLimiter;
+  private final HandlerExceptionResolver handlerExceptionResolver;
+
+  public AuthenticationRateLimitFilter(
+      RequestRateLimiter requestRateLimiter,
+      @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver) {
+    this.requestRateLimiter = requestRateLimiter;
+    this.handlerExceptionResolver = handlerExceptionResolver;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    String username = basicUsername(request.getHeader(HttpHeaders.AUTHORIZATION));
+    if (username != null) {
+      try {
+        requestRateLimiter.checkAuthentication(username);
+      } catch (RateLimitExceededException e) {
+        handlerExceptionResolver.resolveException(request, response, null, e);
+        return;
+      }
+    }
+    try {
+      filterChain.doFilter(request, response);
+    } catch (ServiceOverloadedException e) {
+      handlerExceptionResolver.resolveException(request, response, null, e);
+      return;
+    }
+    if (username != null && !isAuthenticated()) {
+      requestRateLimiter.recordAuthenticationFailure(username);
+    }
+  }
+
+  /** Basic authentication clears the context when the credentials are rejected. */
+  private static boolean isAuthenticated() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication != null
+        && authentication.isAuthenticated()
+        && !(authentication instanceof AnonymousAuthenticationToken);
+  }
+
+  private static String basicUsername(String header) {
+    if (header == null
+        || !header.regionMatches(true, 0, BASIC_PREFIX, 0, BASIC_PREFIX.length())) {
+      return null;
+    }
+    try {
+      String credentials =
+          new String(
+              Base64.getDecoder().decode(header.substring(BASIC_PREFIX.length()).trim()),
+              StandardCharsets.UTF_8);
+      int separator = credentials.indexOf(':');
+      return separator < 0 ? null : credentials.substring(0, separator);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
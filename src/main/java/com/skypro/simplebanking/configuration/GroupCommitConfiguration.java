@@ -0,0 +1,31 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.commit.GroupCommitTransactionManager;
+import javax.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class GroupCommitConfiguration {
+  /**
+   * Replaces the auto-configured JPA transaction manager, which backs off when one is defined. A
+   * failure inside a commit group is rolled back to its savepoint, so it must not mark the shared
+   * transaction rollback-only on its way out of the services it went through; outside of commit
+   * groups the manager behaves like the default one.
+   */
+  @Bean
+  @ConditionalOnProperty(name = "app.group-commit.enabled", havingValue = "true")
+  public PlatformTransactionManager transactionManager(
+      EntityManagerFactory entityManagerFactory,
+      ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+    GroupCommitTransactionManager transactionManager =
+        new GroupCommitTransactionManager(entityManagerFactory);
+    transactionManagerCustomizers.ifAvailable(
+        customizers -> customizers.customize(transactionManager));
+    return transactionManager;
+  }
+}
@@ -0,0 +1,38 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.password.BCryptCalibration;
+import com.skypro.simplebanking.password.OffloadedPasswordEncoder;
+import java.util.Map;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+@Configuration
+@EnableConfigurationProperties(PasswordHashingProperties.class)
+public class PasswordHashingConfiguration {
+  private static final String BCRYPT = "bcrypt";
+
+  /**
+   * New hashes are written as {@code {bcrypt}} with the configured or calibrated cost. Hashes
+   * stored before the prefix existed are plain BCrypt and still verify; they, and prefixed hashes
+   * of a lower cost, are reported as needing an upgrade so that they are rehashed on the next
+   * successful login. The cost is paid on every request, as authentication is HTTP Basic.
+   */
+  @Bean
+  public OffloadedPasswordEncoder passwordEncoder(PasswordHashingProperties properties) {
+    int strength =
+        properties.getStrength() != null
+            ? properties.getStrength()
+            : BCryptCalibration.calibrate(
+                properties.getLatencyBudget(),
+                properties.getMinStrength(),
+                properties.getMaxStrength());
+    DelegatingPasswordEncoder encoder =
+        new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, new BCryptPasswordEncoder(strength)));
+    encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(strength));
+    return new OffloadedPasswordEncoder(
+        encoder, properties.getThreads(), properties.getQueueCapacity());
+  }
+}
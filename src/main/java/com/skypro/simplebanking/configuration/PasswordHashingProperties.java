@@ -0,0 +1,63 @@
+package com.skypro.simplebanking.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.password-hashing")
+public class PasswordHashingProperties {
+  private int threads = Runtime.getRuntime().availableProcessors();
+  private int queueCapacity = 256;
+  private Duration latencyBudget = Duration.ofMillis(100);
+  private int minStrength = 10;
+  private int maxStrength = 16;
+  private Integer strength;
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public Duration getLatencyBudget() {
+    return latencyBudget;
+  }
+
+  public void setLatencyBudget(Duration latencyBudget) {
+    this.latencyBudget = latencyBudget;
+  }
+
+  public int getMinStrength() {
+    return minStrength;
+  }
+
+  public void setMinStrength(int minStrength) {
+    this.minStrength = minStrength;
+  }
+
+  public int getMaxStrength() {
+    return maxStrength;
+  }
+
+  public void setMaxStrength(int maxStrength) {
+    this.maxStrength = maxStrength;
+  }
+
+  /** A fixed BCrypt cost; when set, no calibration runs at startup. */
+  public Integer getStrength() {
+    return strength;
+  }
+
+  public void setStrength(Integer strength) {
+    this.strength = strength;
+  }
+}
@@ -0,0 +1,25 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.limiter.RequestRateLimiter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfiguration implements WebMvcConfigurer {
+  private final RequestRateLimiter requestRateLimiter;
+
+  public RateLimitConfiguration(RequestRateLimiter requestRateLimiter) {
+    this.requestRateLimiter = requestRateLimiter;
+  }
+
+  @Override
+  public void addInterceptors(@NonNull InterceptorRegistry registry) {
+    registry
+        .addInterceptor(new RateLimitInterceptor(requestRateLimiter))
+        .addPathPatterns(AdmissionControlConfiguration.WRITE_PATHS);
+  }
+}
@@ -0,0 +1,84 @@
+package com.skypro.simplebanking.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+  private final Rate authentication = new Rate(5, 20);
+  private final Rate user = new Rate(20, 40);
+  private final Rate account = new Rate(10, 20);
+  private final Velocity velocity = new Velocity();
+
+  public Rate getAuthentication() {
+    return authentication;
+  }
+
+  public Rate getUser() {
+    return user;
+  }
+
+  public Rate getAccount() {
+    return account;
+  }
+
+  public Velocity getVelocity() {
+    return velocity;
+  }
+
+  public static class Rate {
+    private double perSecond;
+    private int burst;
+
+    public Rate(double perSecond, int burst) {
+      this.perSecond = perSecond;
+      this.burst = burst;
+    }
+
+    public double getPerSecond() {
+      return perSecond;
+    }
+
+    public void setPerSecond(double perSecond) {
+      this.perSecond = perSecond;
+    }
+
+    public int getBurst() {
+      return burst;
+    }
+
+    public void setBurst(int burst) {
+      this.burst = burst;
+    }
+  }
+
+  public static class Velocity {
+    private Duration window = Duration.ofHours(1);
+    private long userAmount = 100_000_000L;
+    private long accountAmount = 50_000_000L;
+
+    public Duration getWindow() {
+      return window;
+    }
+
+    public void setWindow(Duration window) {
+      this.window = window;
+    }
+
+    public long getUserAmount() {
+      return userAmount;
+    }
+
+    public void setUserAmount(long userAmount) {
+      this.userAmount = userAmount;
+    }
+
+    public long getAccountAmount() {
+      return accountAmount;
+    }
+
+    public void setAccountAmount(long accountAmount) {
+      this.accountAmount = accountAmount;
+    }
+  }
+}
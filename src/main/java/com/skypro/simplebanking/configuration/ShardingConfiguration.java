@@ -0,0 +1,76 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.sharding.ShardContext;
+import com.skypro.simplebanking.sharding.ShardRouter;
+import com.skypro.simplebanking.sharding.ShardRoutingDataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * With {@code app.sharding.enabled} the application data source routes every connection to one
+ * of the configured shards, and migrations run on each of them. Schedules are kept on shard 0,
+ * which executes them, so their requests are not routed to the user's shard.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfiguration implements WebMvcConfigurer {
+  private final ShardingProperties properties;
+  private final ShardRouter shardRouter;
+
+  public ShardingConfiguration(ShardingProperties properties, @Lazy ShardRouter shardRouter) {
+    this.properties = properties;
+    this.shardRouter = shardRouter;
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+  public DataSource dataSource() {
+    List<ShardingProperties.Shard> shards = properties.getShards();
+    Map<Object, Object> targets = new HashMap<>();
+    for (int i = 0; i < shards.size(); i++) {
+      ShardingProperties.Shard shard = shards.get(i);
+      targets.put(
+          i,
+          DataSourceBuilder.create()
+              .url(shard.getUrl())
+              .username(shard.getUsername())
+              .password(shard.getPassword())
+              .build());
+    }
+    ShardRoutingDataSource dataSource = new ShardRoutingDataSource();
+    dataSource.setTargetDataSources(targets);
+    dataSource.setDefaultTargetDataSource(targets.get(0));
+    return dataSource;
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+  public FlywayMigrationStrategy shardMigrationStrategy() {
+    return flyway -> {
+      for (int shard = 0; shard < properties.getShards().size(); shard++) {
+        ShardContext.run(shard, flyway::migrate);
+      }
+    };
+  }
+
+  @Override
+  public void addInterceptors(@NonNull InterceptorRegistry registry) {
+    if (properties.isEnabled()) {
+      registry
+          .addInterceptor(new ShardRoutingInterceptor(shardRouter))
+          .excludePathPatterns("/schedule/**");
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.skypro.simplebanking.configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+  private boolean enabled;
+  private List<Shard> shards = new ArrayList<>();
+  private Duration sagaRetryAfter = Duration.ofMinutes(1);
+  private int sagaRecoveryBatchSize = 100;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public List<Shard> getShards() {
+    return shards;
+  }
+
+  public void setShards(List<Shard> shards) {
+    this.shards = shards;
+  }
+
+  public Duration getSagaRetryAfter() {
+    return sagaRetryAfter;
+  }
+
+  public void setSagaRetryAfter(Duration sagaRetryAfter) {
+    this.sagaRetryAfter = sagaRetryAfter;
+  }
+
+  public int getSagaRecoveryBatchSize() {
+    return sagaRecoveryBatchSize;
+  }
+
+  public void setSagaRecoveryBatchSize(int sagaRecoveryBatchSize) {
+    this.sagaRecoveryBatchSize = sagaRecoveryBatchSize;
+  }
+
+  public static class Shard {
+    private String url;
+    private String username;
+    private String password;
+
+    public String getUrl() {
+      return url;
+    }
+
+    public void setUrl(String url) {
+      this.url = url;
+    }
+
+    public String getUsername() {
+      return username;
+    }
+
+    public void setUsername(String username) {
+      this.username = username;
+    }
+
+    public String getPassword() {
+      return password;
+    }
+
+    public void setPassword(String password) {
+      this.password = password;
+    }
+  }
+}
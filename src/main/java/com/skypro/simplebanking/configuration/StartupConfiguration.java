@@ -0,0 +1,22 @@
+package com.skypro.simplebanking.configuration;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * With {@code app.startup.exit-after-ready} the application shuts down as soon as it is ready to
+ * serve. The AppCDS training run of the {@code appcds} Maven profile relies on it, since the
+ * archive of the classes loaded during startup is written when the JVM exits.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.startup.exit-after-ready", havingValue = "true")
+public class StartupConfiguration {
+  @Bean
+  public ApplicationListener<ApplicationReadyEvent> exitAfterReady() {
+    return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+  }
+}
@@ -0,0 +1,44 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.limiter.ConnectionLimitingDataSource;
+import java.util.concurrent.Executors;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+
+/**
+ * With {@code app.virtual-threads.enabled} Tomcat hands every request to a new virtual thread
+ * instead of its worker pool, so a request blocked on JDBC no longer holds a platform thread.
+ * Since nothing bounds the number of request threads any more, the application data source only
+ * lets {@code app.virtual-threads.max-connections} connections out at a time and queues the rest.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+  @Bean
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+    return protocolHandler ->
+        protocolHandler.setExecutor(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0).factory()));
+  }
+
+  @Bean
+  public static BeanPostProcessor connectionLimitingPostProcessor(
+      @Value("${app.virtual-threads.max-connections:10}") int maxConnections,
+      @Value("${app.virtual-threads.connection-timeout-millis:30000}") long timeoutMillis) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+          return new ConnectionLimitingDataSource((DataSource) bean, maxConnections, timeoutMillis);
+        }
+        return bean;
+      }
+    };
+  }
+}
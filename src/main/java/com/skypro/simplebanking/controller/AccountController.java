@@ -1,19 +1,62 @@
 package com.skypro.simplebanking.controller;
 
+import com.skypro.simplebanking.commit.GroupCommitter;
+import com.skypro.simplebanking.dto.AccountBalanceDTO;
 import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.AccountsDTO;
+import com.skypro.simplebanking.dto.AccountsRequest;
 import com.skypro.simplebanking.dto.BalanceChangeRequest;
 import com.skypro.simplebanking.dto.BankingUserDetails;
+import com.skypro.simplebanking.dto.StatementFormat;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.limiter.RequestRateLimiter;
 import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.BalanceHistoryService;
+import com.skypro.simplebanking.service.StatementService;
+import com.skypro.simplebanking.sharding.ShardContext;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/account")
 public class AccountController {
   private final AccountService accountService;
+  private final BalanceHistoryService balanceHistoryService;
+  private final StatementService statementService;
+  private final RequestRateLimiter requestRateLimiter;
+  private final GroupCommitter groupCommitter;
 
-  public AccountController(AccountService accountService) {
+  public AccountController(
+      AccountService accountService,
+      BalanceHistoryService balanceHistoryService,
+      StatementService statementService,
+      RequestRateLimiter requestRateLimiter,
+      GroupCommitter groupCommitter) {
     this.accountService = accountService;
+    this.balanceHistoryService = balanceHistoryService;
+    this.statementService = statementService;
+    this.requestRateLimiter = requestRateLimiter;
+    this.groupCommitter = groupCommitter;
+  }
+
+  @GetMapping
+  public AccountsDTO getUserAccounts(Authentication authentication,
+                                     @RequestParam("ids") List<Long> accountIds) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    return accountService.getAccounts(bankingUserDetails.getId(), accountIds);
+  }
+
+  @PostMapping("/query")
+  public AccountsDTO queryUserAccounts(Authentication authentication,
+                                       @RequestBody AccountsRequest accountsRequest) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    List<Long> accountIds = accountsRequest.getIds() == null ? List.of() : accountsRequest.getIds();
+    return accountService.getAccounts(bankingUserDetails.getId(), accountIds);
   }
 
   @GetMapping("/{id}")
@@ -22,12 +65,50 @@ public class AccountController {
     return accountService.getAccount(bankingUserDetails.getId(), accountId);
   }
 
+  @GetMapping("/{id}/balance")
+  public AccountBalanceDTO getBalanceAt(Authentication authentication,
+                                        @PathVariable("id") Long accountId,
+                                        @RequestParam("at") Instant at) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    return balanceHistoryService.getBalanceAt(bankingUserDetails.getId(), accountId, at);
+  }
+
+  @GetMapping("/{id}/statement")
+  public ResponseEntity<StreamingResponseBody> getStatement(Authentication authentication,
+                                                            @PathVariable("id") Long accountId,
+                                                            @RequestParam("from") Instant from,
+                                                            @RequestParam("to") Instant to,
+                                                            @RequestParam(value = "format", defaultValue = "csv") String format) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    StatementFormat statementFormat = StatementFormat.parse(format);
+    AccountCurrency currency =
+        statementService.prepareStatement(bankingUserDetails.getId(), accountId, from, to);
+    int shard = ShardContext.current();
+    StreamingResponseBody body =
+        outputStream -> {
+          ShardContext.enter(shard);
+          try {
+            statementService.writeStatement(accountId, currency, from, to, statementFormat, outputStream);
+          } finally {
+            ShardContext.clear();
+          }
+        };
+    return ResponseEntity.ok()
+        .contentType(statementFormat.getMediaType())
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"statement-" + accountId + "." + statementFormat.getExtension() + "\"")
+        .body(body);
+  }
+
   @PostMapping("/deposit/{id}")
   public AccountDTO depositToAccount(Authentication authentication,
                                      @PathVariable("id") Long accountId,
                                      @RequestBody BalanceChangeRequest balanceChangeRequest){
     BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
-    return accountService.depositToAccount(bankingUserDetails.getId(),accountId, balanceChangeRequest.getAmount());
+    return requestRateLimiter.chargeMovement(
+        bankingUserDetails.getId(), accountId, balanceChangeRequest.getAmount(), () ->
+            groupCommitter.execute(ShardContext.current(), () ->
+                accountService.depositToAccount(bankingUserDetails.getId(), accountId, balanceChangeRequest.getAmount())));
   }
 
   @PostMapping("/withdraw/{id}")
@@ -35,6 +116,9 @@ public class AccountController {
                                      @PathVariable("id") Long accountId,
                                      @RequestBody BalanceChangeRequest balanceChangeRequest){
     BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
-    return accountService.withdrawFromAccount(bankingUserDetails.getId(),accountId, balanceChangeRequest.getAmount());
+    return requestRateLimiter.chargeMovement(
+        bankingUserDetails.getId(), accountId, balanceChangeRequest.getAmount(), () ->
+            groupCommitter.execute(ShardContext.current(), () ->
+                accountService.withdrawFromAccount(bankingUserDetails.getId(), accountId, balanceChangeRequest.getAmount())));
   }
 }
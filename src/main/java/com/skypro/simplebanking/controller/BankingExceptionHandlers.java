@@ -1,6 +1,8 @@
 package com.skypro.simplebanking.controller;
 
 import com.skypro.simplebanking.exception.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -12,6 +14,11 @@ public class BankingExceptionHandlers {
     return ResponseEntity.notFound().build();
   }
 
+  @ExceptionHandler(value = {ScheduledTransferNotFoundException.class})
+  public ResponseEntity<?> handleScheduledTransferNotFound() {
+    return ResponseEntity.notFound().build();
+  }
+
   @ExceptionHandler(value = {InsufficientFundsException.class})
   public ResponseEntity<?> handleInsufficientFunds(InsufficientFundsException exception) {
     return ResponseEntity.badRequest().body(exception.getMessage());
@@ -31,4 +38,49 @@ public class BankingExceptionHandlers {
   public ResponseEntity<?> handleWrongCurrency() {
     return ResponseEntity.badRequest().body("Account currencies should be same");
   }
+
+  @ExceptionHandler(value = {RequestTooLargeException.class})
+  public ResponseEntity<?> handleRequestTooLarge(RequestTooLargeException exception) {
+    return ResponseEntity.badRequest().body(exception.getMessage());
+  }
+
+  @ExceptionHandler(value = {InvalidStatementRequestException.class})
+  public ResponseEntity<?> handleInvalidStatementRequest(
+      InvalidStatementRequestException exception) {
+    return ResponseEntity.badRequest().body(exception.getMessage());
+  }
+
+  @ExceptionHandler(value = {InvalidFieldException.class})
+  public ResponseEntity<?> handleInvalidField(InvalidFieldException exception) {
+    return ResponseEntity.badRequest().body(exception.getMessage());
+  }
+
+  @ExceptionHandler(value = {FxRateNotFoundException.class})
+  public ResponseEntity<?> handleFxRateNotFound(FxRateNotFoundException exception) {
+    return ResponseEntity.badRequest().body(exception.getMessage());
+  }
+
+  @ExceptionHandler(value = {InvalidFxRatesException.class})
+  public ResponseEntity<?> handleInvalidFxRates(InvalidFxRatesException exception) {
+    return ResponseEntity.badRequest().body(exception.getMessage());
+  }
+
+  @ExceptionHandler(value = {ServiceOverloadedException.class})
+  public ResponseEntity<?> handleServiceOverloaded(ServiceOverloadedException exception) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+        .build();
+  }
+
+  @ExceptionHandler(value = {CommitOutcomeUnknownException.class})
+  public ResponseEntity<?> handleCommitOutcomeUnknown(CommitOutcomeUnknownException exception) {
+    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(exception.getMessage());
+  }
+
+  @ExceptionHandler(value = {RateLimitExceededException.class})
+  public ResponseEntity<?> handleRateLimitExceeded(RateLimitExceededException exception) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+        .build();
+  }
 }
@@ -0,0 +1,31 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.FxRatesDTO;
+import com.skypro.simplebanking.dto.FxRatesRequest;
+import com.skypro.simplebanking.fx.FxRates;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/fx/rates")
+public class FxRateController {
+  private final FxRates fxRates;
+
+  public FxRateController(FxRates fxRates) {
+    this.fxRates = fxRates;
+  }
+
+  @GetMapping
+  public FxRatesDTO getRates() {
+    return fxRates.getRates();
+  }
+
+  @PutMapping
+  public FxRatesDTO replaceRates(@RequestBody FxRatesRequest request) {
+    return fxRates.replace(request);
+  }
+
+  @PostMapping("/reload")
+  public FxRatesDTO reloadRates() {
+    return fxRates.reload();
+  }
+}
@@ -0,0 +1,53 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.audit.AuditLog;
+import com.skypro.simplebanking.dto.AuditMetricsDTO;
+import com.skypro.simplebanking.dto.CurrencyMetricsDTO;
+import com.skypro.simplebanking.dto.NettingMetricsDTO;
+import com.skypro.simplebanking.dto.PasswordHashingMetricsDTO;
+import com.skypro.simplebanking.metrics.CurrencyMetrics;
+import com.skypro.simplebanking.netting.TransferNettingEngine;
+import com.skypro.simplebanking.password.OffloadedPasswordEncoder;
+import java.util.List;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/metrics")
+public class MetricsController {
+  private final CurrencyMetrics currencyMetrics;
+  private final AuditLog auditLog;
+  private final TransferNettingEngine transferNettingEngine;
+  private final OffloadedPasswordEncoder passwordEncoder;
+
+  public MetricsController(
+      CurrencyMetrics currencyMetrics,
+      AuditLog auditLog,
+      TransferNettingEngine transferNettingEngine,
+      OffloadedPasswordEncoder passwordEncoder) {
+    this.currencyMetrics = currencyMetrics;
+    this.auditLog = auditLog;
+    this.transferNettingEngine = transferNettingEngine;
+    this.passwordEncoder = passwordEncoder;
+  }
+
+  @GetMapping("/currencies")
+  public List<CurrencyMetricsDTO> getCurrencyMetrics(
+      @RequestParam(value = "minutes", defaultValue = "15") int minutes) {
+    return currencyMetrics.snapshot(minutes);
+  }
+
+  @GetMapping("/audit")
+  public AuditMetricsDTO getAuditMetrics() {
+    return auditLog.getMetrics();
+  }
+
+  @GetMapping("/netting")
+  public NettingMetricsDTO getNettingMetrics() {
+    return transferNettingEngine.getMetrics();
+  }
+
+  @GetMapping("/password-hashing")
+  public PasswordHashingMetricsDTO getPasswordHashingMetrics() {
+    return passwordEncoder.getMetrics();
+  }
+}
@@ -0,0 +1,28 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.ReconciliationProgressDTO;
+import com.skypro.simplebanking.reconciliation.ReconciliationJob;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/reconciliation")
+public class ReconciliationController {
+  private final ReconciliationJob reconciliationJob;
+
+  public ReconciliationController(ReconciliationJob reconciliationJob) {
+    this.reconciliationJob = reconciliationJob;
+  }
+
+  @PostMapping
+  public ResponseEntity<ReconciliationProgressDTO> start() {
+    HttpStatus status = reconciliationJob.start() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+    return ResponseEntity.status(status).body(reconciliationJob.getProgress());
+  }
+
+  @GetMapping
+  public ReconciliationProgressDTO getProgress() {
+    return reconciliationJob.getProgress();
+  }
+}
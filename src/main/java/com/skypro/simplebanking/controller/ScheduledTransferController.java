@@ -0,0 +1,55 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.BankingUserDetails;
+import com.skypro.simplebanking.dto.ScheduledTransferDTO;
+import com.skypro.simplebanking.dto.ScheduledTransferRequest;
+import com.skypro.simplebanking.service.ScheduledTransferService;
+import java.util.List;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/schedule")
+public class ScheduledTransferController {
+  private final ScheduledTransferService scheduledTransferService;
+
+  public ScheduledTransferController(ScheduledTransferService scheduledTransferService) {
+    this.scheduledTransferService = scheduledTransferService;
+  }
+
+  @GetMapping
+  public List<ScheduledTransferDTO> listSchedules(Authentication authentication) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    return scheduledTransferService.listSchedules(bankingUserDetails.getId());
+  }
+
+  @GetMapping("/{id}")
+  public ScheduledTransferDTO getSchedule(
+      Authentication authentication, @PathVariable("id") Long scheduleId) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    return scheduledTransferService.getSchedule(bankingUserDetails.getId(), scheduleId);
+  }
+
+  @PostMapping
+  public ScheduledTransferDTO createSchedule(
+      Authentication authentication, @RequestBody ScheduledTransferRequest request) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    return scheduledTransferService.createSchedule(bankingUserDetails.getId(), request);
+  }
+
+  @PutMapping("/{id}")
+  public ScheduledTransferDTO updateSchedule(
+      Authentication authentication,
+      @PathVariable("id") Long scheduleId,
+      @RequestBody ScheduledTransferRequest request) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    return scheduledTransferService.updateSchedule(
+        bankingUserDetails.getId(), scheduleId, request);
+  }
+
+  @DeleteMapping("/{id}")
+  public void deleteSchedule(Authentication authentication, @PathVariable("id") Long scheduleId) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    scheduledTransferService.deleteSchedule(bankingUserDetails.getId(), scheduleId);
+  }
+}
@@ -1,27 +1,138 @@
 package com.skypro.simplebanking.controller;
 
 import com.skypro.simplebanking.dto.BankingUserDetails;
+import com.skypro.simplebanking.dto.PayoutDTO;
+import com.skypro.simplebanking.dto.PayoutItem;
+import com.skypro.simplebanking.dto.PayoutRequest;
 import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.dto.TransferResultDTO;
+import com.skypro.simplebanking.exception.RequestTooLargeException;
+import com.skypro.simplebanking.limiter.RequestRateLimiter;
+import com.skypro.simplebanking.netting.TransferNettingEngine;
+import com.skypro.simplebanking.service.PayoutService;
 import com.skypro.simplebanking.service.TransferService;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping("/transfer")
 public class TransferController {
   private final TransferService transferService;
+  private final PayoutService payoutService;
+  private final TransferNettingEngine transferNettingEngine;
+  private final RequestRateLimiter requestRateLimiter;
+  private final int maxBatchSize;
 
-  public TransferController(TransferService transferService) {
+  public TransferController(
+      TransferService transferService,
+      PayoutService payoutService,
+      TransferNettingEngine transferNettingEngine,
+      RequestRateLimiter requestRateLimiter,
+      @Value("${app.netting.max-request-size:1000}") int maxBatchSize) {
     this.transferService = transferService;
+    this.payoutService = payoutService;
+    this.transferNettingEngine = transferNettingEngine;
+    this.requestRateLimiter = requestRateLimiter;
+    this.maxBatchSize = maxBatchSize;
   }
 
   @PostMapping
   public void transfer(
       Authentication authentication, @RequestBody TransferRequest transferRequest) {
     BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
-    transferService.transfer(bankingUserDetails.getId(), transferRequest);
+    requestRateLimiter.chargeMovement(
+        bankingUserDetails.getId(),
+        transferRequest.getFromAccountId(),
+        transferRequest.getAmount(),
+        () -> {
+          transferService.transfer(bankingUserDetails.getId(), transferRequest);
+          return null;
+        });
+  }
+
+  @PostMapping("/payout")
+  public PayoutDTO payout(Authentication authentication, @RequestBody PayoutRequest payoutRequest) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    long total = 0;
+    if (payoutRequest.getPayouts() != null) {
+      for (PayoutItem payout : payoutRequest.getPayouts()) {
+        total += Math.max(0, payout.getAmount());
+      }
+    }
+    return requestRateLimiter.chargeMovement(
+        bankingUserDetails.getId(),
+        payoutRequest.getFromAccountId(),
+        total,
+        () -> payoutService.payout(bankingUserDetails.getId(), payoutRequest));
+  }
+
+  @PostMapping("/batch")
+  public List<TransferResultDTO> batchTransfer(
+      Authentication authentication, @RequestBody List<TransferRequest> transferRequests) {
+    if (transferRequests.size() > maxBatchSize) {
+      throw new RequestTooLargeException(
+          "Batch cannot have more than " + maxBatchSize + " transfers");
+    }
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    Map<Long, Long> totals = new TreeMap<>();
+    for (TransferRequest transferRequest : transferRequests) {
+      totals.merge(
+          transferRequest.getFromAccountId(), Math.max(0, transferRequest.getAmount()), Long::sum);
+    }
+    Map<Long, Long> charged = new TreeMap<>();
+    List<TransferResultDTO> results;
+    try {
+      for (Map.Entry<Long, Long> total : totals.entrySet()) {
+        requestRateLimiter.checkMovement(
+            bankingUserDetails.getId(), total.getKey(), total.getValue());
+        charged.put(total.getKey(), total.getValue());
+      }
+      results = transferNettingEngine.submitAndAwait(bankingUserDetails.getId(), transferRequests);
+    } catch (RuntimeException e) {
+      charged.forEach(
+          (accountId, total) ->
+              requestRateLimiter.refundMovement(bankingUserDetails.getId(), accountId, total, e));
+      throw e;
+    }
+    for (int i = 0; i < results.size(); i++) {
+      if (results.get(i).getStatus() == TransferResultDTO.Status.REJECTED) {
+        TransferRequest rejected = transferRequests.get(i);
+        requestRateLimiter.refundMovement(
+            bankingUserDetails.getId(), rejected.getFromAccountId(), rejected.getAmount(), null);
+      }
+    }
+    return results;
+  }
+
+  @PostMapping("/async")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public void asyncTransfer(
+      Authentication authentication, @RequestBody TransferRequest transferRequest) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    requestRateLimiter
+        .chargeMovement(
+            bankingUserDetails.getId(),
+            transferRequest.getFromAccountId(),
+            transferRequest.getAmount(),
+            () -> transferNettingEngine.submitDetached(bankingUserDetails.getId(), transferRequest))
+        .whenComplete(
+            (ignored, error) -> {
+              if (error != null) {
+                requestRateLimiter.refundMovement(
+                    bankingUserDetails.getId(),
+                    transferRequest.getFromAccountId(),
+                    transferRequest.getAmount(),
+                    error);
+              }
+            });
   }
 }
@@ -4,6 +4,8 @@ import com.skypro.simplebanking.dto.BankingUserDetails;
 import com.skypro.simplebanking.dto.CreateUserRequest;
 import com.skypro.simplebanking.dto.ListUserDTO;
 import com.skypro.simplebanking.dto.UserDTO;
+import com.skypro.simplebanking.dto.UserField;
+import com.skypro.simplebanking.dto.UserSummary;
 import javax.validation.Valid;
 
 import com.skypro.simplebanking.service.UserService;
@@ -26,12 +28,18 @@ public class UserController {
     return userService.createUser(userRequest.getUsername(), userRequest.getPassword());
   }
   @GetMapping("/list")
-  public List<ListUserDTO> getAllUsers(){
-    return userService.listUsers();
+  public List<ListUserDTO> getAllUsers(@RequestParam(value = "fields", required = false) List<String> fields){
+    return userService.listUsers(UserField.parse(fields));
+  }
+  @GetMapping("/search")
+  public List<UserSummary> searchUsers(@RequestParam("prefix") String prefix,
+                                       @RequestParam(value = "limit", defaultValue = "10") int limit){
+    return userService.searchUsers(prefix, limit);
   }
   @GetMapping("/me")
-  public UserDTO getMyProfile(Authentication authentication){
+  public UserDTO getMyProfile(Authentication authentication,
+                              @RequestParam(value = "fields", required = false) List<String> fields){
     BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
-    return userService.getUser(bankingUserDetails.getId());
+    return userService.getUser(bankingUserDetails.getId(), UserField.parse(fields));
   }
 }
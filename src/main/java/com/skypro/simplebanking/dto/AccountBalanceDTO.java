@@ -0,0 +1,34 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import java.time.Instant;
+
+public class AccountBalanceDTO {
+  private final long accountId;
+  private final Instant at;
+  private final long amount;
+  private final AccountCurrency currency;
+
+  public AccountBalanceDTO(long accountId, Instant at, long amount, AccountCurrency currency) {
+    this.accountId = accountId;
+    this.at = at;
+    this.amount = amount;
+    this.currency = currency;
+  }
+
+  public long getAccountId() {
+    return accountId;
+  }
+
+  public Instant getAt() {
+    return at;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  public AccountCurrency getCurrency() {
+    return currency;
+  }
+}
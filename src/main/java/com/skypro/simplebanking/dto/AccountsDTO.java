@@ -0,0 +1,22 @@
+package com.skypro.simplebanking.dto;
+
+import java.util.List;
+
+public class AccountsDTO {
+  private final List<AccountDTO> accounts;
+  private final List<Long> notFound;
+
+  public AccountsDTO(List<AccountDTO> accounts, List<Long> notFound) {
+    this.accounts = accounts;
+    this.notFound = notFound;
+  }
+
+  public List<AccountDTO> getAccounts() {
+    return accounts;
+  }
+
+  /** Requested ids that do not exist or belong to another user. */
+  public List<Long> getNotFound() {
+    return notFound;
+  }
+}
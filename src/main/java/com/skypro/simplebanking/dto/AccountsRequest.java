@@ -0,0 +1,15 @@
+package com.skypro.simplebanking.dto;
+
+import java.util.List;
+
+public class AccountsRequest {
+  private List<Long> ids;
+
+  public List<Long> getIds() {
+    return ids;
+  }
+
+  public void setIds(List<Long> ids) {
+    this.ids = ids;
+  }
+}
@@ -0,0 +1,56 @@
+package com.skypro.simplebanking.dto;
+
+public class AuditMetricsDTO {
+  private final int capacity;
+  private final int backlog;
+  private final long published;
+  private final long written;
+  private final long saturations;
+  private final long rejected;
+  private final long failedBatches;
+
+  public AuditMetricsDTO(
+      int capacity,
+      int backlog,
+      long published,
+      long written,
+      long saturations,
+      long rejected,
+      long failedBatches) {
+    this.capacity = capacity;
+    this.backlog = backlog;
+    this.published = published;
+    this.written = written;
+    this.saturations = saturations;
+    this.rejected = rejected;
+    this.failedBatches = failedBatches;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public int getBacklog() {
+    return backlog;
+  }
+
+  public long getPublished() {
+    return published;
+  }
+
+  public long getWritten() {
+    return written;
+  }
+
+  public long getSaturations() {
+    return saturations;
+  }
+
+  public long getRejected() {
+    return rejected;
+  }
+
+  public long getFailedBatches() {
+    return failedBatches;
+  }
+}
@@ -0,0 +1,34 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.BalanceChangeKind;
+import java.time.Instant;
+
+public class BalanceChangeDTO {
+  private final long accountId;
+  private final long delta;
+  private final BalanceChangeKind kind;
+  private final Instant createdAt;
+
+  public BalanceChangeDTO(long accountId, long delta, BalanceChangeKind kind, Instant createdAt) {
+    this.accountId = accountId;
+    this.delta = delta;
+    this.kind = kind;
+    this.createdAt = createdAt;
+  }
+
+  public long getAccountId() {
+    return accountId;
+  }
+
+  public long getDelta() {
+    return delta;
+  }
+
+  public BalanceChangeKind getKind() {
+    return kind;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+}
@@ -63,6 +63,10 @@ public class BankingUserDetails implements UserDetails {
     return id;
   }
 
+  public BankingUserDetails withPassword(String password) {
+    return new BankingUserDetails(id, username, password, isAdmin);
+  }
+
   public static BankingUserDetails from(User user) {
     return new BankingUserDetails(user.getId(), user.getUsername(), user.getPassword(), false);
   }
@@ -0,0 +1,27 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+
+public class CurrencyAggregate {
+  private final AccountCurrency currency;
+  private final long accountCount;
+  private final long balanceTotal;
+
+  public CurrencyAggregate(AccountCurrency currency, long accountCount, long balanceTotal) {
+    this.currency = currency;
+    this.accountCount = accountCount;
+    this.balanceTotal = balanceTotal;
+  }
+
+  public AccountCurrency getCurrency() {
+    return currency;
+  }
+
+  public long getAccountCount() {
+    return accountCount;
+  }
+
+  public long getBalanceTotal() {
+    return balanceTotal;
+  }
+}
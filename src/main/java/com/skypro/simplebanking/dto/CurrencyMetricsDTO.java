@@ -0,0 +1,66 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import java.util.List;
+
+public class CurrencyMetricsDTO {
+  private final AccountCurrency currency;
+  private final long accountCount;
+  private final long balanceTotal;
+  private final long depositTotal;
+  private final long withdrawalTotal;
+  private final long transferVolume;
+  private final long transferCount;
+  private final List<MinuteVolumeDTO> transfersPerMinute;
+
+  public CurrencyMetricsDTO(
+      AccountCurrency currency,
+      long accountCount,
+      long balanceTotal,
+      long depositTotal,
+      long withdrawalTotal,
+      long transferVolume,
+      long transferCount,
+      List<MinuteVolumeDTO> transfersPerMinute) {
+    this.currency = currency;
+    this.accountCount = accountCount;
+    this.balanceTotal = balanceTotal;
+    this.depositTotal = depositTotal;
+    this.withdrawalTotal = withdrawalTotal;
+    this.transferVolume = transferVolume;
+    this.transferCount = transferCount;
+    this.transfersPerMinute = transfersPerMinute;
+  }
+
+  public AccountCurrency getCurrency() {
+    return currency;
+  }
+
+  public long getAccountCount() {
+    return accountCount;
+  }
+
+  public long getBalanceTotal() {
+    return balanceTotal;
+  }
+
+  public long getDepositTotal() {
+    return depositTotal;
+  }
+
+  public long getWithdrawalTotal() {
+    return withdrawalTotal;
+  }
+
+  public long getTransferVolume() {
+    return transferVolume;
+  }
+
+  public long getTransferCount() {
+    return transferCount;
+  }
+
+  public List<MinuteVolumeDTO> getTransfersPerMinute() {
+    return transfersPerMinute;
+  }
+}
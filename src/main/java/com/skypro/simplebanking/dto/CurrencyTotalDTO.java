@@ -0,0 +1,31 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+
+public class CurrencyTotalDTO {
+  private final AccountCurrency currency;
+  private final long balanceTotal;
+  private final long historyTotal;
+
+  public CurrencyTotalDTO(AccountCurrency currency, long balanceTotal, long historyTotal) {
+    this.currency = currency;
+    this.balanceTotal = balanceTotal;
+    this.historyTotal = historyTotal;
+  }
+
+  public AccountCurrency getCurrency() {
+    return currency;
+  }
+
+  public long getBalanceTotal() {
+    return balanceTotal;
+  }
+
+  public long getHistoryTotal() {
+    return historyTotal;
+  }
+
+  public boolean isConserved() {
+    return balanceTotal == historyTotal;
+  }
+}
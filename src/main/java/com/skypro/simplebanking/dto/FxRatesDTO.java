@@ -0,0 +1,33 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+public class FxRatesDTO {
+  private final long version;
+  private final Instant loadedAt;
+  private final Map<AccountCurrency, Map<AccountCurrency, BigDecimal>> rates;
+
+  public FxRatesDTO(
+      long version,
+      Instant loadedAt,
+      Map<AccountCurrency, Map<AccountCurrency, BigDecimal>> rates) {
+    this.version = version;
+    this.loadedAt = loadedAt;
+    this.rates = rates;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public Instant getLoadedAt() {
+    return loadedAt;
+  }
+
+  public Map<AccountCurrency, Map<AccountCurrency, BigDecimal>> getRates() {
+    return rates;
+  }
+}
@@ -0,0 +1,26 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import java.math.BigDecimal;
+import java.util.Map;
+
+public class FxRatesRequest {
+  private Long version;
+  private Map<AccountCurrency, Map<AccountCurrency, BigDecimal>> rates;
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
+  public Map<AccountCurrency, Map<AccountCurrency, BigDecimal>> getRates() {
+    return rates;
+  }
+
+  public void setRates(Map<AccountCurrency, Map<AccountCurrency, BigDecimal>> rates) {
+    this.rates = rates;
+  }
+}
@@ -1,22 +1,24 @@
 package com.skypro.simplebanking.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.skypro.simplebanking.entity.User;
 import java.util.List;
 import java.util.stream.Collectors;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ListUserDTO {
-  private final long id;
+  private final Long id;
   private final String username;
 
   private final List<ListAccountDTO> accounts;
 
-  public ListUserDTO(long id, String username, List<ListAccountDTO> accounts) {
+  public ListUserDTO(Long id, String username, List<ListAccountDTO> accounts) {
     this.id = id;
     this.username = username;
     this.accounts = accounts;
   }
 
-  public long getId() {
+  public Long getId() {
     return id;
   }
 
@@ -0,0 +1,27 @@
+package com.skypro.simplebanking.dto;
+
+import java.time.Instant;
+
+public class MinuteVolumeDTO {
+  private final Instant minute;
+  private final long volume;
+  private final long count;
+
+  public MinuteVolumeDTO(Instant minute, long volume, long count) {
+    this.minute = minute;
+    this.volume = volume;
+    this.count = count;
+  }
+
+  public Instant getMinute() {
+    return minute;
+  }
+
+  public long getVolume() {
+    return volume;
+  }
+
+  public long getCount() {
+    return count;
+  }
+}
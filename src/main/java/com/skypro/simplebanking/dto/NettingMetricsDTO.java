@@ -0,0 +1,25 @@
+package com.skypro.simplebanking.dto;
+
+public class NettingMetricsDTO {
+  private final int queued;
+  private final long detachedSubmitted;
+  private final long detachedRejected;
+
+  public NettingMetricsDTO(int queued, long detachedSubmitted, long detachedRejected) {
+    this.queued = queued;
+    this.detachedSubmitted = detachedSubmitted;
+    this.detachedRejected = detachedRejected;
+  }
+
+  public int getQueued() {
+    return queued;
+  }
+
+  public long getDetachedSubmitted() {
+    return detachedSubmitted;
+  }
+
+  public long getDetachedRejected() {
+    return detachedRejected;
+  }
+}
@@ -0,0 +1,25 @@
+package com.skypro.simplebanking.dto;
+
+public class PasswordHashingMetricsDTO {
+  private final int active;
+  private final int queued;
+  private final long rejected;
+
+  public PasswordHashingMetricsDTO(int active, int queued, long rejected) {
+    this.active = active;
+    this.queued = queued;
+    this.rejected = rejected;
+  }
+
+  public int getActive() {
+    return active;
+  }
+
+  public int getQueued() {
+    return queued;
+  }
+
+  public long getRejected() {
+    return rejected;
+  }
+}
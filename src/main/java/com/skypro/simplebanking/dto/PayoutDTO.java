@@ -0,0 +1,42 @@
+package com.skypro.simplebanking.dto;
+
+public class PayoutDTO {
+  private final long fromAccountId;
+  private final int payouts;
+  private final int recipientAccounts;
+  private final long totalAmount;
+  private final long durationMillis;
+
+  public PayoutDTO(
+      long fromAccountId,
+      int payouts,
+      int recipientAccounts,
+      long totalAmount,
+      long durationMillis) {
+    this.fromAccountId = fromAccountId;
+    this.payouts = payouts;
+    this.recipientAccounts = recipientAccounts;
+    this.totalAmount = totalAmount;
+    this.durationMillis = durationMillis;
+  }
+
+  public long getFromAccountId() {
+    return fromAccountId;
+  }
+
+  public int getPayouts() {
+    return payouts;
+  }
+
+  public int getRecipientAccounts() {
+    return recipientAccounts;
+  }
+
+  public long getTotalAmount() {
+    return totalAmount;
+  }
+
+  public long getDurationMillis() {
+    return durationMillis;
+  }
+}
@@ -0,0 +1,31 @@
+package com.skypro.simplebanking.dto;
+
+public class PayoutItem {
+  private long toUserId;
+  private long toAccountId;
+  private long amount;
+
+  public long getToUserId() {
+    return toUserId;
+  }
+
+  public void setToUserId(long toUserId) {
+    this.toUserId = toUserId;
+  }
+
+  public long getToAccountId() {
+    return toAccountId;
+  }
+
+  public void setToAccountId(long toAccountId) {
+    this.toAccountId = toAccountId;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  public void setAmount(long amount) {
+    this.amount = amount;
+  }
+}
@@ -0,0 +1,24 @@
+package com.skypro.simplebanking.dto;
+
+import java.util.List;
+
+public class PayoutRequest {
+  private long fromAccountId;
+  private List<PayoutItem> payouts;
+
+  public long getFromAccountId() {
+    return fromAccountId;
+  }
+
+  public void setFromAccountId(long fromAccountId) {
+    this.fromAccountId = fromAccountId;
+  }
+
+  public List<PayoutItem> getPayouts() {
+    return payouts;
+  }
+
+  public void setPayouts(List<PayoutItem> payouts) {
+    this.payouts = payouts;
+  }
+}
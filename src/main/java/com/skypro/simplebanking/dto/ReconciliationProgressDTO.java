@@ -0,0 +1,87 @@
+package com.skypro.simplebanking.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class ReconciliationProgressDTO {
+  public enum Status {
+    IDLE,
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  private final Status status;
+  private final Instant startedAt;
+  private final Instant finishedAt;
+  private final long totalPartitions;
+  private final long completedPartitions;
+  private final long accountsChecked;
+  private final long mismatches;
+  private final String reportPath;
+  private final List<CurrencyTotalDTO> currencyTotals;
+  private final String error;
+
+  public ReconciliationProgressDTO(
+      Status status,
+      Instant startedAt,
+      Instant finishedAt,
+      long totalPartitions,
+      long completedPartitions,
+      long accountsChecked,
+      long mismatches,
+      String reportPath,
+      List<CurrencyTotalDTO> currencyTotals,
+      String error) {
+    this.status = status;
+    this.startedAt = startedAt;
+    this.finishedAt = finishedAt;
+    this.totalPartitions = totalPartitions;
+    this.completedPartitions = completedPartitions;
+    this.accountsChecked = accountsChecked;
+    this.mismatches = mismatches;
+    this.reportPath = reportPath;
+    this.currencyTotals = currencyTotals;
+    this.error = error;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public Instant getStartedAt() {
+    return startedAt;
+  }
+
+  public Instant getFinishedAt() {
+    return finishedAt;
+  }
+
+  public long getTotalPartitions() {
+    return totalPartitions;
+  }
+
+  public long getCompletedPartitions() {
+    return completedPartitions;
+  }
+
+  public long getAccountsChecked() {
+    return accountsChecked;
+  }
+
+  public long getMismatches() {
+    return mismatches;
+  }
+
+  public String getReportPath() {
+    return reportPath;
+  }
+
+  public List<CurrencyTotalDTO> getCurrencyTotals() {
+    return currencyTotals;
+  }
+
+  public String getError() {
+    return error;
+  }
+}
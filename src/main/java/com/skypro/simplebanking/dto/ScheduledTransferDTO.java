@@ -0,0 +1,95 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.ScheduledTransfer;
+import com.skypro.simplebanking.entity.TransferPeriod;
+import java.time.Instant;
+
+public class ScheduledTransferDTO {
+  private final long id;
+  private final long fromAccountId;
+  private final long toUserId;
+  private final long toAccountId;
+  private final long amount;
+  private final TransferPeriod period;
+  private final Instant nextExecution;
+  private final Instant lastExecution;
+  private final String lastError;
+  private final boolean active;
+
+  public ScheduledTransferDTO(
+      long id,
+      long fromAccountId,
+      long toUserId,
+      long toAccountId,
+      long amount,
+      TransferPeriod period,
+      Instant nextExecution,
+      Instant lastExecution,
+      String lastError,
+      boolean active) {
+    this.id = id;
+    this.fromAccountId = fromAccountId;
+    this.toUserId = toUserId;
+    this.toAccountId = toAccountId;
+    this.amount = amount;
+    this.period = period;
+    this.nextExecution = nextExecution;
+    this.lastExecution = lastExecution;
+    this.lastError = lastError;
+    this.active = active;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public long getFromAccountId() {
+    return fromAccountId;
+  }
+
+  public long getToUserId() {
+    return toUserId;
+  }
+
+  public long getToAccountId() {
+    return toAccountId;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  public TransferPeriod getPeriod() {
+    return period;
+  }
+
+  public Instant getNextExecution() {
+    return nextExecution;
+  }
+
+  public Instant getLastExecution() {
+    return lastExecution;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public boolean isActive() {
+    return active;
+  }
+
+  public static ScheduledTransferDTO from(ScheduledTransfer schedule) {
+    return new ScheduledTransferDTO(
+        schedule.getId(),
+        schedule.getFromAccountId(),
+        schedule.getToUserId(),
+        schedule.getToAccountId(),
+        schedule.getAmount(),
+        schedule.getPeriod(),
+        schedule.getNextExecution(),
+        schedule.getLastExecution(),
+        schedule.getLastError(),
+        schedule.isActive());
+  }
+}
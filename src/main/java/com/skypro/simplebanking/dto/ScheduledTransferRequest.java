@@ -0,0 +1,70 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.TransferPeriod;
+import java.time.Instant;
+
+public class ScheduledTransferRequest {
+  private long fromAccountId;
+  private long toUserId;
+  private long toAccountId;
+  private long amount;
+  private TransferPeriod period = TransferPeriod.ONCE;
+  private Instant firstExecution;
+  private boolean active = true;
+
+  public long getFromAccountId() {
+    return fromAccountId;
+  }
+
+  public void setFromAccountId(long fromAccountId) {
+    this.fromAccountId = fromAccountId;
+  }
+
+  public long getToUserId() {
+    return toUserId;
+  }
+
+  public void setToUserId(long toUserId) {
+    this.toUserId = toUserId;
+  }
+
+  public long getToAccountId() {
+    return toAccountId;
+  }
+
+  public void setToAccountId(long toAccountId) {
+    this.toAccountId = toAccountId;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  public void setAmount(long amount) {
+    this.amount = amount;
+  }
+
+  public TransferPeriod getPeriod() {
+    return period;
+  }
+
+  public void setPeriod(TransferPeriod period) {
+    this.period = period;
+  }
+
+  public Instant getFirstExecution() {
+    return firstExecution;
+  }
+
+  public void setFirstExecution(Instant firstExecution) {
+    this.firstExecution = firstExecution;
+  }
+
+  public boolean isActive() {
+    return active;
+  }
+
+  public void setActive(boolean active) {
+    this.active = active;
+  }
+}
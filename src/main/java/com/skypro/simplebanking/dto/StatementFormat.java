@@ -0,0 +1,34 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.exception.InvalidStatementRequestException;
+import org.springframework.http.MediaType;
+
+public enum StatementFormat {
+  CSV(new MediaType("text", "csv"), "csv"),
+  NDJSON(new MediaType("application", "x-ndjson"), "ndjson");
+
+  private final MediaType mediaType;
+  private final String extension;
+
+  StatementFormat(MediaType mediaType, String extension) {
+    this.mediaType = mediaType;
+    this.extension = extension;
+  }
+
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  public static StatementFormat parse(String value) {
+    for (StatementFormat format : values()) {
+      if (format.extension.equalsIgnoreCase(value)) {
+        return format;
+      }
+    }
+    throw new InvalidStatementRequestException("Unsupported statement format: " + value);
+  }
+}
@@ -0,0 +1,25 @@
+package com.skypro.simplebanking.dto;
+
+public class TransferResultDTO {
+  public enum Status {
+    COMPLETED,
+    REJECTED,
+    PENDING
+  }
+
+  private final Status status;
+  private final String error;
+
+  public TransferResultDTO(Status status, String error) {
+    this.status = status;
+    this.error = error;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public String getError() {
+    return error;
+  }
+}
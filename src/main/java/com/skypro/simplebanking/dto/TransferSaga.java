@@ -0,0 +1,93 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.fx.FxQuote;
+import java.math.BigDecimal;
+
+public class TransferSaga {
+  private final long id;
+  private final long fromUserId;
+  private final long fromAccountId;
+  private final long toUserId;
+  private final long toAccountId;
+  private final long amount;
+  private final AccountCurrency currency;
+  private final AccountCurrency toCurrency;
+  private final long toAmount;
+  private final BigDecimal fxRate;
+  private final Long fxVersion;
+
+  public TransferSaga(
+      long id,
+      long fromUserId,
+      long fromAccountId,
+      long toUserId,
+      long toAccountId,
+      long amount,
+      AccountCurrency currency,
+      AccountCurrency toCurrency,
+      long toAmount,
+      BigDecimal fxRate,
+      Long fxVersion) {
+    this.id = id;
+    this.fromUserId = fromUserId;
+    this.fromAccountId = fromAccountId;
+    this.toUserId = toUserId;
+    this.toAccountId = toAccountId;
+    this.amount = amount;
+    this.currency = currency;
+    this.toCurrency = toCurrency;
+    this.toAmount = toAmount;
+    this.fxRate = fxRate;
+    this.fxVersion = fxVersion;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public long getFromUserId() {
+    return fromUserId;
+  }
+
+  public long getFromAccountId() {
+    return fromAccountId;
+  }
+
+  public long getToUserId() {
+    return toUserId;
+  }
+
+  public long getToAccountId() {
+    return toAccountId;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  public AccountCurrency getCurrency() {
+    return currency;
+  }
+
+  public AccountCurrency getToCurrency() {
+    return toCurrency;
+  }
+
+  public long getToAmount() {
+    return toAmount;
+  }
+
+  public FxQuote toQuote() {
+    return new FxQuote(currency, toCurrency, toAmount, fxRate, fxVersion);
+  }
+
+  public TransferRequest toTransferRequest() {
+    TransferRequest transferRequest = new TransferRequest();
+    transferRequest.setFromAccountId(fromAccountId);
+    transferRequest.setToUserId(toUserId);
+    transferRequest.setToAccountId(toAccountId);
+    transferRequest.setAmount(amount);
+    return transferRequest;
+  }
+}
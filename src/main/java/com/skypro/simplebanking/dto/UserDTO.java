@@ -1,21 +1,23 @@
 package com.skypro.simplebanking.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.skypro.simplebanking.entity.User;
 import java.util.List;
 import java.util.stream.Collectors;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class UserDTO {
-  private final long id;
+  private final Long id;
   private final String username;
   private final List<AccountDTO> accounts;
 
-  public UserDTO(long id, String username, List<AccountDTO> accounts) {
+  public UserDTO(Long id, String username, List<AccountDTO> accounts) {
     this.id = id;
     this.username = username;
     this.accounts = accounts;
   }
 
-  public long getId() {
+  public Long getId() {
     return id;
   }
 
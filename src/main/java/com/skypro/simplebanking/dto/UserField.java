@@ -0,0 +1,30 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.exception.InvalidFieldException;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/** Parts of a user response that a caller can select with {@code fields=}. */
+public enum UserField {
+  ID,
+  USERNAME,
+  ACCOUNTS;
+
+  /** Parses a fieldset; a missing or empty one selects every field. */
+  public static Set<UserField> parse(Collection<String> fields) {
+    if (fields == null || fields.isEmpty()) {
+      return EnumSet.allOf(UserField.class);
+    }
+    Set<UserField> selected = EnumSet.noneOf(UserField.class);
+    for (String field : fields) {
+      try {
+        selected.add(valueOf(field.trim().toUpperCase(Locale.ROOT)));
+      } catch (IllegalArgumentException e) {
+        throw new InvalidFieldException("Unknown field: " + field);
+      }
+    }
+    return selected;
+  }
+}
@@ -0,0 +1,19 @@
+package com.skypro.simplebanking.dto;
+
+public class UserSummary {
+  private final long id;
+  private final String username;
+
+  public UserSummary(long id, String username) {
+    this.id = id;
+    this.username = username;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+}
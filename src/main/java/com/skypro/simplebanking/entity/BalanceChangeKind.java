@@ -0,0 +1,10 @@
+package com.skypro.simplebanking.entity;
+
+public enum BalanceChangeKind {
+  OPENING,
+  DEPOSIT,
+  WITHDRAWAL,
+  TRANSFER_IN,
+  TRANSFER_OUT,
+  REVERSAL
+}
@@ -0,0 +1,125 @@
+package com.skypro.simplebanking.entity;
+
+import java.time.Instant;
+import javax.persistence.*;
+
+@Entity
+@Table(
+    name = "scheduled_transfers",
+    indexes = {
+      @Index(name = "scheduled_transfers_due_idx", columnList = "active, nextExecution"),
+      @Index(name = "scheduled_transfers_user_idx", columnList = "userId")
+    })
+public class ScheduledTransfer {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scheduled-transfer-sequence")
+  @SequenceGenerator(
+      name = "scheduled-transfer-sequence",
+      sequenceName = "scheduled_transfer_sequence")
+  private Long id;
+
+  @Column(nullable = false, updatable = false)
+  private Long userId;
+
+  private Long fromAccountId;
+  private Long toUserId;
+  private Long toAccountId;
+  private Long amount;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16)
+  private TransferPeriod period;
+
+  private Instant nextExecution;
+  private Instant lastExecution;
+  private String lastError;
+  private boolean active;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public void setUserId(Long userId) {
+    this.userId = userId;
+  }
+
+  public Long getFromAccountId() {
+    return fromAccountId;
+  }
+
+  public void setFromAccountId(Long fromAccountId) {
+    this.fromAccountId = fromAccountId;
+  }
+
+  public Long getToUserId() {
+    return toUserId;
+  }
+
+  public void setToUserId(Long toUserId) {
+    this.toUserId = toUserId;
+  }
+
+  public Long getToAccountId() {
+    return toAccountId;
+  }
+
+  public void setToAccountId(Long toAccountId) {
+    this.toAccountId = toAccountId;
+  }
+
+  public Long getAmount() {
+    return amount;
+  }
+
+  public void setAmount(Long amount) {
+    this.amount = amount;
+  }
+
+  public TransferPeriod getPeriod() {
+    return period;
+  }
+
+  public void setPeriod(TransferPeriod period) {
+    this.period = period;
+  }
+
+  public Instant getNextExecution() {
+    return nextExecution;
+  }
+
+  public void setNextExecution(Instant nextExecution) {
+    this.nextExecution = nextExecution;
+  }
+
+  public Instant getLastExecution() {
+    return lastExecution;
+  }
+
+  public void setLastExecution(Instant lastExecution) {
+    this.lastExecution = lastExecution;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public void setLastError(String lastError) {
+    this.lastError = lastError;
+  }
+
+  public boolean isActive() {
+    return active;
+  }
+
+  public void setActive(boolean active) {
+    this.active = active;
+  }
+}
@@ -0,0 +1,24 @@
+package com.skypro.simplebanking.entity;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+public enum TransferPeriod {
+  ONCE,
+  DAILY,
+  WEEKLY,
+  MONTHLY;
+
+  public Instant next(Instant execution) {
+    switch (this) {
+      case DAILY:
+        return execution.atZone(ZoneOffset.UTC).plusDays(1).toInstant();
+      case WEEKLY:
+        return execution.atZone(ZoneOffset.UTC).plusWeeks(1).toInstant();
+      case MONTHLY:
+        return execution.atZone(ZoneOffset.UTC).plusMonths(1).toInstant();
+      default:
+        return null;
+    }
+  }
+}
@@ -0,0 +1,7 @@
+package com.skypro.simplebanking.exception;
+
+public class CommitOutcomeUnknownException extends RuntimeException {
+  public CommitOutcomeUnknownException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
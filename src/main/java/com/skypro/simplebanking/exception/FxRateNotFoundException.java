@@ -0,0 +1,7 @@
+package com.skypro.simplebanking.exception;
+
+public class FxRateNotFoundException extends RuntimeException {
+  public FxRateNotFoundException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.skypro.simplebanking.exception;
+
+public class InvalidFxRatesException extends RuntimeException {
+  public InvalidFxRatesException(String message) {
+    super(message);
+  }
+}
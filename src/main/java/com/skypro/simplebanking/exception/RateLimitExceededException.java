@@ -0,0 +1,13 @@
+package com.skypro.simplebanking.exception;
+
+public class RateLimitExceededException extends RuntimeException {
+  private final long retryAfterSeconds;
+
+  public RateLimitExceededException(long retryAfterSeconds) {
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -0,0 +1,13 @@
+package com.skypro.simplebanking.exception;
+
+public class ServiceOverloadedException extends RuntimeException {
+  private final long retryAfterSeconds;
+
+  public ServiceOverloadedException(long retryAfterSeconds) {
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
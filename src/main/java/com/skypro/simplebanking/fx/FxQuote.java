@@ -0,0 +1,57 @@
+package com.skypro.simplebanking.fx;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import java.math.BigDecimal;
+
+/**
+ * The amount a transfer credits and how it was priced. Transfers within one currency carry no
+ * rate and no snapshot version.
+ */
+public class FxQuote {
+  private final AccountCurrency fromCurrency;
+  private final AccountCurrency toCurrency;
+  private final long toAmount;
+  private final BigDecimal rate;
+  private final Long version;
+
+  public FxQuote(
+      AccountCurrency fromCurrency,
+      AccountCurrency toCurrency,
+      long toAmount,
+      BigDecimal rate,
+      Long version) {
+    this.fromCurrency = fromCurrency;
+    this.toCurrency = toCurrency;
+    this.toAmount = toAmount;
+    this.rate = rate;
+    this.version = version;
+  }
+
+  public static FxQuote sameCurrency(AccountCurrency currency, long amount) {
+    return new FxQuote(currency, currency, amount, null, null);
+  }
+
+  public AccountCurrency getFromCurrency() {
+    return fromCurrency;
+  }
+
+  public AccountCurrency getToCurrency() {
+    return toCurrency;
+  }
+
+  public long getToAmount() {
+    return toAmount;
+  }
+
+  public BigDecimal getRate() {
+    return rate;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public boolean isConversion() {
+    return fromCurrency != toCurrency;
+  }
+}
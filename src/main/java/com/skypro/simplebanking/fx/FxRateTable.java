@@ -0,0 +1,79 @@
+package com.skypro.simplebanking.fx;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.exception.InvalidFxRatesException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/** Immutable snapshot of exchange rates, indexed by currency ordinals for cheap lookups. */
+public final class FxRateTable {
+  static final int MAX_SCALE = 12;
+  static final FxRateTable EMPTY = new FxRateTable(0, Instant.EPOCH, Map.of());
+
+  private static final AccountCurrency[] CURRENCIES = AccountCurrency.values();
+
+  private final long version;
+  private final Instant loadedAt;
+  private final BigDecimal[][] rates;
+
+  FxRateTable(
+      long version,
+      Instant loadedAt,
+      Map<AccountCurrency, Map<AccountCurrency, BigDecimal>> rates) {
+    this.version = version;
+    this.loadedAt = loadedAt;
+    this.rates = new BigDecimal[CURRENCIES.length][CURRENCIES.length];
+    for (Map.Entry<AccountCurrency, Map<AccountCurrency, BigDecimal>> entry : rates.entrySet()) {
+      AccountCurrency from = entry.getKey();
+      if (from == null || entry.getValue() == null) {
+        throw new InvalidFxRatesException("Rates must name known currencies");
+      }
+      for (Map.Entry<AccountCurrency, BigDecimal> target : entry.getValue().entrySet()) {
+        AccountCurrency to = target.getKey();
+        BigDecimal rate = target.getValue();
+        if (to == null || rate == null) {
+          throw new InvalidFxRatesException("Rates must name known currencies");
+        }
+        if (from == to) {
+          throw new InvalidFxRatesException("Rate from " + from + " to itself");
+        }
+        if (rate.signum() <= 0 || rate.stripTrailingZeros().scale() > MAX_SCALE) {
+          throw new InvalidFxRatesException(
+              "Rate from " + from + " to " + to + " should be positive with at most "
+                  + MAX_SCALE + " decimal places");
+        }
+        this.rates[from.ordinal()][to.ordinal()] = rate;
+      }
+    }
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public Instant getLoadedAt() {
+    return loadedAt;
+  }
+
+  /** Returns the rate from one currency to another, or null if there is none. */
+  public BigDecimal getRate(AccountCurrency from, AccountCurrency to) {
+    return rates[from.ordinal()][to.ordinal()];
+  }
+
+  public Map<AccountCurrency, Map<AccountCurrency, BigDecimal>> toMap() {
+    Map<AccountCurrency, Map<AccountCurrency, BigDecimal>> map =
+        new EnumMap<>(AccountCurrency.class);
+    for (AccountCurrency from : CURRENCIES) {
+      for (AccountCurrency to : CURRENCIES) {
+        BigDecimal rate = getRate(from, to);
+        if (rate != null) {
+          map.computeIfAbsent(from, currency -> new EnumMap<>(AccountCurrency.class))
+              .put(to, rate);
+        }
+      }
+    }
+    return map;
+  }
+}
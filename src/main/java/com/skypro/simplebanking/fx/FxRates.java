@@ -0,0 +1,111 @@
+package com.skypro.simplebanking.fx;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skypro.simplebanking.dto.FxRatesDTO;
+import com.skypro.simplebanking.dto.FxRatesRequest;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.exception.FxRateNotFoundException;
+import com.skypro.simplebanking.exception.InvalidAmountException;
+import com.skypro.simplebanking.exception.InvalidFxRatesException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exchange rates used to price cross-currency transfers. The rates live in an immutable {@link
+ * FxRateTable} that is replaced as a whole, so a transfer reads one consistent snapshot without
+ * taking a lock. Rates come from a JSON file, loaded at startup and on request, or from the admin
+ * endpoint. A new table must carry an explicit version higher than the current one, so that every
+ * instance given the same rates ends up with the same version.
+ */
+@Component
+public class FxRates {
+  private static final Logger log = LoggerFactory.getLogger(FxRates.class);
+
+  private final AtomicReference<FxRateTable> table = new AtomicReference<>(FxRateTable.EMPTY);
+  private final ObjectMapper objectMapper;
+  private final Path ratesFile;
+
+  public FxRates(
+      ObjectMapper objectMapper, @Value("${app.fx.rates-file:fx-rates.json}") Path ratesFile) {
+    this.objectMapper = objectMapper;
+    this.ratesFile = ratesFile;
+    if (Files.exists(ratesFile)) {
+      reload();
+    } else {
+      log.info("No exchange rates file at {}, cross-currency transfers are disabled", ratesFile);
+    }
+  }
+
+  /**
+   * Prices a transfer of the amount with the current snapshot. The credited amount is rounded
+   * down to whole minor units; an amount that would credit nothing, or more than fits in a long,
+   * is rejected rather than debited.
+   */
+  public FxQuote quote(AccountCurrency from, AccountCurrency to, long amount) {
+    if (from == to) {
+      return FxQuote.sameCurrency(from, amount);
+    }
+    FxRateTable current = table.get();
+    BigDecimal rate = current.getRate(from, to);
+    if (rate == null) {
+      throw new FxRateNotFoundException("No exchange rate from " + from + " to " + to);
+    }
+    long toAmount;
+    try {
+      toAmount =
+          BigDecimal.valueOf(amount).multiply(rate).setScale(0, RoundingMode.DOWN).longValueExact();
+    } catch (ArithmeticException e) {
+      throw new InvalidAmountException();
+    }
+    if (toAmount <= 0) {
+      throw new InvalidAmountException();
+    }
+    return new FxQuote(from, to, toAmount, rate, current.getVersion());
+  }
+
+  public FxRatesDTO getRates() {
+    FxRateTable current = table.get();
+    return new FxRatesDTO(current.getVersion(), current.getLoadedAt(), current.toMap());
+  }
+
+  public FxRatesDTO replace(FxRatesRequest request) {
+    if (request.getRates() == null) {
+      throw new InvalidFxRatesException("Rates are missing");
+    }
+    if (request.getVersion() == null) {
+      throw new InvalidFxRatesException("Version is missing");
+    }
+    long version = request.getVersion();
+    Instant now = Instant.now();
+    FxRateTable replaced =
+        table.updateAndGet(
+            current -> {
+              if (version <= current.getVersion()) {
+                throw new InvalidFxRatesException(
+                    "Version " + version + " is not newer than " + current.getVersion());
+              }
+              return new FxRateTable(version, now, request.getRates());
+            });
+    log.info("Loaded exchange rates version {}", replaced.getVersion());
+    return new FxRatesDTO(replaced.getVersion(), replaced.getLoadedAt(), replaced.toMap());
+  }
+
+  public FxRatesDTO reload() {
+    FxRatesRequest request;
+    try {
+      request = objectMapper.readValue(ratesFile.toFile(), FxRatesRequest.class);
+    } catch (IOException e) {
+      throw new InvalidFxRatesException("Cannot read " + ratesFile + ": " + e.getMessage());
+    }
+    return replace(request);
+  }
+}
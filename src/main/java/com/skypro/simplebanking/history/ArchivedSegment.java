@@ -0,0 +1,51 @@
+package com.skypro.simplebanking.history;
+
+import java.time.Instant;
+
+public class ArchivedSegment {
+  private final String partitionName;
+  private final Instant rangeStart;
+  private final Instant rangeEnd;
+  private final String filePath;
+  private final Instant archivedAt;
+  private final boolean partitionDropped;
+
+  public ArchivedSegment(
+      String partitionName,
+      Instant rangeStart,
+      Instant rangeEnd,
+      String filePath,
+      Instant archivedAt,
+      boolean partitionDropped) {
+    this.partitionName = partitionName;
+    this.rangeStart = rangeStart;
+    this.rangeEnd = rangeEnd;
+    this.filePath = filePath;
+    this.archivedAt = archivedAt;
+    this.partitionDropped = partitionDropped;
+  }
+
+  public String getPartitionName() {
+    return partitionName;
+  }
+
+  public Instant getRangeStart() {
+    return rangeStart;
+  }
+
+  public Instant getRangeEnd() {
+    return rangeEnd;
+  }
+
+  public String getFilePath() {
+    return filePath;
+  }
+
+  public Instant getArchivedAt() {
+    return archivedAt;
+  }
+
+  public boolean isPartitionDropped() {
+    return partitionDropped;
+  }
+}
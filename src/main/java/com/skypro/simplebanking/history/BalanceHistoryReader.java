@@ -0,0 +1,145 @@
+package com.skypro.simplebanking.history;
+
+import com.skypro.simplebanking.dto.BalanceChangeDTO;
+import com.skypro.simplebanking.repository.BalanceHistoryRepository;
+import com.skypro.simplebanking.repository.HistorySegmentRepository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads account history regardless of where it lives: ranges registered as archived are served
+ * from memory-mapped segment files, everything else from the partitioned table. The registry is
+ * consulted first and a partition is only dropped well after its segment was registered, so a
+ * reader never misses or double-counts a row while a partition is being archived.
+ */
+@Component
+public class BalanceHistoryReader {
+  private final BalanceHistoryRepository balanceHistoryRepository;
+  private final HistorySegmentRepository historySegmentRepository;
+  private final Map<String, HistorySegment> openSegments;
+
+  public BalanceHistoryReader(
+      BalanceHistoryRepository balanceHistoryRepository,
+      HistorySegmentRepository historySegmentRepository,
+      @Value("${app.history.max-open-segments:24}") int maxOpenSegments) {
+    this.balanceHistoryRepository = balanceHistoryRepository;
+    this.historySegmentRepository = historySegmentRepository;
+    this.openSegments =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, HistorySegment> eldest) {
+            return size() > maxOpenSegments;
+          }
+        };
+  }
+
+  public long sumChanges(long accountId, Instant fromExclusive, Instant toInclusive) {
+    List<ArchivedSegment> archived =
+        historySegmentRepository.findOverlapping(fromExclusive, toInclusive);
+    long sum =
+        balanceHistoryRepository.sumChanges(accountId, fromExclusive, toInclusive, archived);
+    long fromMicros = HistorySegmentFormat.toMicros(fromExclusive);
+    long toMicros = HistorySegmentFormat.toMicros(toInclusive);
+    for (ArchivedSegment segment : archived) {
+      sum += open(segment).sum(accountId, fromMicros, toMicros);
+    }
+    return sum;
+  }
+
+  /**
+   * Streams the changes in {@code (from, to]} in chronological order. Archived ranges are replayed
+   * from their segments in between the table ranges around them, so only one segment block and
+   * one cursor page are held at a time.
+   */
+  public void forEachChange(
+      long accountId,
+      Instant fromExclusive,
+      Instant toInclusive,
+      Consumer<BalanceChangeDTO> consumer) {
+    List<ArchivedSegment> archived =
+        historySegmentRepository.findOverlapping(fromExclusive, toInclusive);
+    Instant cursor = fromExclusive;
+    for (ArchivedSegment segment : archived) {
+      if (segment.getRangeStart().isAfter(cursor)) {
+        // Rows at exactly the range start belong to the segment and are excluded by the query.
+        Instant gapEnd = min(segment.getRangeStart(), toInclusive);
+        balanceHistoryRepository.forEachChange(accountId, cursor, gapEnd, archived, consumer);
+      }
+      Instant segmentEnd = min(segment.getRangeEnd(), toInclusive);
+      open(segment)
+          .forEach(
+              accountId,
+              HistorySegmentFormat.toMicros(cursor),
+              HistorySegmentFormat.toMicros(segmentEnd),
+              consumer);
+      // The range end is exclusive; stepping back one microsecond keeps a row at exactly the end
+      // for the next table query while the archived exclusion drops the rows before it.
+      if (segmentEnd.isAfter(cursor)) {
+        cursor = segmentEnd.minus(1, ChronoUnit.MICROS);
+      }
+    }
+    if (toInclusive.isAfter(cursor)) {
+      balanceHistoryRepository.forEachChange(accountId, cursor, toInclusive, archived, consumer);
+    }
+  }
+
+  private static Instant min(Instant first, Instant second) {
+    return first.isBefore(second) ? first : second;
+  }
+
+  /** Sums everything recorded for the account in the given archived segments. */
+  public long sumArchived(long accountId, List<ArchivedSegment> archived) {
+    long sum = 0;
+    for (ArchivedSegment segment : archived) {
+      sum += open(segment).sum(accountId, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the mapped segment, mapping it on first use. At most the configured number of segments
+   * stay mapped, the least recently used ones are let go; the JDK offers no safe way to unmap
+   * eagerly, so a released mapping goes away with the garbage collector once no reader uses it.
+   */
+  HistorySegment open(ArchivedSegment segment) {
+    String name = segment.getPartitionName();
+    synchronized (openSegments) {
+      HistorySegment open = openSegments.get(name);
+      if (open != null) {
+        return open;
+      }
+    }
+    HistorySegment opened;
+    try {
+      opened = HistorySegment.open(Path.of(segment.getFilePath()));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    synchronized (openSegments) {
+      HistorySegment open = openSegments.putIfAbsent(name, opened);
+      return open != null ? open : opened;
+    }
+  }
+
+  /** Lets go of the segment's mapping; it is mapped again if it is read later. */
+  public void release(String partitionName) {
+    synchronized (openSegments) {
+      openSegments.remove(partitionName);
+    }
+  }
+
+  int getOpenSegmentCount() {
+    synchronized (openSegments) {
+      return openSegments.size();
+    }
+  }
+}
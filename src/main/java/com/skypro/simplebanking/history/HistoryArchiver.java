@@ -0,0 +1,185 @@
+package com.skypro.simplebanking.history;
+
+import com.skypro.simplebanking.entity.BalanceChangeKind;
+import com.skypro.simplebanking.repository.HistoryPartitionRepository;
+import com.skypro.simplebanking.repository.HistorySegmentRepository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves monthly history partitions older than the configured age into segment files. Archiving
+ * happens in two phases: the segment is written and registered first, which switches readers
+ * over to it, and the partition is detached and dropped only after a grace period so that no
+ * reader that looked at the registry before the switch can still be reading the partition.
+ * One instance archives at a time, and a partition is only dropped while its registered segment
+ * opens as a valid segment on this instance.
+ */
+@Component
+@Lazy(false)
+public class HistoryArchiver {
+  private static final Logger log = LoggerFactory.getLogger(HistoryArchiver.class);
+
+  private final HistoryPartitionRepository historyPartitionRepository;
+  private final HistorySegmentRepository historySegmentRepository;
+  private final BalanceHistoryReader balanceHistoryReader;
+  private final TransactionTemplate readTransaction;
+  private final TransactionTemplate writeTransaction;
+  private final Path archiveDirectory;
+  private final Duration archiveAfter;
+  private final Duration dropGrace;
+
+  public HistoryArchiver(
+      HistoryPartitionRepository historyPartitionRepository,
+      HistorySegmentRepository historySegmentRepository,
+      BalanceHistoryReader balanceHistoryReader,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.history.archive-dir:history-archive}") Path archiveDirectory,
+      @Value("${app.history.archive-after:400d}") Duration archiveAfter,
+      @Value("${app.history.drop-grace:1h}") Duration dropGrace) {
+    this.historyPartitionRepository = historyPartitionRepository;
+    this.historySegmentRepository = historySegmentRepository;
+    this.balanceHistoryReader = balanceHistoryReader;
+    this.readTransaction = new TransactionTemplate(transactionManager);
+    this.readTransaction.setReadOnly(true);
+    this.writeTransaction = new TransactionTemplate(transactionManager);
+    this.archiveDirectory = archiveDirectory;
+    this.archiveAfter = archiveAfter;
+    this.dropGrace = dropGrace;
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.history.archive-interval-millis:86400000}",
+      fixedDelayString = "${app.history.archive-interval-millis:86400000}")
+  public void archive() {
+    if (!historySegmentRepository.runWithArchiveLock(this::archiveLocked)) {
+      log.info("Skipping history archiving, another instance is archiving");
+    }
+  }
+
+  private void archiveLocked() {
+    Instant now = Instant.now();
+    Instant archiveBefore = now.minus(archiveAfter);
+    Map<String, ArchivedSegment> registered = new HashMap<>();
+    historySegmentRepository
+        .findAll()
+        .forEach(segment -> registered.put(segment.getPartitionName(), segment));
+
+    for (String partition : historyPartitionRepository.findAttachedPartitions()) {
+      Optional<YearMonth> month = HistoryPartitions.monthOf(partition);
+      if (month.isEmpty()) {
+        continue;
+      }
+      ArchivedSegment segment = registered.get(partition);
+      try {
+        if (segment != null) {
+          if (segment.getArchivedAt().plus(dropGrace).isBefore(now)) {
+            dropPartition(month.get(), segment);
+          }
+        } else if (!HistoryPartitions.endOf(month.get()).isAfter(archiveBefore)) {
+          archivePartition(month.get());
+        }
+      } catch (RuntimeException e) {
+        log.error("Cannot archive history partition {}", partition, e);
+      }
+    }
+  }
+
+  private void archivePartition(YearMonth month) {
+    String partition = HistoryPartitions.nameOf(month);
+    Instant rangeStart = HistoryPartitions.startOf(month);
+    Instant rangeEnd = HistoryPartitions.endOf(month);
+    if (historyPartitionRepository.defaultPartitionHasRows(rangeStart, rangeEnd)) {
+      log.warn("Not archiving {}: the default partition holds rows of the same month", partition);
+      return;
+    }
+    long started = System.nanoTime();
+    Path segmentPath = archiveDirectory.resolve(partition + ".seg").toAbsolutePath();
+    long rows = writeSegment(month, segmentPath);
+    historySegmentRepository.register(
+        partition, rangeStart, rangeEnd, segmentPath.toString(), rows);
+    log.info(
+        "Archived {} rows of {} to {} in {} ms",
+        rows,
+        partition,
+        segmentPath,
+        Duration.ofNanos(System.nanoTime() - started).toMillis());
+  }
+
+  private long writeSegment(YearMonth month, Path segmentPath) {
+    try {
+      Files.createDirectories(archiveDirectory);
+      Path temporary =
+          archiveDirectory.resolve(segmentPath.getFileName() + "." + UUID.randomUUID() + ".tmp");
+      long rows;
+      try (HistorySegmentWriter writer = new HistorySegmentWriter(temporary)) {
+        readTransaction.executeWithoutResult(
+            status ->
+                historyPartitionRepository.streamPartition(
+                    month,
+                    resultSet -> {
+                      try {
+                        writer.append(
+                            resultSet.getLong("id"),
+                            resultSet.getLong("account_id"),
+                            HistorySegmentFormat.toMicros(
+                                resultSet.getTimestamp("created_at").toInstant()),
+                            resultSet.getLong("delta"),
+                            BalanceChangeKind.valueOf(resultSet.getString("kind")));
+                      } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                      }
+                    }));
+        rows = writer.finish();
+      } catch (IOException | RuntimeException e) {
+        Files.deleteIfExists(temporary);
+        throw e;
+      }
+      Files.move(
+          temporary,
+          segmentPath,
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+      return rows;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void dropPartition(YearMonth month, ArchivedSegment segment) {
+    try {
+      HistorySegment.open(Path.of(segment.getFilePath()));
+    } catch (IOException | RuntimeException e) {
+      log.error(
+          "Not dropping {}: its segment {} cannot be opened here",
+          HistoryPartitions.nameOf(month),
+          segment.getFilePath(),
+          e);
+      return;
+    }
+    writeTransaction.executeWithoutResult(
+        status -> {
+          historyPartitionRepository.detachAndDrop(month);
+          historySegmentRepository.markPartitionDropped(HistoryPartitions.nameOf(month));
+        });
+    balanceHistoryReader.release(HistoryPartitions.nameOf(month));
+    log.info("Dropped archived history partition {}", HistoryPartitions.nameOf(month));
+  }
+}
@@ -0,0 +1,54 @@
+package com.skypro.simplebanking.history;
+
+import com.skypro.simplebanking.repository.HistoryPartitionRepository;
+import com.skypro.simplebanking.sharding.ShardRouter;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/** Keeps monthly history partitions created ahead of time so inserts never hit the default. */
+@Component
+@Lazy(false)
+public class HistoryPartitionManager {
+  private static final Logger log = LoggerFactory.getLogger(HistoryPartitionManager.class);
+
+  private final HistoryPartitionRepository historyPartitionRepository;
+  private final ShardRouter shardRouter;
+  private final int monthsAhead;
+
+  public HistoryPartitionManager(
+      HistoryPartitionRepository historyPartitionRepository,
+      ShardRouter shardRouter,
+      @Value("${app.history.partitions-ahead:2}") int monthsAhead) {
+    this.historyPartitionRepository = historyPartitionRepository;
+    this.shardRouter = shardRouter;
+    this.monthsAhead = monthsAhead;
+  }
+
+  @Scheduled(fixedDelayString = "${app.history.partition-check-interval-millis:86400000}")
+  public void createUpcomingPartitions() {
+    shardRouter.forEachShard(this::createUpcomingPartitions);
+  }
+
+  private void createUpcomingPartitions(int shard) {
+    YearMonth current = YearMonth.now(ZoneOffset.UTC);
+    for (int i = 0; i <= monthsAhead; i++) {
+      YearMonth month = current.plusMonths(i);
+      try {
+        historyPartitionRepository.createPartition(month);
+      } catch (DataAccessException e) {
+        log.warn(
+            "Cannot create history partition {} on shard {}: {}",
+            HistoryPartitions.nameOf(month),
+            shard,
+            e.getMostSpecificCause().getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.skypro.simplebanking.history;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/** Monthly partitions of {@code balance_changes}, named {@code balance_changes_pYYYYMM}. */
+public final class HistoryPartitions {
+  public static final String PARENT_TABLE = "balance_changes";
+  public static final String DEFAULT_PARTITION = "balance_changes_default";
+
+  private static final Pattern NAME = Pattern.compile("balance_changes_p(\\d{6})");
+  private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+  private HistoryPartitions() {}
+
+  public static String nameOf(YearMonth month) {
+    return PARENT_TABLE + "_p" + month.format(SUFFIX);
+  }
+
+  public static Optional<YearMonth> monthOf(String partitionName) {
+    Matcher matcher = NAME.matcher(partitionName);
+    if (!matcher.matches()) {
+      return Optional.empty();
+    }
+    return Optional.of(YearMonth.parse(matcher.group(1), SUFFIX));
+  }
+
+  public static Instant startOf(YearMonth month) {
+    return month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+  }
+
+  public static Instant endOf(YearMonth month) {
+    return startOf(month.plusMonths(1));
+  }
+}
@@ -0,0 +1,151 @@
+package com.skypro.simplebanking.history;
+
+import com.skypro.simplebanking.dto.BalanceChangeDTO;
+import com.skypro.simplebanking.entity.BalanceChangeKind;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Read-only view of a segment file through a memory mapping. Only the index is decoded on open;
+ * account blocks are inflated straight from the mapping on demand. Instances are thread-safe.
+ */
+public class HistorySegment {
+  private static final BalanceChangeKind[] KINDS = BalanceChangeKind.values();
+
+  private final MappedByteBuffer buffer;
+  private final long[] accountIds;
+  private final int[] offsets;
+  private final int[] lengths;
+  private final int[] counts;
+  private final long[] sums;
+  private final long[] minMicros;
+  private final long[] maxMicros;
+
+  private HistorySegment(MappedByteBuffer buffer) throws IOException {
+    this.buffer = buffer;
+    int size = buffer.capacity();
+    if (size < Integer.BYTES + HistorySegmentFormat.FOOTER_SIZE
+        || buffer.getInt(0) != HistorySegmentFormat.MAGIC
+        || buffer.getInt(size - Integer.BYTES) != HistorySegmentFormat.MAGIC) {
+      throw new IOException("Not a history segment");
+    }
+    long indexOffset = buffer.getLong(size - HistorySegmentFormat.FOOTER_SIZE);
+    if (indexOffset < Integer.BYTES
+        || indexOffset > size - HistorySegmentFormat.FOOTER_SIZE - Integer.BYTES) {
+      throw new IOException("History segment index out of bounds");
+    }
+    int entries = buffer.getInt((int) indexOffset);
+    if (entries < 0
+        || indexOffset + Integer.BYTES + (long) entries * HistorySegmentFormat.INDEX_ENTRY_SIZE
+            != size - HistorySegmentFormat.FOOTER_SIZE) {
+      throw new IOException("History segment index is truncated");
+    }
+    accountIds = new long[entries];
+    offsets = new int[entries];
+    lengths = new int[entries];
+    counts = new int[entries];
+    sums = new long[entries];
+    minMicros = new long[entries];
+    maxMicros = new long[entries];
+    int position = (int) indexOffset + Integer.BYTES;
+    for (int i = 0; i < entries; i++) {
+      accountIds[i] = buffer.getLong(position);
+      long offset = buffer.getLong(position + 8);
+      lengths[i] = buffer.getInt(position + 16);
+      if (offset < Integer.BYTES || lengths[i] < 0 || offset + lengths[i] > indexOffset) {
+        throw new IOException("History segment block out of bounds");
+      }
+      offsets[i] = (int) offset;
+      counts[i] = buffer.getInt(position + 20);
+      sums[i] = buffer.getLong(position + 24);
+      minMicros[i] = buffer.getLong(position + 32);
+      maxMicros[i] = buffer.getLong(position + 40);
+      position += HistorySegmentFormat.INDEX_ENTRY_SIZE;
+    }
+  }
+
+  public static HistorySegment open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("History segment " + path + " exceeds 2 GiB");
+      }
+      return new HistorySegment(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  public long sum(long accountId, long fromExclusiveMicros, long toInclusiveMicros) {
+    int block = Arrays.binarySearch(accountIds, accountId);
+    if (block < 0
+        || maxMicros[block] <= fromExclusiveMicros
+        || minMicros[block] > toInclusiveMicros) {
+      return 0L;
+    }
+    if (minMicros[block] > fromExclusiveMicros && maxMicros[block] <= toInclusiveMicros) {
+      return sums[block];
+    }
+    ByteBuffer entries = inflate(block);
+    long sum = 0;
+    for (int i = 0; i < counts[block]; i++) {
+      int position = i * HistorySegmentFormat.ENTRY_SIZE;
+      long createdAtMicros = entries.getLong(position + 8);
+      if (createdAtMicros > fromExclusiveMicros && createdAtMicros <= toInclusiveMicros) {
+        sum += entries.getLong(position + 16);
+      }
+    }
+    return sum;
+  }
+
+  public void forEach(
+      long accountId,
+      long fromExclusiveMicros,
+      long toInclusiveMicros,
+      Consumer<BalanceChangeDTO> consumer) {
+    int block = Arrays.binarySearch(accountIds, accountId);
+    if (block < 0
+        || maxMicros[block] <= fromExclusiveMicros
+        || minMicros[block] > toInclusiveMicros) {
+      return;
+    }
+    ByteBuffer entries = inflate(block);
+    for (int i = 0; i < counts[block]; i++) {
+      int position = i * HistorySegmentFormat.ENTRY_SIZE;
+      long createdAtMicros = entries.getLong(position + 8);
+      if (createdAtMicros > fromExclusiveMicros && createdAtMicros <= toInclusiveMicros) {
+        consumer.accept(
+            new BalanceChangeDTO(
+                accountId,
+                entries.getLong(position + 16),
+                KINDS[entries.get(position + 24)],
+                HistorySegmentFormat.fromMicros(createdAtMicros)));
+      }
+    }
+  }
+
+  private ByteBuffer inflate(int block) {
+    ByteBuffer input = buffer.duplicate();
+    input.limit(offsets[block] + lengths[block]).position(offsets[block]);
+    ByteBuffer output = ByteBuffer.allocate(counts[block] * HistorySegmentFormat.ENTRY_SIZE);
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(input);
+      while (output.hasRemaining() && !inflater.finished()) {
+        if (inflater.inflate(output) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IllegalStateException("Truncated history segment block");
+        }
+      }
+    } catch (DataFormatException e) {
+      throw new IllegalStateException("Corrupted history segment block", e);
+    } finally {
+      inflater.end();
+    }
+    return output;
+  }
+}
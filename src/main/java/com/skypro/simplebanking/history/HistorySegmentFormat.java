@@ -0,0 +1,28 @@
+package com.skypro.simplebanking.history;
+
+import java.time.Instant;
+
+/**
+ * Layout of an archived history segment. The file starts with {@link #MAGIC}, followed by one
+ * Deflate-compressed block per account holding {@link #ENTRY_SIZE}-byte entries ordered by time,
+ * the account index and a footer with the index offset and {@link #MAGIC} again. Each index entry
+ * carries the block position, its entry count, the sum of its deltas and its time bounds, so sums
+ * over whole blocks never have to inflate them.
+ */
+final class HistorySegmentFormat {
+  static final int MAGIC = 0x42485331;
+  static final int ENTRY_SIZE = Long.BYTES * 3 + 1;
+  static final int INDEX_ENTRY_SIZE = Long.BYTES * 5 + Integer.BYTES * 2;
+  static final int FOOTER_SIZE = Long.BYTES + Integer.BYTES;
+
+  private HistorySegmentFormat() {}
+
+  static long toMicros(Instant instant) {
+    return instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000;
+  }
+
+  static Instant fromMicros(long micros) {
+    return Instant.ofEpochSecond(
+        Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+  }
+}
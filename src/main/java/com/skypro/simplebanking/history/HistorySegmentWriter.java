@@ -0,0 +1,141 @@
+package com.skypro.simplebanking.history;
+
+import com.skypro.simplebanking.entity.BalanceChangeKind;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/** Writes a segment from rows ordered by account id and then by time; append-only. */
+public class HistorySegmentWriter implements Closeable {
+  private static final int INITIAL_INDEX_CAPACITY = 1024;
+
+  private final DataOutputStream out;
+  private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+  private final ByteArrayOutputStream rawBlock = new ByteArrayOutputStream();
+  private final DataOutputStream rawBlockOut = new DataOutputStream(rawBlock);
+  private final ByteArrayOutputStream compressedBlock = new ByteArrayOutputStream();
+  private long position;
+  private long rowCount;
+
+  private boolean hasBlock;
+  private long blockAccountId;
+  private int blockCount;
+  private long blockSum;
+  private long blockMinMicros;
+  private long blockMaxMicros;
+
+  private int indexSize;
+  private long[] accountIds = new long[INITIAL_INDEX_CAPACITY];
+  private long[] offsets = new long[INITIAL_INDEX_CAPACITY];
+  private int[] lengths = new int[INITIAL_INDEX_CAPACITY];
+  private int[] counts = new int[INITIAL_INDEX_CAPACITY];
+  private long[] sums = new long[INITIAL_INDEX_CAPACITY];
+  private long[] minMicros = new long[INITIAL_INDEX_CAPACITY];
+  private long[] maxMicros = new long[INITIAL_INDEX_CAPACITY];
+
+  public HistorySegmentWriter(Path path) throws IOException {
+    this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+    out.writeInt(HistorySegmentFormat.MAGIC);
+    position = Integer.BYTES;
+  }
+
+  public void append(
+      long id, long accountId, long createdAtMicros, long delta, BalanceChangeKind kind)
+      throws IOException {
+    if (!hasBlock || accountId != blockAccountId) {
+      if (hasBlock && accountId < blockAccountId) {
+        throw new IllegalArgumentException("Rows must be ordered by account id");
+      }
+      flushBlock();
+      hasBlock = true;
+      blockAccountId = accountId;
+      blockCount = 0;
+      blockSum = 0;
+      blockMinMicros = createdAtMicros;
+    }
+    rawBlockOut.writeLong(id);
+    rawBlockOut.writeLong(createdAtMicros);
+    rawBlockOut.writeLong(delta);
+    rawBlockOut.writeByte(kind.ordinal());
+    blockCount++;
+    blockSum += delta;
+    blockMaxMicros = createdAtMicros;
+    rowCount++;
+  }
+
+  public long finish() throws IOException {
+    flushBlock();
+    long indexOffset = position;
+    out.writeInt(indexSize);
+    for (int i = 0; i < indexSize; i++) {
+      out.writeLong(accountIds[i]);
+      out.writeLong(offsets[i]);
+      out.writeInt(lengths[i]);
+      out.writeInt(counts[i]);
+      out.writeLong(sums[i]);
+      out.writeLong(minMicros[i]);
+      out.writeLong(maxMicros[i]);
+    }
+    out.writeLong(indexOffset);
+    out.writeInt(HistorySegmentFormat.MAGIC);
+    out.flush();
+    return rowCount;
+  }
+
+  @Override
+  public void close() throws IOException {
+    deflater.end();
+    out.close();
+  }
+
+  private void flushBlock() throws IOException {
+    if (!hasBlock) {
+      return;
+    }
+    compressedBlock.reset();
+    deflater.reset();
+    DeflaterOutputStream deflating = new DeflaterOutputStream(compressedBlock, deflater, 8192);
+    rawBlock.writeTo(deflating);
+    deflating.finish();
+    rawBlock.reset();
+
+    int length = compressedBlock.size();
+    if (position + length > Integer.MAX_VALUE) {
+      throw new IOException("History segment cannot exceed 2 GiB");
+    }
+    ensureIndexCapacity();
+    accountIds[indexSize] = blockAccountId;
+    offsets[indexSize] = position;
+    lengths[indexSize] = length;
+    counts[indexSize] = blockCount;
+    sums[indexSize] = blockSum;
+    minMicros[indexSize] = blockMinMicros;
+    maxMicros[indexSize] = blockMaxMicros;
+    indexSize++;
+
+    compressedBlock.writeTo(out);
+    position += length;
+    hasBlock = false;
+  }
+
+  private void ensureIndexCapacity() {
+    if (indexSize < accountIds.length) {
+      return;
+    }
+    int capacity = accountIds.length * 2;
+    accountIds = Arrays.copyOf(accountIds, capacity);
+    offsets = Arrays.copyOf(offsets, capacity);
+    lengths = Arrays.copyOf(lengths, capacity);
+    counts = Arrays.copyOf(counts, capacity);
+    sums = Arrays.copyOf(sums, capacity);
+    minMicros = Arrays.copyOf(minMicros, capacity);
+    maxMicros = Arrays.copyOf(maxMicros, capacity);
+  }
+}
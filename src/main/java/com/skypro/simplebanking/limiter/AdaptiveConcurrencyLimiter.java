@@ -0,0 +1,114 @@
+package com.skypro.simplebanking.limiter;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limiter with a short bounded wait queue. The limit follows AIMD: it grows additively
+ * while the observed latency stays under the threshold and the limit is actually used, and shrinks
+ * multiplicatively as soon as a request is slower than the threshold. Queued requests wait on a
+ * lock condition rather than a monitor, so a waiting virtual thread does not pin its carrier.
+ */
+public class AdaptiveConcurrencyLimiter {
+  private final int minLimit;
+  private final int maxLimit;
+  private final int maxQueueSize;
+  private final long queueTimeoutNanos;
+  private final long latencyThresholdNanos;
+  private final double backoffRatio;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition released = lock.newCondition();
+
+  private double limit;
+  private int inFlight;
+  private int waiting;
+
+  public AdaptiveConcurrencyLimiter(
+      int initialLimit,
+      int minLimit,
+      int maxLimit,
+      int maxQueueSize,
+      Duration queueTimeout,
+      Duration latencyThreshold,
+      double backoffRatio) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.maxQueueSize = maxQueueSize;
+    this.queueTimeoutNanos = queueTimeout.toNanos();
+    this.latencyThresholdNanos = latencyThreshold.toNanos();
+    this.backoffRatio = backoffRatio;
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+  }
+
+  public boolean tryAcquire() throws InterruptedException {
+    lock.lock();
+    try {
+      if (inFlight < (int) limit) {
+        inFlight++;
+        return true;
+      }
+      if (waiting >= maxQueueSize) {
+        return false;
+      }
+      waiting++;
+      try {
+        long remaining = queueTimeoutNanos;
+        while (inFlight >= (int) limit) {
+          if (remaining <= 0) {
+            return false;
+          }
+          remaining = released.awaitNanos(remaining);
+        }
+        inFlight++;
+        return true;
+      } finally {
+        waiting--;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void release(long latencyNanos) {
+    lock.lock();
+    try {
+      int previousInFlight = inFlight--;
+      if (latencyNanos > latencyThresholdNanos) {
+        limit = Math.max(minLimit, limit * backoffRatio);
+      } else if (previousInFlight * 2 >= (int) limit) {
+        limit = Math.min(maxLimit, limit + 1.0 / limit);
+      }
+      released.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getLimit() {
+    lock.lock();
+    try {
+      return (int) limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getInFlight() {
+    lock.lock();
+    try {
+      return inFlight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getWaiting() {
+    lock.lock();
+    try {
+      return waiting;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.skypro.simplebanking.limiter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Lets at most the given number of connections out at a time and queues further callers on a fair
+ * semaphore, releasing the permit when the connection is closed. On virtual threads there is no
+ * request thread pool left to bound the number of callers, so they wait here, in arrival order,
+ * instead of piling up inside the connection pool.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource implements DisposableBean {
+  private final Semaphore permits;
+  private final long timeoutMillis;
+
+  public ConnectionLimitingDataSource(DataSource target, int maxConnections, long timeoutMillis) {
+    super(target);
+    this.permits = new Semaphore(maxConnections, true);
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    try {
+      return releasingOnClose(super.getConnection());
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    try {
+      return releasingOnClose(super.getConnection(username, password));
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  public int getAvailablePermits() {
+    return permits.availablePermits();
+  }
+
+  public int getQueueLength() {
+    return permits.getQueueLength();
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    DataSource target = obtainTargetDataSource();
+    if (target instanceof DisposableBean) {
+      ((DisposableBean) target).destroy();
+    } else if (target instanceof AutoCloseable) {
+      ((AutoCloseable) target).close();
+    }
+  }
+
+  private void acquire() throws SQLException {
+    try {
+      if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw new SQLTransientConnectionException(
+            "No connection available within " + timeoutMillis + "ms");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+    }
+  }
+
+  private Connection releasingOnClose(Connection connection) {
+    AtomicBoolean released = new AtomicBoolean();
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "equals":
+                  return proxy == args[0];
+                case "hashCode":
+                  return System.identityHashCode(proxy);
+                case "close":
+                  if (released.compareAndSet(false, true)) {
+                    try {
+                      connection.close();
+                    } finally {
+                      permits.release();
+                    }
+                  }
+                  return null;
+                default:
+                  try {
+                    return method.invoke(connection, args);
+                  } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                  }
+              }
+            });
+  }
+}
@@ -0,0 +1,167 @@
+package com.skypro.simplebanking.limiter;
+
+import com.skypro.simplebanking.configuration.RateLimitProperties;
+import com.skypro.simplebanking.exception.CommitOutcomeUnknownException;
+import com.skypro.simplebanking.exception.RateLimitExceededException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory request rate and money velocity limits. Limiters are created per key on first use and
+ * dropped once they are back in their initial state, so memory follows the set of active clients.
+ * A rate of zero or less and a velocity amount of zero or less disable the respective check.
+ */
+@Component
+@Lazy(false)
+public class RequestRateLimiter {
+  private final RateLimitProperties properties;
+  private final long velocityWindowNanos;
+  private final ConcurrentMap<String, TokenBucket> authenticationBuckets =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, TokenBucket> accountBuckets = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, SlidingWindowCounter> userVelocity =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, SlidingWindowCounter> accountVelocity =
+      new ConcurrentHashMap<>();
+
+  public RequestRateLimiter(RateLimitProperties properties) {
+    this.properties = properties;
+    this.velocityWindowNanos = properties.getVelocity().getWindow().toNanos();
+  }
+
+  /**
+   * Turns a username away before its password hash is checked once it has used up its allowance
+   * of failed attempts. Only failures are counted, see {@link #recordAuthenticationFailure}, so
+   * clients that authenticate every request with the right password are never limited here.
+   */
+  public void checkAuthentication(String username) {
+    if (properties.getAuthentication().getPerSecond() <= 0) {
+      return;
+    }
+    TokenBucket bucket = authenticationBuckets.get(username);
+    if (bucket != null) {
+      long waitNanos = bucket.nanosUntilAvailable(System.nanoTime());
+      if (waitNanos > 0) {
+        throw rejection(waitNanos);
+      }
+    }
+  }
+
+  public void recordAuthenticationFailure(String username) {
+    RateLimitProperties.Rate rate = properties.getAuthentication();
+    if (rate.getPerSecond() <= 0) {
+      return;
+    }
+    long now = System.nanoTime();
+    bucket(authenticationBuckets, username, rate, now).tryAcquire(now);
+  }
+
+  public void checkUser(long userId) {
+    acquire(userBuckets, userId, properties.getUser());
+  }
+
+  /** Counts one request against the account and the amount against both velocity windows. */
+  public void checkMovement(long userId, long accountId, long requestedAmount) {
+    acquire(accountBuckets, accountId, properties.getAccount());
+    long amount = Math.max(0, requestedAmount);
+    RateLimitProperties.Velocity velocity = properties.getVelocity();
+    long now = System.nanoTime();
+    SlidingWindowCounter userWindow = null;
+    if (velocity.getUserAmount() > 0) {
+      userWindow =
+          userVelocity.computeIfAbsent(
+              userId, id -> new SlidingWindowCounter(velocityWindowNanos, now));
+      if (!userWindow.tryAdd(amount, velocity.getUserAmount(), now)) {
+        throw rejection(userWindow.nanosUntilNextWindow(now));
+      }
+    }
+    if (velocity.getAccountAmount() > 0) {
+      SlidingWindowCounter accountWindow =
+          accountVelocity.computeIfAbsent(
+              accountId, id -> new SlidingWindowCounter(velocityWindowNanos, now));
+      if (!accountWindow.tryAdd(amount, velocity.getAccountAmount(), now)) {
+        if (userWindow != null) {
+          userWindow.subtract(amount, now);
+        }
+        throw rejection(accountWindow.nanosUntilNextWindow(now));
+      }
+    }
+  }
+
+  /**
+   * Checks the movement like {@link #checkMovement} and runs it, crediting the amount back if it
+   * fails. A movement whose commit outcome is unknown keeps its charge, as it may have happened.
+   */
+  public <T> T chargeMovement(
+      long userId, long accountId, long requestedAmount, Supplier<T> movement) {
+    checkMovement(userId, accountId, requestedAmount);
+    try {
+      return movement.get();
+    } catch (RuntimeException e) {
+      refundMovement(userId, accountId, requestedAmount, e);
+      throw e;
+    }
+  }
+
+  /** Credits back an amount charged by {@link #checkMovement} for a movement that failed. */
+  public void refundMovement(long userId, long accountId, long requestedAmount, Throwable cause) {
+    if (cause instanceof CommitOutcomeUnknownException) {
+      return;
+    }
+    long amount = Math.max(0, requestedAmount);
+    long now = System.nanoTime();
+    SlidingWindowCounter userWindow = userVelocity.get(userId);
+    if (userWindow != null) {
+      userWindow.subtract(amount, now);
+    }
+    SlidingWindowCounter accountWindow = accountVelocity.get(accountId);
+    if (accountWindow != null) {
+      accountWindow.subtract(amount, now);
+    }
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.rate-limit.eviction-interval-millis:60000}",
+      fixedDelayString = "${app.rate-limit.eviction-interval-millis:60000}")
+  public void evictIdle() {
+    long now = System.nanoTime();
+    authenticationBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    userBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    accountBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    userVelocity.values().removeIf(counter -> counter.isEmpty(now));
+    accountVelocity.values().removeIf(counter -> counter.isEmpty(now));
+  }
+
+  private static <K> void acquire(
+      ConcurrentMap<K, TokenBucket> buckets, K key, RateLimitProperties.Rate rate) {
+    if (rate.getPerSecond() <= 0) {
+      return;
+    }
+    long now = System.nanoTime();
+    long waitNanos = bucket(buckets, key, rate, now).tryAcquire(now);
+    if (waitNanos > 0) {
+      throw rejection(waitNanos);
+    }
+  }
+
+  private static <K> TokenBucket bucket(
+      ConcurrentMap<K, TokenBucket> buckets, K key, RateLimitProperties.Rate rate, long now) {
+    return buckets.computeIfAbsent(
+        key, k -> new TokenBucket(rate.getPerSecond(), rate.getBurst(), now));
+  }
+
+  private static RateLimitExceededException rejection(long waitNanos) {
+    return new RateLimitExceededException(retryAfterSeconds(waitNanos));
+  }
+
+  /** Rounds the wait up to whole seconds, at least one, for the Retry-After header. */
+  static long retryAfterSeconds(long waitNanos) {
+    return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+  }
+}
@@ -0,0 +1,81 @@
+package com.skypro.simplebanking.limiter;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sliding-window sum approximated from the current and the previous fixed window, with the
+ * previous window weighted by how much of it still overlaps the sliding window. The state is
+ * immutable and replaced by compare-and-set, so concurrent writers never block each other.
+ */
+public class SlidingWindowCounter {
+  private final long windowNanos;
+  private final AtomicReference<State> state;
+
+  public SlidingWindowCounter(long windowNanos, long nowNanos) {
+    this.windowNanos = windowNanos;
+    this.state = new AtomicReference<>(new State(Math.floorDiv(nowNanos, windowNanos), 0, 0));
+  }
+
+  /** Adds the amount unless the window would exceed the limit; returns false in that case. */
+  public boolean tryAdd(long amount, long limit, long nowNanos) {
+    long window = Math.floorDiv(nowNanos, windowNanos);
+    double previousWeight = 1.0 - (double) Math.floorMod(nowNanos, windowNanos) / windowNanos;
+    while (true) {
+      State current = state.get();
+      State rolled = current.rollTo(window);
+      double estimate = rolled.previous * previousWeight + rolled.current;
+      if (estimate + amount > limit) {
+        return false;
+      }
+      if (state.compareAndSet(
+          current, new State(rolled.window, rolled.previous, rolled.current + amount))) {
+        return true;
+      }
+    }
+  }
+
+  /** Takes back an amount added by a request that was rejected by a later check. */
+  public void subtract(long amount, long nowNanos) {
+    long window = Math.floorDiv(nowNanos, windowNanos);
+    while (true) {
+      State current = state.get();
+      if (current.window != window) {
+        return;
+      }
+      State updated =
+          new State(window, current.previous, Math.max(0, current.current - amount));
+      if (state.compareAndSet(current, updated)) {
+        return;
+      }
+    }
+  }
+
+  public long nanosUntilNextWindow(long nowNanos) {
+    return windowNanos - Math.floorMod(nowNanos, windowNanos);
+  }
+
+  /** True once both windows have slid out, when the counter is equivalent to a new one. */
+  public boolean isEmpty(long nowNanos) {
+    return state.get().window + 1 < Math.floorDiv(nowNanos, windowNanos);
+  }
+
+  private static class State {
+    private final long window;
+    private final long previous;
+    private final long current;
+
+    State(long window, long previous, long current) {
+      this.window = window;
+      this.previous = previous;
+      this.current = current;
+    }
+
+    State rollTo(long target) {
+      // A caller that read the clock just before a window change must not reset the new window.
+      if (target <= window) {
+        return this;
+      }
+      return new State(target, target == window + 1 ? current : 0, 0);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.skypro.simplebanking.limiter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single theoretical arrival time (GCRA), so taking a token is one
+ * compare-and-set and an idle bucket needs no refill work. Times are {@link System#nanoTime()}.
+ */
+public class TokenBucket {
+  private final long intervalNanos;
+  private final long toleranceNanos;
+  private final AtomicLong theoreticalArrival;
+
+  public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+    this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+    this.toleranceNanos = intervalNanos * Math.max(1, burst);
+    this.theoreticalArrival = new AtomicLong(nowNanos);
+  }
+
+  /** Takes a token; returns 0 on success or the nanoseconds until one becomes available. */
+  public long tryAcquire(long nowNanos) {
+    while (true) {
+      long arrival = theoreticalArrival.get();
+      long next = Math.max(arrival, nowNanos) + intervalNanos;
+      long ahead = next - nowNanos;
+      if (ahead > toleranceNanos) {
+        return ahead - toleranceNanos;
+      }
+      if (theoreticalArrival.compareAndSet(arrival, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /** Returns 0 if a token is available, or the nanoseconds until one is, without taking it. */
+  public long nanosUntilAvailable(long nowNanos) {
+    long ahead = Math.max(theoreticalArrival.get(), nowNanos) + intervalNanos - nowNanos;
+    return Math.max(0, ahead - toleranceNanos);
+  }
+
+  /** A bucket that has refilled completely behaves like a new one and can be dropped. */
+  public boolean isFull(long nowNanos) {
+    return theoreticalArrival.get() <= nowNanos;
+  }
+}
@@ -0,0 +1,274 @@
+package com.skypro.simplebanking.metrics;
+
+import com.skypro.simplebanking.dto.CurrencyAggregate;
+import com.skypro.simplebanking.dto.CurrencyMetricsDTO;
+import com.skypro.simplebanking.dto.MinuteVolumeDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.repository.AccountRepository;
+import com.skypro.simplebanking.repository.CurrencyMetricsRepository;
+import com.skypro.simplebanking.sharding.ShardRouter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Live per-currency totals for dashboards. Every committed change is added to striped counters, so
+ * reading them never touches the database. Once the application is ready and then at every
+ * checkpoint, the totals are rebased on shared state: account counts and balances on one aggregate
+ * query per shard, cumulative flows on the checkpoint table, to which each instance adds only what
+ * it counted since its previous checkpoint. Several instances therefore report the same totals,
+ * up to one checkpoint interval behind each other. Changes are applied after commit so that
+ * rolled back operations are not counted.
+ */
+@Component
+@Lazy(false)
+public class CurrencyMetrics {
+  private static final Logger log = LoggerFactory.getLogger(CurrencyMetrics.class);
+
+  private static final int HOLDING_COUNT = 2;
+  private static final int FLOW_COUNT = 4;
+
+  private final AccountRepository accountRepository;
+  private final CurrencyMetricsRepository currencyMetricsRepository;
+  private final ShardRouter shardRouter;
+  private final Map<AccountCurrency, Counters> counters = new EnumMap<>(AccountCurrency.class);
+
+  public CurrencyMetrics(
+      AccountRepository accountRepository,
+      CurrencyMetricsRepository currencyMetricsRepository,
+      ShardRouter shardRouter,
+      @Value("${app.metrics.window-minutes:60}") int windowMinutes) {
+    this.accountRepository = accountRepository;
+    this.currencyMetricsRepository = currencyMetricsRepository;
+    this.shardRouter = shardRouter;
+    for (AccountCurrency currency : AccountCurrency.values()) {
+      counters.put(currency, new Counters(windowMinutes));
+    }
+  }
+
+  /** Seeds the totals once startup is over, so creating the bean does not query the database. */
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void load() {
+    Map<AccountCurrency, long[]> checkpoints = currencyMetricsRepository.findCheckpoints();
+    counters.forEach(
+        (currency, current) ->
+            current.flows =
+                new Baseline(
+                    checkpoints.getOrDefault(currency, new long[FLOW_COUNT]),
+                    current.flows.counted));
+    refreshHoldings();
+  }
+
+  public void accountsOpened(AccountCurrency currency, long count, long openingBalance) {
+    afterCommit(
+        () -> {
+          Counters current = counters.get(currency);
+          current.accounts.add(count);
+          current.balance.add(openingBalance);
+        });
+  }
+
+  public void deposited(AccountCurrency currency, long amount) {
+    afterCommit(
+        () -> {
+          Counters current = counters.get(currency);
+          current.deposits.add(amount);
+          current.balance.add(amount);
+        });
+  }
+
+  public void withdrawn(AccountCurrency currency, long amount) {
+    afterCommit(
+        () -> {
+          Counters current = counters.get(currency);
+          current.withdrawals.add(amount);
+          current.balance.add(-amount);
+        });
+  }
+
+  /** Records transfers between accounts; the currency balance total does not change. */
+  public void transferred(AccountCurrency currency, long volume, long count) {
+    afterCommit(
+        () -> {
+          Counters current = counters.get(currency);
+          current.transferVolume.add(volume);
+          current.transferCount.add(count);
+          current.perMinute.add(currentMinute(), volume, count);
+        });
+  }
+
+  /** Moves balance between currency totals for a transfer that converted the amount. */
+  public void exchanged(
+      AccountCurrency fromCurrency, long fromAmount, AccountCurrency toCurrency, long toAmount) {
+    afterCommit(
+        () -> {
+          counters.get(fromCurrency).balance.add(-fromAmount);
+          counters.get(toCurrency).balance.add(toAmount);
+        });
+  }
+
+  public List<CurrencyMetricsDTO> snapshot(int minutes) {
+    long now = currentMinute();
+    List<CurrencyMetricsDTO> snapshot = new ArrayList<>(counters.size());
+    for (Map.Entry<AccountCurrency, Counters> entry : counters.entrySet()) {
+      Counters current = entry.getValue();
+      Baseline holdings = current.holdings;
+      Baseline flows = current.flows;
+      int window = Math.min(Math.max(minutes, 1), current.perMinute.size());
+      List<MinuteVolumeDTO> perMinute = new ArrayList<>(window);
+      for (long minute = now - window + 1; minute <= now; minute++) {
+        long[] bucket = current.perMinute.get(minute);
+        perMinute.add(
+            new MinuteVolumeDTO(
+                Instant.ofEpochMilli(TimeUnit.MINUTES.toMillis(minute)), bucket[0], bucket[1]));
+      }
+      snapshot.add(
+          new CurrencyMetricsDTO(
+              entry.getKey(),
+              holdings.current(0, current.accounts.sum()),
+              holdings.current(1, current.balance.sum()),
+              flows.current(0, current.deposits.sum()),
+              flows.current(1, current.withdrawals.sum()),
+              flows.current(2, current.transferVolume.sum()),
+              flows.current(3, current.transferCount.sum()),
+              perMinute));
+    }
+    return snapshot;
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.metrics.checkpoint-interval-millis:60000}",
+      fixedDelayString = "${app.metrics.checkpoint-interval-millis:60000}")
+  public synchronized void checkpoint() {
+    saveFlows();
+    refreshHoldings();
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() {
+    try {
+      saveFlows();
+    } catch (RuntimeException e) {
+      log.warn("Could not save the final currency metrics checkpoint", e);
+    }
+  }
+
+  private void saveFlows() {
+    Map<AccountCurrency, long[]> counted = new EnumMap<>(AccountCurrency.class);
+    Map<AccountCurrency, long[]> deltas = new EnumMap<>(AccountCurrency.class);
+    counters.forEach(
+        (currency, current) -> {
+          long[] flows = current.flowSums();
+          long[] delta = new long[FLOW_COUNT];
+          for (int i = 0; i < FLOW_COUNT; i++) {
+            delta[i] = flows[i] - current.flows.counted[i];
+          }
+          counted.put(currency, flows);
+          deltas.put(currency, delta);
+        });
+    Map<AccountCurrency, long[]> totals =
+        currencyMetricsRepository.addToCheckpoints(Instant.now(), deltas);
+    counters.forEach(
+        (currency, current) ->
+            current.flows = new Baseline(totals.get(currency), counted.get(currency)));
+  }
+
+  private void refreshHoldings() {
+    Map<AccountCurrency, long[]> counted = new EnumMap<>(AccountCurrency.class);
+    Map<AccountCurrency, long[]> holdings = new EnumMap<>(AccountCurrency.class);
+    counters.forEach(
+        (currency, current) -> {
+          counted.put(currency, current.holdingSums());
+          holdings.put(currency, new long[HOLDING_COUNT]);
+        });
+    shardRouter.forEachShard(
+        shard -> {
+          for (CurrencyAggregate aggregate : accountRepository.aggregateByCurrency()) {
+            long[] totals = holdings.get(aggregate.getCurrency());
+            totals[0] += aggregate.getAccountCount();
+            totals[1] += aggregate.getBalanceTotal();
+          }
+        });
+    counters.forEach(
+        (currency, current) ->
+            current.holdings = new Baseline(holdings.get(currency), counted.get(currency)));
+  }
+
+  private static long currentMinute() {
+    return TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+  }
+
+  private static void afterCommit(Runnable update) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      update.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            update.run();
+          }
+        });
+  }
+
+  private static class Counters {
+    private final LongAdder accounts = new LongAdder();
+    private final LongAdder balance = new LongAdder();
+    private final LongAdder deposits = new LongAdder();
+    private final LongAdder withdrawals = new LongAdder();
+    private final LongAdder transferVolume = new LongAdder();
+    private final LongAdder transferCount = new LongAdder();
+    private final RollingCounter perMinute;
+    private volatile Baseline holdings = new Baseline(new long[HOLDING_COUNT]);
+    private volatile Baseline flows = new Baseline(new long[FLOW_COUNT]);
+
+    Counters(int windowMinutes) {
+      this.perMinute = new RollingCounter(windowMinutes);
+    }
+
+    private long[] holdingSums() {
+      return new long[] {accounts.sum(), balance.sum()};
+    }
+
+    private long[] flowSums() {
+      return new long[] {
+        deposits.sum(), withdrawals.sum(), transferVolume.sum(), transferCount.sum()
+      };
+    }
+  }
+
+  /** Shared totals as last read, and what the local counters held at that moment. */
+  private static class Baseline {
+    private final long[] shared;
+    private final long[] counted;
+
+    Baseline(long[] zero) {
+      this(zero, zero);
+    }
+
+    Baseline(long[] shared, long[] counted) {
+      this.shared = shared;
+      this.counted = counted;
+    }
+
+    long current(int index, long countedNow) {
+      return shared[index] + countedNow - counted[index];
+    }
+  }
+}
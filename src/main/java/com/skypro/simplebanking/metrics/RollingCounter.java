@@ -0,0 +1,57 @@
+package com.skypro.simplebanking.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed ring of per-minute buckets. A bucket is replaced with a fresh one by compare-and-set when
+ * its minute comes round again, so writers never lock and a read touches a fixed number of slots.
+ */
+public class RollingCounter {
+  private final AtomicReferenceArray<Bucket> buckets;
+
+  public RollingCounter(int minutes) {
+    this.buckets = new AtomicReferenceArray<>(minutes);
+  }
+
+  public int size() {
+    return buckets.length();
+  }
+
+  public void add(long minute, long amount, long count) {
+    int slot = (int) Math.floorMod(minute, (long) buckets.length());
+    Bucket bucket = buckets.get(slot);
+    while (bucket == null || bucket.minute != minute) {
+      if (bucket != null && bucket.minute > minute) {
+        return;
+      }
+      Bucket fresh = new Bucket(minute);
+      if (buckets.compareAndSet(slot, bucket, fresh)) {
+        bucket = fresh;
+      } else {
+        bucket = buckets.get(slot);
+      }
+    }
+    bucket.total.add(amount);
+    bucket.count.add(count);
+  }
+
+  /** Returns {total, count} for the minute, or zeros if the minute has been overwritten. */
+  public long[] get(long minute) {
+    Bucket bucket = buckets.get((int) Math.floorMod(minute, (long) buckets.length()));
+    if (bucket == null || bucket.minute != minute) {
+      return new long[] {0, 0};
+    }
+    return new long[] {bucket.total.sum(), bucket.count.sum()};
+  }
+
+  private static class Bucket {
+    private final long minute;
+    private final LongAdder total = new LongAdder();
+    private final LongAdder count = new LongAdder();
+
+    Bucket(long minute) {
+      this.minute = minute;
+    }
+  }
+}
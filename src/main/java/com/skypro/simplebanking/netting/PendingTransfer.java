@@ -0,0 +1,44 @@
+package com.skypro.simplebanking.netting;
+
+import com.skypro.simplebanking.dto.TransferRequest;
+import java.util.concurrent.CompletableFuture;
+
+public class PendingTransfer {
+  private final long userId;
+  private final TransferRequest transferRequest;
+  private final CompletableFuture<Void> result = new CompletableFuture<>();
+  private RuntimeException rejection;
+
+  public PendingTransfer(long userId, TransferRequest transferRequest) {
+    this.userId = userId;
+    this.transferRequest = transferRequest;
+  }
+
+  public long getUserId() {
+    return userId;
+  }
+
+  public TransferRequest getTransferRequest() {
+    return transferRequest;
+  }
+
+  public CompletableFuture<Void> getResult() {
+    return result;
+  }
+
+  public void reject(RuntimeException rejection) {
+    this.rejection = rejection;
+  }
+
+  void complete() {
+    if (rejection != null) {
+      result.completeExceptionally(rejection);
+    } else {
+      result.complete(null);
+    }
+  }
+
+  void fail(RuntimeException error) {
+    result.completeExceptionally(error);
+  }
+}
@@ -0,0 +1,244 @@
+package com.skypro.simplebanking.netting;
+
+import com.skypro.simplebanking.dto.NettingMetricsDTO;
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.dto.TransferResultDTO;
+import com.skypro.simplebanking.exception.ServiceOverloadedException;
+import com.skypro.simplebanking.service.NettedTransferService;
+import com.skypro.simplebanking.service.TransferService;
+import com.skypro.simplebanking.sharding.ShardContext;
+import com.skypro.simplebanking.sharding.ShardRouter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects submitted transfers for a short window and hands them to {@link NettedTransferService}
+ * as one batch, so circular traffic between the same accounts costs one UPDATE per account
+ * instead of two per transfer. A window is netted per shard; transfers to a user on another shard
+ * cannot be netted and go through {@link TransferService} one by one.
+ *
+ * <p>Queue capacity is reserved for a whole batch before any of it is queued, so a batch is
+ * either accepted or rejected as a unit.
+ */
+@Component
+public class TransferNettingEngine {
+  private static final Logger log = LoggerFactory.getLogger(TransferNettingEngine.class);
+
+  private final NettedTransferService nettedTransferService;
+  private final TransferService transferService;
+  private final ShardRouter shardRouter;
+  private final BlockingQueue<PendingTransfer> queue = new LinkedBlockingQueue<>();
+  private final Semaphore capacity;
+  private final long windowNanos;
+  private final int maxBatchSize;
+  private final long awaitTimeoutNanos;
+  private final Thread worker;
+  private final LongAdder detachedSubmitted = new LongAdder();
+  private final LongAdder detachedRejected = new LongAdder();
+  private volatile boolean running = true;
+
+  public TransferNettingEngine(
+      NettedTransferService nettedTransferService,
+      TransferService transferService,
+      ShardRouter shardRouter,
+      @Value("${app.netting.window-millis:20}") long windowMillis,
+      @Value("${app.netting.max-batch-size:1000}") int maxBatchSize,
+      @Value("${app.netting.queue-capacity:10000}") int queueCapacity,
+      @Value("${app.netting.await-timeout-millis:5000}") long awaitTimeoutMillis) {
+    this.nettedTransferService = nettedTransferService;
+    this.transferService = transferService;
+    this.shardRouter = shardRouter;
+    this.capacity = new Semaphore(queueCapacity);
+    this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    this.maxBatchSize = maxBatchSize;
+    this.awaitTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(awaitTimeoutMillis);
+    this.worker = new Thread(this::run, "transfer-netting");
+    this.worker.setDaemon(true);
+  }
+
+  @PostConstruct
+  public void start() {
+    worker.start();
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    running = false;
+    worker.join(TimeUnit.SECONDS.toMillis(10));
+  }
+
+  public PendingTransfer submit(long userId, TransferRequest transferRequest) {
+    return submitAll(userId, List.of(transferRequest)).get(0);
+  }
+
+  private List<PendingTransfer> submitAll(long userId, List<TransferRequest> transferRequests) {
+    if (!running || !capacity.tryAcquire(transferRequests.size())) {
+      throw new ServiceOverloadedException(1);
+    }
+    List<PendingTransfer> submitted = new ArrayList<>(transferRequests.size());
+    for (TransferRequest transferRequest : transferRequests) {
+      PendingTransfer transfer = new PendingTransfer(userId, transferRequest);
+      queue.add(transfer);
+      submitted.add(transfer);
+    }
+    if (!running) {
+      for (PendingTransfer transfer : submitted) {
+        if (queue.remove(transfer)) {
+          capacity.release();
+          transfer.fail(new ServiceOverloadedException(1));
+        }
+      }
+    }
+    return submitted;
+  }
+
+  /**
+   * Submits a transfer whose client does not wait for the outcome. Nobody reads its result, so a
+   * rejection is logged and counted here instead of being lost. The outcome is returned so that
+   * the caller can undo its own bookkeeping for a rejected transfer.
+   */
+  public CompletableFuture<Void> submitDetached(long userId, TransferRequest transferRequest) {
+    PendingTransfer transfer = submit(userId, transferRequest);
+    detachedSubmitted.increment();
+    transfer
+        .getResult()
+        .whenComplete(
+            (ignored, error) -> {
+              if (error != null) {
+                detachedRejected.increment();
+                log.warn(
+                    "Asynchronous transfer of {} from account {} of user {} to account {} was"
+                        + " rejected: {}",
+                    transferRequest.getAmount(),
+                    transferRequest.getFromAccountId(),
+                    userId,
+                    transferRequest.getToAccountId(),
+                    error.toString());
+              }
+            });
+    return transfer.getResult();
+  }
+
+  public NettingMetricsDTO getMetrics() {
+    return new NettingMetricsDTO(queue.size(), detachedSubmitted.sum(), detachedRejected.sum());
+  }
+
+  public List<TransferResultDTO> submitAndAwait(
+      long userId, List<TransferRequest> transferRequests) {
+    List<PendingTransfer> submitted = submitAll(userId, transferRequests);
+    long deadline = System.nanoTime() + awaitTimeoutNanos;
+    List<TransferResultDTO> results = new ArrayList<>(submitted.size());
+    for (PendingTransfer transfer : submitted) {
+      results.add(await(transfer, deadline));
+    }
+    return results;
+  }
+
+  private static TransferResultDTO await(PendingTransfer transfer, long deadline) {
+    try {
+      transfer.getResult().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      return new TransferResultDTO(TransferResultDTO.Status.COMPLETED, null);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      String error =
+          cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+      return new TransferResultDTO(TransferResultDTO.Status.REJECTED, error);
+    } catch (TimeoutException e) {
+      return new TransferResultDTO(TransferResultDTO.Status.PENDING, null);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return new TransferResultDTO(TransferResultDTO.Status.PENDING, null);
+    }
+  }
+
+  private void run() {
+    List<PendingTransfer> window = new ArrayList<>(maxBatchSize);
+    while (running) {
+      try {
+        PendingTransfer first = poll(TimeUnit.SECONDS.toNanos(1));
+        if (first == null) {
+          continue;
+        }
+        window.add(first);
+        long deadline = System.nanoTime() + windowNanos;
+        while (window.size() < maxBatchSize) {
+          PendingTransfer next = poll(deadline - System.nanoTime());
+          if (next == null) {
+            break;
+          }
+          window.add(next);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        running = false;
+      }
+      if (!window.isEmpty()) {
+        flush(window);
+        window.clear();
+      }
+    }
+    PendingTransfer left;
+    while ((left = queue.poll()) != null) {
+      capacity.release();
+      left.fail(new ServiceOverloadedException(1));
+    }
+  }
+
+  private PendingTransfer poll(long timeoutNanos) throws InterruptedException {
+    PendingTransfer transfer = queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+    if (transfer != null) {
+      capacity.release();
+    }
+    return transfer;
+  }
+
+  private void flush(List<PendingTransfer> window) {
+    Map<Integer, List<PendingTransfer>> shardWindows = new TreeMap<>();
+    for (PendingTransfer transfer : window) {
+      int shard = shardRouter.shardOfUser(transfer.getUserId());
+      if (shard == shardRouter.shardOfUser(transfer.getTransferRequest().getToUserId())) {
+        shardWindows.computeIfAbsent(shard, key -> new ArrayList<>()).add(transfer);
+      } else {
+        transferAcrossShards(transfer);
+      }
+    }
+    shardWindows.forEach((shard, transfers) -> ShardContext.run(shard, () -> net(transfers)));
+  }
+
+  private void transferAcrossShards(PendingTransfer transfer) {
+    try {
+      transferService.transfer(transfer.getUserId(), transfer.getTransferRequest());
+    } catch (RuntimeException e) {
+      transfer.fail(e);
+      return;
+    }
+    transfer.complete();
+  }
+
+  private void net(List<PendingTransfer> window) {
+    try {
+      nettedTransferService.apply(window);
+    } catch (RuntimeException e) {
+      log.warn("Netted batch of {} transfers failed", window.size(), e);
+      window.forEach(transfer -> transfer.fail(e));
+      return;
+    }
+    window.forEach(PendingTransfer::complete);
+  }
+}
@@ -0,0 +1,53 @@
+package com.skypro.simplebanking.password;
+
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * Picks the highest BCrypt cost whose hash still fits the latency budget on this machine. Each
+ * step of the cost doubles the work, so the search stops at the first cost that is too slow.
+ */
+public final class BCryptCalibration {
+  private static final Logger log = LoggerFactory.getLogger(BCryptCalibration.class);
+  private static final String SAMPLE_PASSWORD = "calibration-sample";
+  private static final int WARMUP_ROUNDS = 3;
+  private static final int SAMPLES = 3;
+
+  private BCryptCalibration() {}
+
+  public static int calibrate(Duration budget, int minStrength, int maxStrength) {
+    long budgetNanos = budget.toNanos();
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      measure(minStrength);
+    }
+    int strength = minStrength;
+    long nanos = measure(strength);
+    while (strength < maxStrength && nanos * 2 <= budgetNanos) {
+      long next = measure(strength + 1);
+      if (next > budgetNanos) {
+        break;
+      }
+      strength++;
+      nanos = next;
+    }
+    log.info(
+        "BCrypt cost {} takes {} ms against a budget of {} ms",
+        strength,
+        nanos / 1_000_000,
+        budget.toMillis());
+    return strength;
+  }
+
+  /** Returns the fastest of a few hashes, which is the least disturbed by other startup work. */
+  private static long measure(int strength) {
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < SAMPLES; i++) {
+      long start = System.nanoTime();
+      BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(strength));
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best;
+  }
+}
@@ -0,0 +1,285 @@
+package com.skypro.simplebanking.reconciliation;
+
+import com.skypro.simplebanking.dto.CurrencyTotalDTO;
+import com.skypro.simplebanking.dto.ReconciliationProgressDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.history.ArchivedSegment;
+import com.skypro.simplebanking.history.BalanceHistoryReader;
+import com.skypro.simplebanking.repository.ReconciliationRepository;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * End-of-day reconciliation: checks that every account balance equals the sum of its recorded
+ * history and that the totals per currency agree. The id space is split into fixed ranges that are
+ * streamed in parallel on a bounded fork-join pool; mismatching accounts are appended to a CSV
+ * report as they are found, so memory use does not depend on the number of accounts. The replay
+ * starts from zero and relies on every account having an OPENING change.
+ */
+@Component
+public class ReconciliationJob {
+  private static final Logger log = LoggerFactory.getLogger(ReconciliationJob.class);
+  private static final DateTimeFormatter REPORT_NAME =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+  private final ReconciliationRepository reconciliationRepository;
+  private final BalanceHistoryReader balanceHistoryReader;
+  private final Path reportDirectory;
+  private final long partitionSize;
+  private final int parallelism;
+  private final long partitionPauseMillis;
+  private final ExecutorService launcher =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "reconciliation");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private volatile Run current;
+
+  public ReconciliationJob(
+      ReconciliationRepository reconciliationRepository,
+      BalanceHistoryReader balanceHistoryReader,
+      @Value("${app.reconciliation.report-dir:reconciliation-reports}") Path reportDirectory,
+      @Value("${app.reconciliation.partition-size:10000}") long partitionSize,
+      @Value("${app.reconciliation.parallelism:2}") int parallelism,
+      @Value("${app.reconciliation.partition-pause-millis:0}") long partitionPauseMillis) {
+    this.reconciliationRepository = reconciliationRepository;
+    this.balanceHistoryReader = balanceHistoryReader;
+    this.reportDirectory = reportDirectory;
+    this.partitionSize = partitionSize;
+    this.parallelism = parallelism;
+    this.partitionPauseMillis = partitionPauseMillis;
+  }
+
+  /** Starts a run in the background; returns false if one is already running. */
+  public synchronized boolean start() {
+    if (current != null && current.status == ReconciliationProgressDTO.Status.RUNNING) {
+      return false;
+    }
+    Run run = new Run(Instant.now());
+    current = run;
+    launcher.execute(() -> execute(run));
+    return true;
+  }
+
+  public ReconciliationProgressDTO getProgress() {
+    Run run = current;
+    if (run == null) {
+      return new ReconciliationProgressDTO(
+          ReconciliationProgressDTO.Status.IDLE, null, null, 0, 0, 0, 0, null, List.of(), null);
+    }
+    return run.toDTO();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    launcher.shutdownNow();
+  }
+
+  private void execute(Run run) {
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      Files.createDirectories(reportDirectory);
+      Path report =
+          reportDirectory.resolve("reconciliation-" + REPORT_NAME.format(run.startedAt) + ".csv");
+      try (BufferedWriter writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+        run.report = writer;
+        run.reportPath = report.toString();
+        writer.write("account_id,currency,balance,expected,difference");
+        writer.newLine();
+        reconciliationRepository
+            .findIdBounds()
+            .ifPresent(
+                bounds -> {
+                  long partitions = (bounds[1] - bounds[0]) / partitionSize + 1;
+                  run.totalPartitions = partitions;
+                  pool.invoke(new RangeTask(run, bounds[0], 0, partitions));
+                });
+        writeSummary(run, writer);
+      }
+      run.finish(ReconciliationProgressDTO.Status.COMPLETED, null);
+      log.info(
+          "Reconciliation checked {} accounts, {} mismatches, report {}",
+          run.accountsChecked.sum(),
+          run.mismatches.sum(),
+          run.reportPath);
+    } catch (IOException e) {
+      run.finish(ReconciliationProgressDTO.Status.FAILED, e.getMessage());
+      log.error("Reconciliation failed", e);
+    } catch (RuntimeException e) {
+      run.finish(ReconciliationProgressDTO.Status.FAILED, String.valueOf(e.getMessage()));
+      log.error("Reconciliation failed", e);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private void writeSummary(Run run, BufferedWriter writer) throws IOException {
+    writer.newLine();
+    writer.write("currency,balance_total,history_total,conserved");
+    writer.newLine();
+    for (CurrencyTotalDTO total : run.currencyTotals()) {
+      writer.write(
+          total.getCurrency()
+              + ","
+              + total.getBalanceTotal()
+              + ","
+              + total.getHistoryTotal()
+              + ","
+              + total.isConserved());
+      writer.newLine();
+    }
+  }
+
+  private void reconcileRange(Run run, long fromId, long toIdExclusive) {
+    reconciliationRepository.streamRange(
+        fromId,
+        toIdExclusive,
+        new ReconciliationRepository.RangeConsumer() {
+          private List<ArchivedSegment> archived = List.of();
+
+          @Override
+          public void begin(List<ArchivedSegment> archived) {
+            this.archived = archived;
+          }
+
+          @Override
+          public void account(
+              long accountId, AccountCurrency currency, long balance, long historyTotal) {
+            long expected = historyTotal + balanceHistoryReader.sumArchived(accountId, archived);
+            run.accountsChecked.increment();
+            run.balanceTotals.get(currency).add(balance);
+            run.historyTotals.get(currency).add(expected);
+            if (balance != expected) {
+              run.mismatches.increment();
+              run.reportMismatch(accountId, currency, balance, expected);
+            }
+          }
+        });
+    run.completedPartitions.increment();
+    if (partitionPauseMillis > 0) {
+      try {
+        Thread.sleep(partitionPauseMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private class RangeTask extends RecursiveAction {
+    private final Run run;
+    private final long baseId;
+    private final long firstPartition;
+    private final long endPartition;
+
+    RangeTask(Run run, long baseId, long firstPartition, long endPartition) {
+      this.run = run;
+      this.baseId = baseId;
+      this.firstPartition = firstPartition;
+      this.endPartition = endPartition;
+    }
+
+    @Override
+    protected void compute() {
+      if (endPartition - firstPartition == 1) {
+        long fromId = baseId + firstPartition * partitionSize;
+        reconcileRange(run, fromId, fromId + partitionSize);
+        return;
+      }
+      long middle = (firstPartition + endPartition) >>> 1;
+      invokeAll(
+          new RangeTask(run, baseId, firstPartition, middle),
+          new RangeTask(run, baseId, middle, endPartition));
+    }
+  }
+
+  private static class Run {
+    private final Instant startedAt;
+    private final LongAdder completedPartitions = new LongAdder();
+    private final LongAdder accountsChecked = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+    private final Map<AccountCurrency, LongAdder> balanceTotals =
+        new EnumMap<>(AccountCurrency.class);
+    private final Map<AccountCurrency, LongAdder> historyTotals =
+        new EnumMap<>(AccountCurrency.class);
+    private volatile long totalPartitions;
+    private volatile ReconciliationProgressDTO.Status status =
+        ReconciliationProgressDTO.Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String reportPath;
+    private volatile String error;
+    private BufferedWriter report;
+
+    Run(Instant startedAt) {
+      this.startedAt = startedAt;
+      for (AccountCurrency currency : AccountCurrency.values()) {
+        balanceTotals.put(currency, new LongAdder());
+        historyTotals.put(currency, new LongAdder());
+      }
+    }
+
+    synchronized void reportMismatch(
+        long accountId, AccountCurrency currency, long balance, long expected) {
+      try {
+        report.write(
+            accountId + "," + currency + "," + balance + "," + expected + "," + (balance - expected));
+        report.newLine();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    void finish(ReconciliationProgressDTO.Status status, String error) {
+      this.error = error;
+      this.finishedAt = Instant.now();
+      this.status = status;
+    }
+
+    List<CurrencyTotalDTO> currencyTotals() {
+      List<CurrencyTotalDTO> totals = new ArrayList<>();
+      for (AccountCurrency currency : AccountCurrency.values()) {
+        totals.add(
+            new CurrencyTotalDTO(
+                currency, balanceTotals.get(currency).sum(), historyTotals.get(currency).sum()));
+      }
+      return totals;
+    }
+
+    ReconciliationProgressDTO toDTO() {
+      return new ReconciliationProgressDTO(
+          status,
+          startedAt,
+          finishedAt,
+          totalPartitions,
+          completedPartitions.sum(),
+          accountsChecked.sum(),
+          mismatches.sum(),
+          reportPath,
+          currencyTotals(),
+          error);
+    }
+  }
+}
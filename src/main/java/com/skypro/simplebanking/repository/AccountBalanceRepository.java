@@ -0,0 +1,80 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.util.LongLongHashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based balance updates that bypass the persistence context. Callers must not hold managed
+ * {@code Account} instances for the same rows in the current transaction. Code that changes a
+ * balance through JPA instead must load the account with a {@code PESSIMISTIC_WRITE} lock, as
+ * {@link AccountRepository#findForUpdateByUser_IdAndId} does; a plain read-modify-write would
+ * overwrite a delta committed here in between and lose it.
+ */
+@Repository
+public class AccountBalanceRepository {
+  private static final String APPLY_DELTA =
+      "update accounts set amount = amount + ? where id = ? and amount + ? >= 0";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public AccountBalanceRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Applies every delta in one JDBC batch, in ascending account id order so that concurrent
+   * batches always lock rows in the same order. Returns {@code false} if any row was not updated
+   * because it is missing or would go negative; the caller is expected to roll back then.
+   */
+  public boolean applyDeltas(SortedMap<Long, Long> deltasByAccountId) {
+    List<Object[]> arguments = new ArrayList<>(deltasByAccountId.size());
+    for (Map.Entry<Long, Long> delta : deltasByAccountId.entrySet()) {
+      arguments.add(new Object[] {delta.getValue(), delta.getKey(), delta.getValue()});
+    }
+    return applyBatch(arguments);
+  }
+
+  /** Same as {@link #applyDeltas(SortedMap)} for ids already sorted in ascending order. */
+  public boolean applyDeltas(long[] sortedAccountIds, long[] deltas) {
+    List<Object[]> arguments = new ArrayList<>(sortedAccountIds.length);
+    for (int i = 0; i < sortedAccountIds.length; i++) {
+      arguments.add(new Object[] {deltas[i], sortedAccountIds[i], deltas[i]});
+    }
+    return applyBatch(arguments);
+  }
+
+  /** Locks the rows in ascending id order and returns their current balances. */
+  public LongLongHashMap lockBalances(Collection<Long> accountIds) {
+    LongLongHashMap balances = new LongLongHashMap(accountIds.size());
+    if (accountIds.isEmpty()) {
+      return balances;
+    }
+    String placeholders = String.join(", ", Collections.nCopies(accountIds.size(), "?"));
+    jdbcTemplate.query(
+        "select id, amount from accounts where id in ("
+            + placeholders
+            + ") order by id for update",
+        (RowCallbackHandler)
+            resultSet -> balances.put(resultSet.getLong("id"), resultSet.getLong("amount")),
+        accountIds.toArray());
+    return balances;
+  }
+
+  private boolean applyBatch(List<Object[]> arguments) {
+    int[] updated = jdbcTemplate.batchUpdate(APPLY_DELTA, arguments);
+    for (int count : updated) {
+      if (count == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
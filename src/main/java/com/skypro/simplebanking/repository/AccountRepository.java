@@ -1,15 +1,67 @@
 package com.skypro.simplebanking.repository;
 
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.AccountOwnership;
+import com.skypro.simplebanking.dto.CurrencyAggregate;
 import com.skypro.simplebanking.entity.Account;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import javax.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
   Optional<Account> getAccountByUser_IdAndId(Long userId, Long accountId);
 
+  /**
+   * Locks the account for a read-modify-write of its balance, which would otherwise race with
+   * the set-based updates of {@link AccountBalanceRepository}.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<Account> findForUpdateByUser_IdAndId(Long userId, Long accountId);
+
+  /** Locks the accounts in id order, so that transactions locking several never deadlock. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select a from Account a where a.id in :ids order by a.id")
+  List<Account> findAllForUpdateByIdIn(@Param("ids") Collection<Long> ids);
+
   Collection<Account> findByUserId(Long userId);
+
+  @Query(
+      "select new com.skypro.simplebanking.dto.AccountOwnership(a.id, a.user.id, a.accountCurrency)"
+          + " from Account a where a.id in :ids")
+  List<AccountOwnership> findOwnershipByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Query(
+      "select new com.skypro.simplebanking.dto.AccountDTO(a.id, a.amount, a.accountCurrency)"
+          + " from Account a where a.user.id = :userId and a.id = :accountId")
+  Optional<AccountDTO> findAccountDTO(
+      @Param("userId") long userId, @Param("accountId") long accountId);
+
+  @Query(
+      "select new com.skypro.simplebanking.dto.AccountDTO(a.id, a.amount, a.accountCurrency)"
+          + " from Account a where a.user.id = :userId and a.id in :ids")
+  List<AccountDTO> findAccountDTOsByUserIdAndIdIn(
+      @Param("userId") long userId, @Param("ids") Collection<Long> ids);
+
+  @Query(
+      "select new com.skypro.simplebanking.dto.AccountDTO(a.id, a.amount, a.accountCurrency)"
+          + " from Account a where a.user.id = :userId order by a.id")
+  List<AccountDTO> findAccountDTOsByUserId(@Param("userId") long userId);
+
+  @Query(
+      "select new com.skypro.simplebanking.dto.AccountOwnership(a.id, a.user.id, a.accountCurrency)"
+          + " from Account a order by a.user.id, a.id")
+  List<AccountOwnership> findAllOwnership();
+
+  @Query(
+      "select new com.skypro.simplebanking.dto.CurrencyAggregate(a.accountCurrency, count(a),"
+          + " sum(a.amount)) from Account a group by a.accountCurrency")
+  List<CurrencyAggregate> aggregateByCurrency();
 }
@@ -0,0 +1,178 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.dto.BalanceChangeDTO;
+import com.skypro.simplebanking.entity.BalanceChangeKind;
+import com.skypro.simplebanking.history.ArchivedSegment;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class BalanceHistoryRepository {
+  private static final long CHECKPOINT_LOCK_KEY = 0x62616c636b70L;
+  private static final String INSERT_CHANGE =
+      "insert into balance_changes (account_id, delta, kind, created_at) values (?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JdbcTemplate streamingJdbcTemplate;
+
+  public BalanceHistoryRepository(
+      JdbcTemplate jdbcTemplate,
+      DataSource dataSource,
+      @Value("${app.statement.fetch-size:1000}") int streamingFetchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+    this.streamingJdbcTemplate.setFetchSize(streamingFetchSize);
+  }
+
+  public void record(long accountId, long delta, BalanceChangeKind kind) {
+    jdbcTemplate.update(
+        INSERT_CHANGE, accountId, delta, kind.name(), Timestamp.from(Instant.now()));
+  }
+
+  public void recordAll(List<BalanceChangeDTO> changes) {
+    List<Object[]> arguments = new ArrayList<>(changes.size());
+    for (BalanceChangeDTO change : changes) {
+      arguments.add(
+          new Object[] {
+            change.getAccountId(),
+            change.getDelta(),
+            change.getKind().name(),
+            Timestamp.from(change.getCreatedAt())
+          });
+    }
+    jdbcTemplate.batchUpdate(INSERT_CHANGE, arguments);
+  }
+
+  public Optional<Checkpoint> findLatestCheckpoint(long accountId, Instant at) {
+    return jdbcTemplate
+        .query(
+            "select taken_at, balance from balance_checkpoints"
+                + " where account_id = ? and taken_at <= ? order by taken_at desc limit 1",
+            (resultSet, rowNum) ->
+                new Checkpoint(
+                    resultSet.getTimestamp("taken_at").toInstant(), resultSet.getLong("balance")),
+            accountId,
+            Timestamp.from(at))
+        .stream()
+        .findFirst();
+  }
+
+  /** Sums the changes in {@code (from, to]} that are not covered by the given archived ranges. */
+  public long sumChanges(
+      long accountId,
+      Instant fromExclusive,
+      Instant toInclusive,
+      List<ArchivedSegment> archived) {
+    List<Object> arguments = new ArrayList<>();
+    String sql =
+        "select coalesce(sum(delta), 0) from balance_changes"
+            + changesCondition(accountId, fromExclusive, toInclusive, archived, arguments);
+    Long sum = jdbcTemplate.queryForObject(sql, Long.class, arguments.toArray());
+    return sum == null ? 0L : sum;
+  }
+
+  /**
+   * Streams the changes in {@code (from, to]} that are not covered by the given archived ranges in
+   * chronological order; must run inside a transaction for the cursor to be used.
+   */
+  public void forEachChange(
+      long accountId,
+      Instant fromExclusive,
+      Instant toInclusive,
+      List<ArchivedSegment> archived,
+      Consumer<BalanceChangeDTO> consumer) {
+    List<Object> arguments = new ArrayList<>();
+    String sql =
+        "select delta, kind, created_at from balance_changes"
+            + changesCondition(accountId, fromExclusive, toInclusive, archived, arguments)
+            + " order by created_at, id";
+    streamingJdbcTemplate.query(
+        sql,
+        (RowCallbackHandler)
+            resultSet ->
+                consumer.accept(
+                    new BalanceChangeDTO(
+                        accountId,
+                        resultSet.getLong("delta"),
+                        BalanceChangeKind.valueOf(resultSet.getString("kind")),
+                        resultSet.getTimestamp("created_at").toInstant())),
+        arguments.toArray());
+  }
+
+  private static String changesCondition(
+      long accountId,
+      Instant fromExclusive,
+      Instant toInclusive,
+      List<ArchivedSegment> archived,
+      List<Object> arguments) {
+    StringBuilder condition =
+        new StringBuilder(" where account_id = ? and created_at > ? and created_at <= ?");
+    arguments.add(accountId);
+    arguments.add(Timestamp.from(fromExclusive));
+    arguments.add(Timestamp.from(toInclusive));
+    for (ArchivedSegment segment : archived) {
+      condition.append(" and not (created_at >= ? and created_at < ?)");
+      arguments.add(Timestamp.from(segment.getRangeStart()));
+      arguments.add(Timestamp.from(segment.getRangeEnd()));
+    }
+    return condition.toString();
+  }
+
+  public Optional<Instant> findLatestCheckpointTime() {
+    Timestamp latest =
+        jdbcTemplate.queryForObject("select max(taken_at) from balance_checkpoints", Timestamp.class);
+    return Optional.ofNullable(latest).map(Timestamp::toInstant);
+  }
+
+  /** Serializes checkpoint writers across instances until the current transaction ends. */
+  public boolean tryLockCheckpoints() {
+    return Boolean.TRUE.equals(
+        jdbcTemplate.queryForObject(
+            "select pg_try_advisory_xact_lock(?)", Boolean.class, CHECKPOINT_LOCK_KEY));
+  }
+
+  /**
+   * Writes a checkpoint at {@code cutoff} for every account that changed in {@code (from,
+   * cutoff]}, carrying its previous checkpoint forward. Accounts without changes keep their last
+   * checkpoint, which is still exact for them.
+   */
+  public int writeCheckpoints(Instant from, Instant cutoff) {
+    return jdbcTemplate.update(
+        "insert into balance_checkpoints (account_id, taken_at, balance)"
+            + " select c.account_id, ?, coalesce(p.balance, 0) + c.total"
+            + " from (select account_id, sum(delta) as total from balance_changes"
+            + "   where created_at > ? and created_at <= ? group by account_id) c"
+            + " left join lateral (select balance from balance_checkpoints"
+            + "   where account_id = c.account_id order by taken_at desc limit 1) p on true",
+        Timestamp.from(cutoff),
+        Timestamp.from(from),
+        Timestamp.from(cutoff));
+  }
+
+  public static class Checkpoint {
+    private final Instant takenAt;
+    private final long balance;
+
+    public Checkpoint(Instant takenAt, long balance) {
+      this.takenAt = takenAt;
+      this.balance = balance;
+    }
+
+    public Instant getTakenAt() {
+      return takenAt;
+    }
+
+    public long getBalance() {
+      return balance;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class CurrencyMetricsRepository {
+  private final JdbcTemplate jdbcTemplate;
+
+  public CurrencyMetricsRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /** Returns the shared {deposit, withdrawal, transfer volume, transfer count} per currency. */
+  public Map<AccountCurrency, long[]> findCheckpoints() {
+    Map<AccountCurrency, long[]> checkpoints = new EnumMap<>(AccountCurrency.class);
+    jdbcTemplate.query(
+        "select currency, deposit_total, withdrawal_total, transfer_volume, transfer_count"
+            + " from currency_metrics_checkpoints",
+        (RowCallbackHandler)
+            resultSet ->
+                checkpoints.put(
+                    AccountCurrency.valueOf(resultSet.getString("currency")),
+                    readTotals(resultSet)));
+    return checkpoints;
+  }
+
+  /**
+   * Adds this instance's flows since its previous checkpoint to the shared totals and returns the
+   * totals after the update. Every instance writes only its own increments, so concurrent
+   * checkpoints from several instances add up instead of overwriting each other.
+   */
+  public Map<AccountCurrency, long[]> addToCheckpoints(
+      Instant takenAt, Map<AccountCurrency, long[]> deltas) {
+    Map<AccountCurrency, long[]> totals = new EnumMap<>(AccountCurrency.class);
+    if (deltas.isEmpty()) {
+      return totals;
+    }
+    StringBuilder sql =
+        new StringBuilder(
+            "insert into currency_metrics_checkpoints (currency, taken_at, deposit_total,"
+                + " withdrawal_total, transfer_volume, transfer_count) values ");
+    List<Object> arguments = new ArrayList<>(deltas.size() * 6);
+    for (Map.Entry<AccountCurrency, long[]> entry : deltas.entrySet()) {
+      long[] values = entry.getValue();
+      sql.append(arguments.isEmpty() ? "" : ", ").append("(?, ?, ?, ?, ?, ?)");
+      arguments.add(entry.getKey().name());
+      arguments.add(Timestamp.from(takenAt));
+      for (long value : values) {
+        arguments.add(value);
+      }
+    }
+    sql.append(
+        " on conflict (currency) do update set taken_at = excluded.taken_at,"
+            + " deposit_total = currency_metrics_checkpoints.deposit_total"
+            + " + excluded.deposit_total,"
+            + " withdrawal_total = currency_metrics_checkpoints.withdrawal_total"
+            + " + excluded.withdrawal_total,"
+            + " transfer_volume = currency_metrics_checkpoints.transfer_volume"
+            + " + excluded.transfer_volume,"
+            + " transfer_count = currency_metrics_checkpoints.transfer_count"
+            + " + excluded.transfer_count"
+            + " returning currency, deposit_total, withdrawal_total, transfer_volume,"
+            + " transfer_count");
+    jdbcTemplate.query(
+        sql.toString(),
+        (RowCallbackHandler)
+            resultSet ->
+                totals.put(
+                    AccountCurrency.valueOf(resultSet.getString("currency")),
+                    readTotals(resultSet)),
+        arguments.toArray());
+    return totals;
+  }
+
+  private static long[] readTotals(ResultSet resultSet) throws SQLException {
+    return new long[] {
+      resultSet.getLong("deposit_total"),
+      resultSet.getLong("withdrawal_total"),
+      resultSet.getLong("transfer_volume"),
+      resultSet.getLong("transfer_count")
+    };
+  }
+}
@@ -0,0 +1,75 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.history.HistoryPartitions;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class HistoryPartitionRepository {
+  private static final int ARCHIVE_FETCH_SIZE = 10_000;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JdbcTemplate streamingJdbcTemplate;
+
+  public HistoryPartitionRepository(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+    this.streamingJdbcTemplate.setFetchSize(ARCHIVE_FETCH_SIZE);
+  }
+
+  public void createPartition(YearMonth month) {
+    jdbcTemplate.execute(
+        "create table if not exists "
+            + HistoryPartitions.nameOf(month)
+            + " partition of "
+            + HistoryPartitions.PARENT_TABLE
+            + " for values from ('"
+            + HistoryPartitions.startOf(month)
+            + "') to ('"
+            + HistoryPartitions.endOf(month)
+            + "')");
+  }
+
+  public List<String> findAttachedPartitions() {
+    return jdbcTemplate.queryForList(
+        "select child.relname from pg_inherits i"
+            + " join pg_class child on child.oid = i.inhrelid"
+            + " join pg_class parent on parent.oid = i.inhparent"
+            + " where parent.relname = ? order by child.relname",
+        String.class,
+        HistoryPartitions.PARENT_TABLE);
+  }
+
+  public boolean defaultPartitionHasRows(Instant rangeStart, Instant rangeEnd) {
+    return Boolean.TRUE.equals(
+        jdbcTemplate.queryForObject(
+            "select exists (select 1 from "
+                + HistoryPartitions.DEFAULT_PARTITION
+                + " where created_at >= ? and created_at < ?)",
+            Boolean.class,
+            Timestamp.from(rangeStart),
+            Timestamp.from(rangeEnd)));
+  }
+
+  /** Streams a partition ordered as segments expect; must run inside a transaction. */
+  public void streamPartition(YearMonth month, RowCallbackHandler handler) {
+    streamingJdbcTemplate.query(
+        "select id, account_id, created_at, delta, kind from "
+            + HistoryPartitions.nameOf(month)
+            + " order by account_id, created_at, id",
+        handler);
+  }
+
+  public void detachAndDrop(YearMonth month) {
+    String partition = HistoryPartitions.nameOf(month);
+    jdbcTemplate.execute(
+        "alter table " + HistoryPartitions.PARENT_TABLE + " detach partition " + partition);
+    jdbcTemplate.execute("drop table " + partition);
+  }
+}
@@ -0,0 +1,100 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.history.ArchivedSegment;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class HistorySegmentRepository {
+  private static final long ARCHIVE_LOCK_KEY = 0x6869737461726368L;
+  private static final String SELECT =
+      "select partition_name, range_start, range_end, file_path, archived_at, partition_dropped"
+          + " from history_segments";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public HistorySegmentRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public List<ArchivedSegment> findAll() {
+    return jdbcTemplate.query(SELECT + " order by range_start", HistorySegmentRepository::map);
+  }
+
+  public List<ArchivedSegment> findOverlapping(Instant fromExclusive, Instant toInclusive) {
+    return jdbcTemplate.query(
+        SELECT + " where range_end > ? and range_start <= ? order by range_start",
+        HistorySegmentRepository::map,
+        Timestamp.from(fromExclusive),
+        Timestamp.from(toInclusive));
+  }
+
+  public void register(
+      String partitionName, Instant rangeStart, Instant rangeEnd, String filePath, long rowCount) {
+    jdbcTemplate.update(
+        "insert into history_segments"
+            + " (partition_name, range_start, range_end, file_path, row_count, archived_at)"
+            + " values (?, ?, ?, ?, ?, ?) on conflict (partition_name) do nothing",
+        partitionName,
+        Timestamp.from(rangeStart),
+        Timestamp.from(rangeEnd),
+        filePath,
+        rowCount,
+        Timestamp.from(Instant.now()));
+  }
+
+  public void markPartitionDropped(String partitionName) {
+    jdbcTemplate.update(
+        "update history_segments set partition_dropped = true where partition_name = ?",
+        partitionName);
+  }
+
+  /**
+   * Runs the work while this instance holds the archiving lock, which serializes archivers
+   * across instances. Returns {@code false} without running it if another instance holds it.
+   */
+  public boolean runWithArchiveLock(Runnable work) {
+    return Boolean.TRUE.equals(
+        jdbcTemplate.execute(
+            (ConnectionCallback<Boolean>)
+                connection -> {
+                  if (!advisoryLock(connection, "select pg_try_advisory_lock(?)")) {
+                    return false;
+                  }
+                  try {
+                    work.run();
+                  } finally {
+                    advisoryLock(connection, "select pg_advisory_unlock(?)");
+                  }
+                  return true;
+                }));
+  }
+
+  private static boolean advisoryLock(Connection connection, String sql)
+      throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setLong(1, ARCHIVE_LOCK_KEY);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next() && resultSet.getBoolean(1);
+      }
+    }
+  }
+
+  private static ArchivedSegment map(ResultSet resultSet, int rowNum) throws SQLException {
+    return new ArchivedSegment(
+        resultSet.getString("partition_name"),
+        resultSet.getTimestamp("range_start").toInstant(),
+        resultSet.getTimestamp("range_end").toInstant(),
+        resultSet.getString("file_path"),
+        resultSet.getTimestamp("archived_at").toInstant(),
+        resultSet.getBoolean("partition_dropped"));
+  }
+}
@@ -0,0 +1,138 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.history.ArchivedSegment;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Streams accounts together with their recorded history on a dedicated read-only connection. Each
+ * id range is read in one repeatable-read snapshot, so balances, history and the archive registry
+ * are consistent with each other, and through a cursor with a bounded fetch size.
+ */
+@Repository
+public class ReconciliationRepository {
+  private static final AccountCurrency[] CURRENCIES = AccountCurrency.values();
+
+  private final DataSource dataSource;
+  private final int fetchSize;
+
+  public ReconciliationRepository(
+      DataSource dataSource, @Value("${app.reconciliation.fetch-size:1000}") int fetchSize) {
+    this.dataSource = dataSource;
+    this.fetchSize = fetchSize;
+  }
+
+  public interface RangeConsumer {
+    void begin(List<ArchivedSegment> archived);
+
+    void account(long accountId, AccountCurrency currency, long balance, long historyTotal);
+  }
+
+  /** Returns the smallest and largest account id, or nothing if there are no accounts. */
+  public Optional<long[]> findIdBounds() {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement =
+            connection.prepareStatement("select min(id), max(id) from accounts");
+        ResultSet resultSet = statement.executeQuery()) {
+      resultSet.next();
+      long minId = resultSet.getLong(1);
+      if (resultSet.wasNull()) {
+        return Optional.empty();
+      }
+      return Optional.of(new long[] {minId, resultSet.getLong(2)});
+    } catch (SQLException e) {
+      throw new DataAccessResourceFailureException("Cannot read account id bounds", e);
+    }
+  }
+
+  public void streamRange(long fromId, long toIdExclusive, RangeConsumer consumer) {
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setReadOnly(true);
+      connection.setAutoCommit(false);
+      connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+      try {
+        List<ArchivedSegment> archived = findArchived(connection);
+        consumer.begin(archived);
+        streamAccounts(connection, fromId, toIdExclusive, archived, consumer);
+      } finally {
+        connection.rollback();
+      }
+    } catch (SQLException e) {
+      throw new DataAccessResourceFailureException(
+          "Cannot reconcile accounts " + fromId + ".." + toIdExclusive, e);
+    }
+  }
+
+  private void streamAccounts(
+      Connection connection,
+      long fromId,
+      long toIdExclusive,
+      List<ArchivedSegment> archived,
+      RangeConsumer consumer)
+      throws SQLException {
+    StringBuilder sql =
+        new StringBuilder(
+            "select a.id, a.account_currency, a.amount, coalesce(h.total, 0) as history_total"
+                + " from accounts a left join (select account_id, sum(delta) as total"
+                + " from balance_changes where account_id >= ? and account_id < ?");
+    for (int i = 0; i < archived.size(); i++) {
+      sql.append(" and not (created_at >= ? and created_at < ?)");
+    }
+    sql.append(
+        " group by account_id) h on h.account_id = a.id"
+            + " where a.id >= ? and a.id < ? order by a.id");
+    try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+      statement.setFetchSize(fetchSize);
+      int parameter = 1;
+      statement.setLong(parameter++, fromId);
+      statement.setLong(parameter++, toIdExclusive);
+      for (ArchivedSegment segment : archived) {
+        statement.setTimestamp(parameter++, Timestamp.from(segment.getRangeStart()));
+        statement.setTimestamp(parameter++, Timestamp.from(segment.getRangeEnd()));
+      }
+      statement.setLong(parameter++, fromId);
+      statement.setLong(parameter, toIdExclusive);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          consumer.account(
+              resultSet.getLong("id"),
+              CURRENCIES[resultSet.getInt("account_currency")],
+              resultSet.getLong("amount"),
+              resultSet.getLong("history_total"));
+        }
+      }
+    }
+  }
+
+  private static List<ArchivedSegment> findArchived(Connection connection) throws SQLException {
+    List<ArchivedSegment> archived = new ArrayList<>();
+    try (PreparedStatement statement =
+            connection.prepareStatement(
+                "select partition_name, range_start, range_end, file_path, archived_at,"
+                    + " partition_dropped from history_segments order by range_start");
+        ResultSet resultSet = statement.executeQuery()) {
+      while (resultSet.next()) {
+        archived.add(
+            new ArchivedSegment(
+                resultSet.getString("partition_name"),
+                resultSet.getTimestamp("range_start").toInstant(),
+                resultSet.getTimestamp("range_end").toInstant(),
+                resultSet.getString("file_path"),
+                resultSet.getTimestamp("archived_at").toInstant(),
+                resultSet.getBoolean("partition_dropped")));
+      }
+    }
+    return archived;
+  }
+}
@@ -0,0 +1,25 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.entity.ScheduledTransfer;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransfer, Long> {
+  List<ScheduledTransfer> findByUserIdOrderById(Long userId);
+
+  Optional<ScheduledTransfer> findByIdAndUserId(Long id, Long userId);
+
+  List<ScheduledTransfer> findByActiveTrueAndNextExecutionBefore(Instant until);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select s from ScheduledTransfer s where s.id = :id")
+  Optional<ScheduledTransfer> findForExecution(@Param("id") Long id);
+}
@@ -0,0 +1,56 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.fx.FxQuote;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class TransferRecordRepository {
+  private static final String INSERT =
+      "insert into transfer_records (from_account_id, to_account_id, amount, to_amount, fx_rate,"
+          + " fx_version, netted, created_at) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public TransferRecordRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public void insert(TransferRequest transfer, FxQuote quote) {
+    jdbcTemplate.update(
+        INSERT,
+        transfer.getFromAccountId(),
+        transfer.getToAccountId(),
+        transfer.getAmount(),
+        quote.getToAmount(),
+        quote.getRate(),
+        quote.getVersion(),
+        false,
+        Timestamp.from(Instant.now()));
+  }
+
+  /** Records transfers between accounts of the same currency. */
+  public void insertAll(List<TransferRequest> transfers, boolean netted) {
+    Timestamp createdAt = Timestamp.from(Instant.now());
+    List<Object[]> arguments = new ArrayList<>(transfers.size());
+    for (TransferRequest transfer : transfers) {
+      arguments.add(
+          new Object[] {
+            transfer.getFromAccountId(),
+            transfer.getToAccountId(),
+            transfer.getAmount(),
+            transfer.getAmount(),
+            null,
+            null,
+            netted,
+            createdAt
+          });
+    }
+    jdbcTemplate.batchUpdate(INSERT, arguments);
+  }
+}
@@ -0,0 +1,110 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.dto.TransferSaga;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.fx.FxQuote;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class TransferSagaRepository {
+  public static final String DEBITED = "DEBITED";
+  public static final String COMPLETED = "COMPLETED";
+  public static final String COMPENSATED = "COMPENSATED";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public TransferSagaRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public TransferSaga insert(long fromUserId, TransferRequest transfer, FxQuote quote) {
+    Timestamp now = Timestamp.from(Instant.now());
+    Long id =
+        jdbcTemplate.queryForObject(
+            "insert into transfer_sagas (from_user_id, from_account_id, to_user_id,"
+                + " to_account_id, amount, currency, to_currency, to_amount, fx_rate, fx_version,"
+                + " state, created_at, updated_at)"
+                + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) returning id",
+            Long.class,
+            fromUserId,
+            transfer.getFromAccountId(),
+            transfer.getToUserId(),
+            transfer.getToAccountId(),
+            transfer.getAmount(),
+            quote.getFromCurrency().name(),
+            quote.getToCurrency().name(),
+            quote.getToAmount(),
+            quote.getRate(),
+            quote.getVersion(),
+            DEBITED,
+            now,
+            now);
+    return new TransferSaga(
+        id,
+        fromUserId,
+        transfer.getFromAccountId(),
+        transfer.getToUserId(),
+        transfer.getToAccountId(),
+        transfer.getAmount(),
+        quote.getFromCurrency(),
+        quote.getToCurrency(),
+        quote.getToAmount(),
+        quote.getRate(),
+        quote.getVersion());
+  }
+
+  /** Moves a saga out of the debited state; returns false if another run already finished it. */
+  public boolean finish(long sagaId, String state, String error) {
+    return jdbcTemplate.update(
+            "update transfer_sagas set state = ?, error = ?, updated_at = ?"
+                + " where id = ? and state = ?",
+            state,
+            error,
+            Timestamp.from(Instant.now()),
+            sagaId,
+            DEBITED)
+        == 1;
+  }
+
+  public List<TransferSaga> findDebitedBefore(Instant before, int limit) {
+    return jdbcTemplate.query(
+        "select id, from_user_id, from_account_id, to_user_id, to_account_id, amount, currency,"
+            + " to_currency, to_amount, fx_rate, fx_version"
+            + " from transfer_sagas where state = ? and updated_at < ? order by updated_at limit ?",
+        (resultSet, rowNum) ->
+            new TransferSaga(
+                resultSet.getLong("id"),
+                resultSet.getLong("from_user_id"),
+                resultSet.getLong("from_account_id"),
+                resultSet.getLong("to_user_id"),
+                resultSet.getLong("to_account_id"),
+                resultSet.getLong("amount"),
+                AccountCurrency.valueOf(resultSet.getString("currency")),
+                AccountCurrency.valueOf(resultSet.getString("to_currency")),
+                resultSet.getLong("to_amount"),
+                resultSet.getBigDecimal("fx_rate"),
+                resultSet.getObject("fx_version", Long.class)),
+        DEBITED,
+        Timestamp.from(before),
+        limit);
+  }
+
+  /**
+   * Records on the recipient's shard that the saga's credit is being applied. Returns false if it
+   * was applied before, which makes retrying the credit safe.
+   */
+  public boolean recordCredit(int sourceShard, long sagaId) {
+    return jdbcTemplate.update(
+            "insert into transfer_saga_credits (source_shard, saga_id, created_at)"
+                + " values (?, ?, ?) on conflict do nothing",
+            sourceShard,
+            sagaId,
+            Timestamp.from(Instant.now()))
+        == 1;
+  }
+}
@@ -1,11 +1,31 @@
 package com.skypro.simplebanking.repository;
 
+import com.skypro.simplebanking.dto.BankingUserDetails;
+import com.skypro.simplebanking.dto.UserSummary;
 import com.skypro.simplebanking.entity.User;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
   Optional<User> findByUsername(String username);
+
+  @Query(
+      "select new com.skypro.simplebanking.dto.BankingUserDetails(u.id, u.username, u.password,"
+          + " false) from User u where u.username = :username")
+  Optional<BankingUserDetails> findUserDetailsByUsername(@Param("username") String username);
+
+  @Query(
+      "select new com.skypro.simplebanking.dto.UserSummary(u.id, u.username) from User u"
+          + " where u.id = :id")
+  Optional<UserSummary> findSummaryById(@Param("id") long id);
+
+  @Query(
+      "select new com.skypro.simplebanking.dto.UserSummary(u.id, u.username) from User u"
+          + " order by u.id")
+  List<UserSummary> findAllSummaries();
 }
@@ -0,0 +1,59 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.dto.UserSummary;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class UserSearchRepository {
+  /**
+   * The order of {@code collate "C"} on a UTF-8 database, which compares by code point. Results
+   * merged from several shards and the in-memory index use it, so pages cut the same way
+   * everywhere.
+   */
+  public static final Comparator<String> CODE_POINT_ORDER = UserSearchRepository::compareCodePoints;
+
+  public static final Comparator<UserSummary> USERNAME_ORDER =
+      Comparator.comparing(UserSummary::getUsername, CODE_POINT_ORDER);
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public UserSearchRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Served by the {@code collate "C"} index on username, which supports both the prefix pattern
+   * and the order, independently of the database's default collation.
+   */
+  public List<UserSummary> findByPrefix(String prefix, int limit) {
+    return jdbcTemplate.query(
+        "select id, username from users where username collate \"C\" like ? escape '\\'"
+            + " order by username collate \"C\" limit ?",
+        (resultSet, rowNum) ->
+            new UserSummary(resultSet.getLong("id"), resultSet.getString("username")),
+        escapeLike(prefix) + "%",
+        limit);
+  }
+
+  private static int compareCodePoints(String left, String right) {
+    int i = 0;
+    int j = 0;
+    while (i < left.length() && j < right.length()) {
+      int leftCodePoint = left.codePointAt(i);
+      int rightCodePoint = right.codePointAt(j);
+      if (leftCodePoint != rightCodePoint) {
+        return Integer.compare(leftCodePoint, rightCodePoint);
+      }
+      i += Character.charCount(leftCodePoint);
+      j += Character.charCount(rightCodePoint);
+    }
+    return Integer.compare(left.length() - i, right.length() - j);
+  }
+
+  private static String escapeLike(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -0,0 +1,40 @@
+package com.skypro.simplebanking.repository;
+
+import java.util.Optional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class UserWriteRepository {
+  private final JdbcTemplate jdbcTemplate;
+
+  public UserWriteRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Inserts the user unless the username is taken, in one statement that the unique index makes
+   * safe against concurrent creations. Returns the new id, or nothing if the name already exists.
+   * The id is the sequence value spread over the shards, {@code value * shardCount + shard}, so
+   * the owning shard can be computed from it; with one shard it is the sequence value itself.
+   */
+  public Optional<Long> insertIfAbsent(
+      String username, String password, int shard, int shardCount) {
+    return jdbcTemplate
+        .queryForList(
+            "insert into users (id, username, password)"
+                + " values (nextval('user_sequence') * ? + ?, ?, ?)"
+                + " on conflict (username) do nothing returning id",
+            Long.class,
+            shardCount,
+            shard,
+            username,
+            password)
+        .stream()
+        .findFirst();
+  }
+
+  public void updatePassword(String username, String password) {
+    jdbcTemplate.update("update users set password = ? where username = ?", password, username);
+  }
+}
@@ -0,0 +1,64 @@
+package com.skypro.simplebanking.scheduling;
+
+import com.skypro.simplebanking.repository.BalanceHistoryRepository;
+import com.skypro.simplebanking.sharding.ShardRouter;
+import java.time.Duration;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically writes per-account balance checkpoints, so a point-in-time balance never replays
+ * more than one checkpoint interval of history. The cutoff trails the clock by a safety lag to
+ * leave in-flight transactions time to commit their changes.
+ */
+@Component
+@Lazy(false)
+public class BalanceCheckpointJob {
+  private static final Logger log = LoggerFactory.getLogger(BalanceCheckpointJob.class);
+
+  private final BalanceHistoryRepository balanceHistoryRepository;
+  private final ShardRouter shardRouter;
+  private final Duration lag;
+
+  public BalanceCheckpointJob(
+      BalanceHistoryRepository balanceHistoryRepository,
+      ShardRouter shardRouter,
+      @Value("${app.history.checkpoint-lag:5m}") Duration lag) {
+    this.balanceHistoryRepository = balanceHistoryRepository;
+    this.shardRouter = shardRouter;
+    this.lag = lag;
+  }
+
+  @Scheduled(
+      fixedDelayString = "${app.history.checkpoint-interval-millis:3600000}",
+      initialDelayString = "${app.history.checkpoint-interval-millis:3600000}")
+  public void writeCheckpoints() {
+    for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+      int current = shard;
+      shardRouter.inTransaction(
+          shard,
+          status -> {
+            writeCheckpoints(current);
+            return null;
+          });
+    }
+  }
+
+  private void writeCheckpoints(int shard) {
+    if (!balanceHistoryRepository.tryLockCheckpoints()) {
+      return;
+    }
+    Instant from = balanceHistoryRepository.findLatestCheckpointTime().orElse(Instant.EPOCH);
+    Instant cutoff = Instant.now().minus(lag);
+    if (!cutoff.isAfter(from)) {
+      return;
+    }
+    int written = balanceHistoryRepository.writeCheckpoints(from, cutoff);
+    log.info("Wrote {} balance checkpoints on shard {} at {}", written, shard, cutoff);
+  }
+}
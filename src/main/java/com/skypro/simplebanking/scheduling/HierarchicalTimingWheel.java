@@ -0,0 +1,121 @@
+package com.skypro.simplebanking.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: every level has {@code wheelSize} buckets, each bucket of a level
+ * spans the whole range of the level below it. Deadlines beyond the current level are kept in a
+ * lazily created overflow level and cascade down as time advances, so adding and expiring a task
+ * costs O(1) regardless of how far in the future it is due.
+ */
+public class HierarchicalTimingWheel<T> {
+  private final Level<T> root;
+
+  public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+    this.root = new Level<>(tickMillis, wheelSize, startMillis);
+  }
+
+  /** Returns {@code false} if the deadline has already passed and the task should run now. */
+  public synchronized boolean add(long deadlineMillis, T task) {
+    return root.add(new Entry<>(deadlineMillis, task));
+  }
+
+  /**
+   * Removes a task added with the same deadline before it expires, so that rescheduling does not
+   * leave stale entries behind. Returns {@code false} if it has already expired or was never added.
+   */
+  public synchronized boolean cancel(long deadlineMillis, T task) {
+    for (Level<T> level = root; level != null; level = level.overflow) {
+      if (level.remove(deadlineMillis, task)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public synchronized List<T> advance(long nowMillis) {
+    List<T> expired = new ArrayList<>();
+    root.advance(
+        nowMillis,
+        entry -> {
+          if (!root.add(entry)) {
+            expired.add(entry.task);
+          }
+        });
+    return expired;
+  }
+
+  private static final class Entry<T> {
+    private final long deadlineMillis;
+    private final T task;
+
+    private Entry(long deadlineMillis, T task) {
+      this.deadlineMillis = deadlineMillis;
+      this.task = task;
+    }
+  }
+
+  private interface Reinsertion<T> {
+    void reinsert(Entry<T> entry);
+  }
+
+  private static final class Level<T> {
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long intervalMillis;
+    private final List<List<Entry<T>>> buckets;
+    private long currentTime;
+    private Level<T> overflow;
+
+    private Level(long tickMillis, int wheelSize, long startMillis) {
+      this.tickMillis = tickMillis;
+      this.wheelSize = wheelSize;
+      this.intervalMillis = tickMillis * wheelSize;
+      this.currentTime = startMillis - (startMillis % tickMillis);
+      this.buckets = new ArrayList<>(wheelSize);
+      for (int i = 0; i < wheelSize; i++) {
+        buckets.add(new ArrayList<>());
+      }
+    }
+
+    private boolean add(Entry<T> entry) {
+      if (entry.deadlineMillis < currentTime + tickMillis) {
+        return false;
+      }
+      if (entry.deadlineMillis < currentTime + intervalMillis) {
+        buckets.get(bucketIndex(entry.deadlineMillis)).add(entry);
+        return true;
+      }
+      if (overflow == null) {
+        overflow = new Level<>(intervalMillis, wheelSize, currentTime);
+      }
+      return overflow.add(entry);
+    }
+
+    private boolean remove(long deadlineMillis, T task) {
+      return buckets
+          .get(bucketIndex(deadlineMillis))
+          .removeIf(entry -> entry.deadlineMillis == deadlineMillis && entry.task.equals(task));
+    }
+
+    private void advance(long nowMillis, Reinsertion<T> reinsertion) {
+      while (currentTime + tickMillis <= nowMillis) {
+        currentTime += tickMillis;
+        List<Entry<T>> bucket = buckets.get(bucketIndex(currentTime));
+        if (!bucket.isEmpty()) {
+          List<Entry<T>> entries = new ArrayList<>(bucket);
+          bucket.clear();
+          entries.forEach(reinsertion::reinsert);
+        }
+        if (overflow != null) {
+          overflow.advance(currentTime, reinsertion);
+        }
+      }
+    }
+
+    private int bucketIndex(long timeMillis) {
+      return (int) ((timeMillis / tickMillis) % wheelSize);
+    }
+  }
+}
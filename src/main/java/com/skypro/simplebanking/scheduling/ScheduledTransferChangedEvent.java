@@ -0,0 +1,21 @@
+package com.skypro.simplebanking.scheduling;
+
+import java.time.Instant;
+
+public class ScheduledTransferChangedEvent {
+  private final long scheduleId;
+  private final Instant nextExecution;
+
+  public ScheduledTransferChangedEvent(long scheduleId, Instant nextExecution) {
+    this.scheduleId = scheduleId;
+    this.nextExecution = nextExecution;
+  }
+
+  public long getScheduleId() {
+    return scheduleId;
+  }
+
+  public Instant getNextExecution() {
+    return nextExecution;
+  }
+}
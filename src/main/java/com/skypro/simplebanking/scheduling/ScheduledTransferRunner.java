@@ -0,0 +1,155 @@
+package com.skypro.simplebanking.scheduling;
+
+import com.skypro.simplebanking.service.ScheduledTransferService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the schedules that come due within the loading horizon in an in-memory timing wheel and
+ * runs them through {@link ScheduledTransferService} when they expire. The database stays the
+ * source of truth: overdue schedules found on startup are simply due immediately, so missed
+ * executions are caught up one occurrence at a time on the bounded executor.
+ */
+@Component
+@Lazy(false)
+public class ScheduledTransferRunner {
+  private static final Logger log = LoggerFactory.getLogger(ScheduledTransferRunner.class);
+  private static final int WHEEL_SIZE = 64;
+
+  private final ScheduledTransferService scheduledTransferService;
+  private final HierarchicalTimingWheel<Due> wheel;
+  private final ConcurrentMap<Long, Long> tracked = new ConcurrentHashMap<>();
+  private final ExecutorService executor;
+  private final Duration horizon;
+  private final int batchSize;
+
+  public ScheduledTransferRunner(
+      ScheduledTransferService scheduledTransferService,
+      @Value("${app.scheduler.tick-millis:1000}") long tickMillis,
+      @Value("${app.scheduler.horizon:2m}") Duration horizon,
+      @Value("${app.scheduler.parallelism:4}") int parallelism,
+      @Value("${app.scheduler.batch-size:100}") int batchSize) {
+    this.scheduledTransferService = scheduledTransferService;
+    this.wheel =
+        new HierarchicalTimingWheel<>(tickMillis, WHEEL_SIZE, System.currentTimeMillis());
+    this.executor = Executors.newFixedThreadPool(parallelism);
+    this.horizon = horizon;
+    this.batchSize = batchSize;
+  }
+
+  @Scheduled(fixedDelayString = "${app.scheduler.tick-millis:1000}")
+  public void tick() {
+    List<Due> expired = wheel.advance(System.currentTimeMillis());
+    List<Long> due = new ArrayList<>(expired.size());
+    for (Due entry : expired) {
+      if (tracked.remove(entry.scheduleId, entry.atMillis)) {
+        due.add(entry.scheduleId);
+      }
+    }
+    dispatch(due);
+  }
+
+  @Scheduled(fixedDelayString = "${app.scheduler.load-interval-millis:60000}")
+  public void loadUpcoming() {
+    Instant until = Instant.now().plus(horizon);
+    scheduledTransferService
+        .findDue(until)
+        .forEach(due -> track(due.getScheduleId(), due.getNextExecution()));
+  }
+
+  @TransactionalEventListener
+  public void onScheduleChanged(ScheduledTransferChangedEvent event) {
+    if (event.getNextExecution().isBefore(Instant.now().plus(horizon))) {
+      track(event.getScheduleId(), event.getNextExecution());
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  private void track(long scheduleId, Instant nextExecution) {
+    long atMillis = nextExecution.toEpochMilli();
+    Long previous = tracked.put(scheduleId, atMillis);
+    if (previous != null) {
+      if (previous == atMillis) {
+        return;
+      }
+      wheel.cancel(previous, new Due(scheduleId, previous));
+    }
+    if (!wheel.add(atMillis, new Due(scheduleId, atMillis))
+        && tracked.remove(scheduleId, atMillis)) {
+      dispatch(List.of(scheduleId));
+    }
+  }
+
+  private void dispatch(List<Long> scheduleIds) {
+    for (int from = 0; from < scheduleIds.size(); from += batchSize) {
+      List<Long> batch =
+          List.copyOf(scheduleIds.subList(from, Math.min(scheduleIds.size(), from + batchSize)));
+      executor.execute(() -> batch.forEach(this::run));
+    }
+  }
+
+  private void run(long scheduleId) {
+    Instant now = Instant.now();
+    Optional<Instant> next;
+    try {
+      next = scheduledTransferService.execute(scheduleId, now);
+    } catch (RuntimeException e) {
+      log.warn("Scheduled transfer {} failed: {}", scheduleId, e.toString());
+      try {
+        next = scheduledTransferService.recordFailure(scheduleId, now, e);
+      } catch (RuntimeException recordError) {
+        log.error("Cannot record failure of scheduled transfer {}", scheduleId, recordError);
+        return;
+      }
+    }
+    next.filter(at -> at.isBefore(Instant.now().plus(horizon)))
+        .ifPresent(at -> track(scheduleId, at));
+  }
+
+  private static final class Due {
+    private final long scheduleId;
+    private final long atMillis;
+
+    private Due(long scheduleId, long atMillis) {
+      this.scheduleId = scheduleId;
+      this.atMillis = atMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Due)) {
+        return false;
+      }
+      Due due = (Due) o;
+      return scheduleId == due.scheduleId && atMillis == due.atMillis;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(scheduleId, atMillis);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.skypro.simplebanking.search;
+
+public class UserCreatedEvent {
+  private final long userId;
+  private final String username;
+
+  public UserCreatedEvent(long userId, String username) {
+    this.userId = userId;
+    this.username = username;
+  }
+
+  public long getUserId() {
+    return userId;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+}
@@ -0,0 +1,127 @@
+package com.skypro.simplebanking.search;
+
+import com.skypro.simplebanking.dto.UserSummary;
+import com.skypro.simplebanking.repository.UserRepository;
+import com.skypro.simplebanking.repository.UserSearchRepository;
+import com.skypro.simplebanking.sharding.ShardRouter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Sorted in-memory index of usernames for prefix search, in the same code-point order as the
+ * database query. It is loaded at startup, updated when a user creation commits on this instance
+ * and reloaded from all shards on a schedule, which picks up users created on other instances. A
+ * search the index has no match for is treated as a miss and goes to the databases, as do all
+ * searches when the index is disabled or the number of users outgrows the configured size.
+ */
+@Component
+public class UsernameIndex {
+  private static final Logger log = LoggerFactory.getLogger(UsernameIndex.class);
+
+  private final UserRepository userRepository;
+  private final UserSearchRepository userSearchRepository;
+  private final ShardRouter shardRouter;
+  private final int maxSize;
+  private volatile ConcurrentSkipListMap<String, Long> usernames = newIndex();
+  private volatile Map<String, Long> createdDuringReload;
+  private volatile boolean enabled;
+
+  public UsernameIndex(
+      UserRepository userRepository,
+      UserSearchRepository userSearchRepository,
+      ShardRouter shardRouter,
+      @Value("${app.user-search.index-enabled:true}") boolean enabled,
+      @Value("${app.user-search.index-max-size:5000000}") int maxSize) {
+    this.userRepository = userRepository;
+    this.userSearchRepository = userSearchRepository;
+    this.shardRouter = shardRouter;
+    this.maxSize = maxSize;
+    this.enabled = enabled;
+    if (enabled) {
+      reload();
+    }
+  }
+
+  public List<UserSummary> search(String prefix, int limit) {
+    if (enabled) {
+      List<UserSummary> users = new ArrayList<>(Math.min(limit, 16));
+      for (Map.Entry<String, Long> entry : usernames.tailMap(prefix).entrySet()) {
+        if (users.size() == limit || !entry.getKey().startsWith(prefix)) {
+          break;
+        }
+        users.add(new UserSummary(entry.getValue(), entry.getKey()));
+      }
+      if (!users.isEmpty()) {
+        return users;
+      }
+    }
+    List<UserSummary> users = new ArrayList<>();
+    shardRouter.forEachShard(
+        shard -> users.addAll(userSearchRepository.findByPrefix(prefix, limit)));
+    return users.stream()
+        .sorted(UserSearchRepository.USERNAME_ORDER)
+        .limit(limit)
+        .collect(Collectors.toList());
+  }
+
+  @TransactionalEventListener
+  public void onUserCreated(UserCreatedEvent event) {
+    if (enabled) {
+      Map<String, Long> pending = createdDuringReload;
+      if (pending != null) {
+        pending.put(event.getUsername(), event.getUserId());
+      }
+      usernames.put(event.getUsername(), event.getUserId());
+      checkSize(usernames);
+    }
+  }
+
+  /**
+   * Replaces the index with the users of all shards. Users created here while it loads are
+   * carried over into the new index.
+   */
+  @Scheduled(
+      initialDelayString = "${app.user-search.index-reload-millis:60000}",
+      fixedDelayString = "${app.user-search.index-reload-millis:60000}")
+  public synchronized void reload() {
+    if (!enabled) {
+      return;
+    }
+    Map<String, Long> pending = new ConcurrentHashMap<>();
+    createdDuringReload = pending;
+    ConcurrentSkipListMap<String, Long> loaded = newIndex();
+    shardRouter.forEachShard(
+        shard -> {
+          for (UserSummary user : userRepository.findAllSummaries()) {
+            loaded.put(user.getUsername(), user.getId());
+          }
+        });
+    loaded.putAll(pending);
+    usernames = loaded;
+    createdDuringReload = null;
+    loaded.putAll(pending);
+    checkSize(loaded);
+  }
+
+  private void checkSize(Map<String, Long> index) {
+    if (index.size() > maxSize) {
+      enabled = false;
+      usernames = newIndex();
+      log.warn("More than {} users, username search falls back to the database", maxSize);
+    }
+  }
+
+  private static ConcurrentSkipListMap<String, Long> newIndex() {
+    return new ConcurrentSkipListMap<>(UserSearchRepository.CODE_POINT_ORDER);
+  }
+}
@@ -1,17 +1,34 @@
 package com.skypro.simplebanking.service;
 
+import com.skypro.simplebanking.audit.AuditLog;
 import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.AccountOwnership;
+import com.skypro.simplebanking.dto.AccountsDTO;
+import com.skypro.simplebanking.dto.ListAccountDTO;
 import com.skypro.simplebanking.entity.Account;
+import com.skypro.simplebanking.dto.BalanceChangeDTO;
 import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.entity.BalanceChangeKind;
 import com.skypro.simplebanking.entity.User;
 import com.skypro.simplebanking.exception.AccountNotFoundException;
 import com.skypro.simplebanking.exception.InsufficientFundsException;
 import com.skypro.simplebanking.exception.InvalidAmountException;
-import com.skypro.simplebanking.exception.WrongCurrencyException;
+import com.skypro.simplebanking.exception.RequestTooLargeException;
+import com.skypro.simplebanking.fx.FxQuote;
+import com.skypro.simplebanking.fx.FxRates;
+import com.skypro.simplebanking.metrics.CurrencyMetrics;
 import com.skypro.simplebanking.repository.AccountRepository;
+import com.skypro.simplebanking.repository.BalanceHistoryRepository;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,14 +36,32 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class AccountService {
   private final AccountRepository accountRepository;
+  private final BalanceHistoryRepository balanceHistoryRepository;
+  private final CurrencyMetrics currencyMetrics;
+  private final FxRates fxRates;
+  private final AuditLog auditLog;
+  private final int maxMultiGetSize;
 
-  public AccountService(AccountRepository accountRepository) {
+  public AccountService(
+      AccountRepository accountRepository,
+      BalanceHistoryRepository balanceHistoryRepository,
+      CurrencyMetrics currencyMetrics,
+      FxRates fxRates,
+      AuditLog auditLog,
+      @Value("${app.account.max-multi-get:100}") int maxMultiGetSize) {
     this.accountRepository = accountRepository;
+    this.balanceHistoryRepository = balanceHistoryRepository;
+    this.currencyMetrics = currencyMetrics;
+    this.fxRates = fxRates;
+    this.auditLog = auditLog;
+    this.maxMultiGetSize = maxMultiGetSize;
   }
 
   @Transactional(propagation = Propagation.MANDATORY)
   public void createDefaultAccounts(User user) {
     user.setAccounts(new ArrayList<>());
+    List<BalanceChangeDTO> openings = new ArrayList<>();
+    Instant now = Instant.now();
     for (AccountCurrency currency : AccountCurrency.values()) {
       Account account = new Account();
       account.setUser(user);
@@ -34,55 +69,142 @@ public class AccountService {
       account.setAmount(1L);
       user.getAccounts().add(account);
       accountRepository.save(account);
+      openings.add(
+          new BalanceChangeDTO(
+              account.getId(), account.getAmount(), BalanceChangeKind.OPENING, now));
+      currencyMetrics.accountsOpened(currency, 1, account.getAmount());
     }
+    balanceHistoryRepository.recordAll(openings);
   }
 
   @Transactional(readOnly = true)
   public AccountDTO getAccount(long userId, Long accountId) {
     return accountRepository
-        .getAccountByUser_IdAndId(userId, accountId)
-        .map(AccountDTO::from)
+        .findAccountDTO(userId, accountId)
         .orElseThrow(AccountNotFoundException::new);
   }
 
+  /**
+   * Returns the requested accounts of the user from one query, in request order. Ids that do not
+   * exist or belong to someone else are reported together, so the caller cannot tell them apart.
+   */
+  @Transactional(readOnly = true)
+  public AccountsDTO getAccounts(long userId, Collection<Long> accountIds) {
+    if (accountIds.size() > maxMultiGetSize) {
+      throw new RequestTooLargeException(
+          "Cannot request more than " + maxMultiGetSize + " accounts at once");
+    }
+    Set<Long> requested = new LinkedHashSet<>(accountIds);
+    requested.remove(null);
+    if (requested.isEmpty()) {
+      return new AccountsDTO(List.of(), List.of());
+    }
+    Map<Long, AccountDTO> found = new HashMap<>();
+    for (AccountDTO account :
+        accountRepository.findAccountDTOsByUserIdAndIdIn(userId, requested)) {
+      found.put(account.getId(), account);
+    }
+    List<AccountDTO> accounts = new ArrayList<>(found.size());
+    List<Long> notFound = new ArrayList<>();
+    for (Long accountId : requested) {
+      AccountDTO account = found.get(accountId);
+      if (account == null) {
+        notFound.add(accountId);
+      } else {
+        accounts.add(account);
+      }
+    }
+    return new AccountsDTO(accounts, notFound);
+  }
+
+  @Transactional(readOnly = true)
+  public List<AccountDTO> getUserAccounts(long userId) {
+    return accountRepository.findAccountDTOsByUserId(userId);
+  }
+
+  /** Returns the accounts of every user keyed by user id, read in one query. */
+  @Transactional(readOnly = true)
+  public Map<Long, List<ListAccountDTO>> listAccountsByUser() {
+    Map<Long, List<ListAccountDTO>> accounts = new HashMap<>();
+    for (AccountOwnership account : accountRepository.findAllOwnership()) {
+      accounts
+          .computeIfAbsent(account.getUserId(), userId -> new ArrayList<>())
+          .add(new ListAccountDTO(account.getAccountId(), account.getCurrency()));
+    }
+    return accounts;
+  }
+
+  /**
+   * Prices a transfer between the accounts with the current exchange rates. Both accounts stay
+   * locked until the transaction ends; they are locked in id order, so concurrent transfers in
+   * opposite directions queue up instead of deadlocking.
+   */
   @Transactional
-  public void validateCurrency(long sourceAccount, long destinationAccount) {
-    Account acc1 =
-        accountRepository.findById(sourceAccount).orElseThrow(AccountNotFoundException::new);
-    Account acc2 =
-        accountRepository.findById(destinationAccount).orElseThrow(AccountNotFoundException::new);
-    if (!acc1.getAccountCurrency().equals(acc2.getAccountCurrency())){
-      throw new WrongCurrencyException();
+  public FxQuote quoteTransfer(long sourceAccount, long destinationAccount, long amount) {
+    Map<Long, Account> accounts = new HashMap<>();
+    for (Account account :
+        accountRepository.findAllForUpdateByIdIn(List.of(sourceAccount, destinationAccount))) {
+      accounts.put(account.getId(), account);
+    }
+    Account acc1 = accounts.get(sourceAccount);
+    Account acc2 = accounts.get(destinationAccount);
+    if (acc1 == null || acc2 == null) {
+      throw new AccountNotFoundException();
     }
+    return fxRates.quote(acc1.getAccountCurrency(), acc2.getAccountCurrency(), amount);
   }
 
   @Transactional
   public AccountDTO depositToAccount(long userId, Long accountId, long amount) {
+    return depositToAccount(userId, accountId, amount, BalanceChangeKind.DEPOSIT);
+  }
+
+  @Transactional
+  public AccountDTO depositToAccount(
+      long userId, Long accountId, long amount, BalanceChangeKind kind) {
     if (amount < 0) {
       throw new InvalidAmountException();
     }
     Account account =
         accountRepository
-            .getAccountByUser_IdAndId(userId, accountId)
+            .findForUpdateByUser_IdAndId(userId, accountId)
             .orElseThrow(AccountNotFoundException::new);
     account.setAmount(account.getAmount() + amount);
+    balanceHistoryRepository.record(account.getId(), amount, kind);
+    if (kind == BalanceChangeKind.DEPOSIT) {
+      currencyMetrics.deposited(account.getAccountCurrency(), amount);
+      auditLog.deposited(userId, accountId, amount);
+    }
     return AccountDTO.from(account);
   }
 
   @Transactional
   public AccountDTO withdrawFromAccount(long id, Long accountId, long amount) {
+    return withdrawFromAccount(id, accountId, amount, BalanceChangeKind.WITHDRAWAL);
+  }
+
+  @Transactional
+  public AccountDTO withdrawFromAccount(
+      long id, Long accountId, long amount, BalanceChangeKind kind) {
     if (amount < 0) {
       throw new InvalidAmountException();
     }
     Account account =
         accountRepository
-            .getAccountByUser_IdAndId(id, accountId)
+            .findForUpdateByUser_IdAndId(id, accountId)
             .orElseThrow(AccountNotFoundException::new);
     if (account.getAmount() < amount) {
       throw new InsufficientFundsException(
           "Cannot withdraw " + amount + " " + account.getAccountCurrency().name());
     }
     account.setAmount(account.getAmount() - amount);
+    balanceHistoryRepository.record(account.getId(), -amount, kind);
+    if (kind == BalanceChangeKind.WITHDRAWAL) {
+      currencyMetrics.withdrawn(account.getAccountCurrency(), amount);
+      auditLog.withdrawn(id, accountId, amount);
+    } else if (kind == BalanceChangeKind.TRANSFER_OUT) {
+      currencyMetrics.transferred(account.getAccountCurrency(), amount, 1);
+    }
     return AccountDTO.from(account);
   }
 }
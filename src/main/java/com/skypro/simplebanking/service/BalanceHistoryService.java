@@ -0,0 +1,47 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.dto.AccountBalanceDTO;
+import com.skypro.simplebanking.entity.Account;
+import com.skypro.simplebanking.exception.AccountNotFoundException;
+import com.skypro.simplebanking.history.BalanceHistoryReader;
+import com.skypro.simplebanking.repository.AccountRepository;
+import com.skypro.simplebanking.repository.BalanceHistoryRepository;
+import java.time.Instant;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class BalanceHistoryService {
+  private final AccountRepository accountRepository;
+  private final BalanceHistoryRepository balanceHistoryRepository;
+  private final BalanceHistoryReader balanceHistoryReader;
+
+  public BalanceHistoryService(
+      AccountRepository accountRepository,
+      BalanceHistoryRepository balanceHistoryRepository,
+      BalanceHistoryReader balanceHistoryReader) {
+    this.accountRepository = accountRepository;
+    this.balanceHistoryRepository = balanceHistoryRepository;
+    this.balanceHistoryReader = balanceHistoryReader;
+  }
+
+  @Transactional(readOnly = true)
+  public AccountBalanceDTO getBalanceAt(long userId, Long accountId, Instant at) {
+    Account account =
+        accountRepository
+            .getAccountByUser_IdAndId(userId, accountId)
+            .orElseThrow(AccountNotFoundException::new);
+    return new AccountBalanceDTO(
+        account.getId(), at, balanceAt(account.getId(), at), account.getAccountCurrency());
+  }
+
+  long balanceAt(long accountId, Instant at) {
+    return balanceHistoryRepository
+        .findLatestCheckpoint(accountId, at)
+        .map(
+            checkpoint ->
+                checkpoint.getBalance()
+                    + balanceHistoryReader.sumChanges(accountId, checkpoint.getTakenAt(), at))
+        .orElseGet(() -> balanceHistoryReader.sumChanges(accountId, Instant.EPOCH, at));
+  }
+}
@@ -0,0 +1,183 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.audit.AuditLog;
+import com.skypro.simplebanking.configuration.ShardingProperties;
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.dto.TransferSaga;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.entity.BalanceChangeKind;
+import com.skypro.simplebanking.exception.AccountNotFoundException;
+import com.skypro.simplebanking.exception.WrongCurrencyException;
+import com.skypro.simplebanking.fx.FxQuote;
+import com.skypro.simplebanking.fx.FxRates;
+import com.skypro.simplebanking.metrics.CurrencyMetrics;
+import com.skypro.simplebanking.repository.TransferRecordRepository;
+import com.skypro.simplebanking.repository.TransferSagaRepository;
+import com.skypro.simplebanking.sharding.ShardRouter;
+import java.time.Duration;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs transfers between users on different shards as a saga persisted on the sender's shard.
+ * The debit commits together with the saga row and the price of the transfer, the credit commits
+ * on the recipient's shard together with a marker that makes it idempotent, and the saga is then
+ * marked completed. If the recipient's shard rejects the credit, the debit is refunded. A saga
+ * left in between, by a crash or an unreachable shard, is picked up again by the recovery pass.
+ */
+@Service
+@Lazy(false)
+public class CrossShardTransferService {
+  private static final Logger log = LoggerFactory.getLogger(CrossShardTransferService.class);
+
+  private final AccountService accountService;
+  private final TransferSagaRepository transferSagaRepository;
+  private final TransferRecordRepository transferRecordRepository;
+  private final FxRates fxRates;
+  private final CurrencyMetrics currencyMetrics;
+  private final AuditLog auditLog;
+  private final ShardRouter shardRouter;
+  private final Duration retryAfter;
+  private final int recoveryBatchSize;
+
+  public CrossShardTransferService(
+      AccountService accountService,
+      TransferSagaRepository transferSagaRepository,
+      TransferRecordRepository transferRecordRepository,
+      FxRates fxRates,
+      CurrencyMetrics currencyMetrics,
+      AuditLog auditLog,
+      ShardRouter shardRouter,
+      ShardingProperties properties) {
+    this.accountService = accountService;
+    this.transferSagaRepository = transferSagaRepository;
+    this.transferRecordRepository = transferRecordRepository;
+    this.fxRates = fxRates;
+    this.currencyMetrics = currencyMetrics;
+    this.auditLog = auditLog;
+    this.shardRouter = shardRouter;
+    this.retryAfter = properties.getSagaRetryAfter();
+    this.recoveryBatchSize = properties.getSagaRecoveryBatchSize();
+  }
+
+  public void transfer(long userId, TransferRequest transferRequest) {
+    int sourceShard = shardRouter.shardOfUser(userId);
+    AccountCurrency targetCurrency =
+        shardRouter.inNewTransaction(
+            shardRouter.shardOfUser(transferRequest.getToUserId()),
+            status ->
+                accountService
+                    .getAccount(transferRequest.getToUserId(), transferRequest.getToAccountId())
+                    .getCurrency());
+    TransferSaga saga =
+        shardRouter.inNewTransaction(
+            sourceShard,
+            status -> {
+              AccountDTO source =
+                  accountService.withdrawFromAccount(
+                      userId,
+                      transferRequest.getFromAccountId(),
+                      transferRequest.getAmount(),
+                      BalanceChangeKind.TRANSFER_OUT);
+              FxQuote quote =
+                  fxRates.quote(
+                      source.getCurrency(), targetCurrency, transferRequest.getAmount());
+              return transferSagaRepository.insert(userId, transferRequest, quote);
+            });
+    resume(sourceShard, saga);
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.sharding.saga-recovery-interval-millis:60000}",
+      fixedDelayString = "${app.sharding.saga-recovery-interval-millis:60000}")
+  public void recoverSagas() {
+    Instant before = Instant.now().minus(retryAfter);
+    shardRouter.forEachShard(
+        shard -> {
+          for (TransferSaga saga :
+              transferSagaRepository.findDebitedBefore(before, recoveryBatchSize)) {
+            try {
+              resume(shard, saga);
+            } catch (AccountNotFoundException | WrongCurrencyException e) {
+              log.info("Transfer saga {} on shard {} was compensated", saga.getId(), shard);
+            } catch (RuntimeException e) {
+              log.warn("Transfer saga {} on shard {} is still pending", saga.getId(), shard, e);
+            }
+          }
+        });
+  }
+
+  private void resume(int sourceShard, TransferSaga saga) {
+    try {
+      shardRouter.inNewTransaction(
+          shardRouter.shardOfUser(saga.getToUserId()),
+          status -> {
+            credit(sourceShard, saga);
+            return null;
+          });
+    } catch (AccountNotFoundException | WrongCurrencyException e) {
+      compensate(sourceShard, saga, e);
+      throw e;
+    }
+    shardRouter.inNewTransaction(
+        sourceShard,
+        status -> {
+          if (transferSagaRepository.finish(saga.getId(), TransferSagaRepository.COMPLETED, null)) {
+            transferRecordRepository.insert(saga.toTransferRequest(), saga.toQuote());
+            auditLog.transferred(
+                saga.getFromUserId(),
+                saga.getFromAccountId(),
+                saga.getToUserId(),
+                saga.getToAccountId(),
+                saga.getAmount(),
+                saga.getToAmount());
+            if (saga.getCurrency() != saga.getToCurrency()) {
+              currencyMetrics.exchanged(
+                  saga.getCurrency(), saga.getAmount(), saga.getToCurrency(), saga.getToAmount());
+            }
+          }
+          return null;
+        });
+  }
+
+  private void credit(int sourceShard, TransferSaga saga) {
+    AccountDTO destination = accountService.getAccount(saga.getToUserId(), saga.getToAccountId());
+    if (destination.getCurrency() != saga.getToCurrency()) {
+      throw new WrongCurrencyException();
+    }
+    if (transferSagaRepository.recordCredit(sourceShard, saga.getId())) {
+      accountService.depositToAccount(
+          saga.getToUserId(),
+          saga.getToAccountId(),
+          saga.getToAmount(),
+          BalanceChangeKind.TRANSFER_IN);
+    }
+  }
+
+  private void compensate(int sourceShard, TransferSaga saga, RuntimeException cause) {
+    shardRouter.inNewTransaction(
+        sourceShard,
+        status -> {
+          if (transferSagaRepository.finish(
+              saga.getId(), TransferSagaRepository.COMPENSATED, cause.getClass().getSimpleName())) {
+            accountService.depositToAccount(
+                saga.getFromUserId(),
+                saga.getFromAccountId(),
+                saga.getAmount(),
+                BalanceChangeKind.REVERSAL);
+            auditLog.reversed(
+                saga.getFromUserId(),
+                saga.getFromAccountId(),
+                saga.getToUserId(),
+                saga.getToAccountId(),
+                saga.getAmount());
+          }
+          return null;
+        });
+  }
+}
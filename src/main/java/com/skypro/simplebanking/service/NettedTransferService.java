@@ -0,0 +1,214 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.audit.AuditLog;
+import com.skypro.simplebanking.dto.AccountOwnership;
+import com.skypro.simplebanking.dto.BalanceChangeDTO;
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.entity.BalanceChangeKind;
+import com.skypro.simplebanking.exception.AccountNotFoundException;
+import com.skypro.simplebanking.exception.InsufficientFundsException;
+import com.skypro.simplebanking.exception.InvalidAmountException;
+import com.skypro.simplebanking.exception.WrongCurrencyException;
+import com.skypro.simplebanking.metrics.CurrencyMetrics;
+import com.skypro.simplebanking.netting.PendingTransfer;
+import com.skypro.simplebanking.repository.AccountBalanceRepository;
+import com.skypro.simplebanking.repository.AccountRepository;
+import com.skypro.simplebanking.repository.BalanceHistoryRepository;
+import com.skypro.simplebanking.repository.TransferRecordRepository;
+import com.skypro.simplebanking.util.LongLongHashMap;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class NettedTransferService {
+  private final AccountRepository accountRepository;
+  private final AccountBalanceRepository accountBalanceRepository;
+  private final TransferRecordRepository transferRecordRepository;
+  private final BalanceHistoryRepository balanceHistoryRepository;
+  private final CurrencyMetrics currencyMetrics;
+  private final AuditLog auditLog;
+
+  public NettedTransferService(
+      AccountRepository accountRepository,
+      AccountBalanceRepository accountBalanceRepository,
+      TransferRecordRepository transferRecordRepository,
+      BalanceHistoryRepository balanceHistoryRepository,
+      CurrencyMetrics currencyMetrics,
+      AuditLog auditLog) {
+    this.accountRepository = accountRepository;
+    this.accountBalanceRepository = accountBalanceRepository;
+    this.transferRecordRepository = transferRecordRepository;
+    this.balanceHistoryRepository = balanceHistoryRepository;
+    this.currencyMetrics = currencyMetrics;
+    this.auditLog = auditLog;
+  }
+
+  /**
+   * Applies a window of transfers as one UPDATE per touched account. Transfers that fail
+   * validation are rejected individually; while an account would go negative after netting, its
+   * largest outgoing transfer is rejected and the window is netted again. The remaining transfers
+   * are applied and recorded one by one.
+   */
+  @Transactional
+  public void apply(List<PendingTransfer> transfers) {
+    Set<Long> accountIds = new HashSet<>();
+    for (PendingTransfer transfer : transfers) {
+      accountIds.add(transfer.getTransferRequest().getFromAccountId());
+      accountIds.add(transfer.getTransferRequest().getToAccountId());
+    }
+    Map<Long, AccountOwnership> accounts = new HashMap<>();
+    for (AccountOwnership account : accountRepository.findOwnershipByIdIn(accountIds)) {
+      accounts.put(account.getAccountId(), account);
+    }
+
+    List<PendingTransfer> accepted = new ArrayList<>(transfers.size());
+    Set<Long> touched = new HashSet<>();
+    for (PendingTransfer transfer : transfers) {
+      RuntimeException rejection = validate(transfer, accounts);
+      if (rejection != null) {
+        transfer.reject(rejection);
+      } else {
+        accepted.add(transfer);
+        touched.add(transfer.getTransferRequest().getFromAccountId());
+        touched.add(transfer.getTransferRequest().getToAccountId());
+      }
+    }
+    if (accepted.isEmpty()) {
+      return;
+    }
+
+    LongLongHashMap balances = accountBalanceRepository.lockBalances(touched);
+    LongLongHashMap deltas = netDeltas(accepted);
+    Set<Long> overdrawn = findOverdrawn(balances, deltas);
+    while (!overdrawn.isEmpty()) {
+      Map<Long, PendingTransfer> largestDebits = new HashMap<>();
+      for (PendingTransfer transfer : accepted) {
+        long fromAccountId = transfer.getTransferRequest().getFromAccountId();
+        if (overdrawn.contains(fromAccountId)) {
+          largestDebits.merge(
+              fromAccountId,
+              transfer,
+              (current, candidate) ->
+                  candidate.getTransferRequest().getAmount()
+                          > current.getTransferRequest().getAmount()
+                      ? candidate
+                      : current);
+        }
+      }
+      for (PendingTransfer transfer : largestDebits.values()) {
+        TransferRequest request = transfer.getTransferRequest();
+        transfer.reject(
+            new InsufficientFundsException(
+                "Cannot transfer "
+                    + request.getAmount()
+                    + " "
+                    + accounts.get(request.getFromAccountId()).getCurrency().name()));
+        accepted.remove(transfer);
+      }
+      if (accepted.isEmpty()) {
+        return;
+      }
+      deltas = netDeltas(accepted);
+      overdrawn = findOverdrawn(balances, deltas);
+    }
+
+    long[] accountIdsToUpdate = deltas.sortedKeys();
+    long[] netDeltas = new long[accountIdsToUpdate.length];
+    int updates = 0;
+    for (long accountId : accountIdsToUpdate) {
+      long delta = deltas.get(accountId);
+      if (delta != 0) {
+        accountIdsToUpdate[updates] = accountId;
+        netDeltas[updates++] = delta;
+      }
+    }
+    if (!accountBalanceRepository.applyDeltas(
+        Arrays.copyOf(accountIdsToUpdate, updates), Arrays.copyOf(netDeltas, updates))) {
+      throw new InsufficientFundsException("Netted batch could not be applied");
+    }
+    List<TransferRequest> records = new ArrayList<>(accepted.size());
+    List<BalanceChangeDTO> changes = new ArrayList<>(accepted.size() * 2);
+    Map<AccountCurrency, long[]> volumes = new EnumMap<>(AccountCurrency.class);
+    Instant now = Instant.now();
+    for (PendingTransfer transfer : accepted) {
+      TransferRequest request = transfer.getTransferRequest();
+      records.add(request);
+      auditLog.transferred(
+          transfer.getUserId(),
+          request.getFromAccountId(),
+          request.getToUserId(),
+          request.getToAccountId(),
+          request.getAmount(),
+          request.getAmount());
+      long[] volume =
+          volumes.computeIfAbsent(
+              accounts.get(request.getFromAccountId()).getCurrency(), currency -> new long[2]);
+      volume[0] += request.getAmount();
+      volume[1]++;
+      changes.add(
+          new BalanceChangeDTO(
+              request.getFromAccountId(),
+              -request.getAmount(),
+              BalanceChangeKind.TRANSFER_OUT,
+              now));
+      changes.add(
+          new BalanceChangeDTO(
+              request.getToAccountId(), request.getAmount(), BalanceChangeKind.TRANSFER_IN, now));
+    }
+    transferRecordRepository.insertAll(records, true);
+    balanceHistoryRepository.recordAll(changes);
+    volumes.forEach(
+        (currency, volume) -> currencyMetrics.transferred(currency, volume[0], volume[1]));
+  }
+
+  private static RuntimeException validate(
+      PendingTransfer transfer, Map<Long, AccountOwnership> accounts) {
+    TransferRequest request = transfer.getTransferRequest();
+    if (request.getAmount() < 0) {
+      return new InvalidAmountException();
+    }
+    AccountOwnership source = accounts.get(request.getFromAccountId());
+    AccountOwnership destination = accounts.get(request.getToAccountId());
+    if (source == null
+        || source.getUserId() != transfer.getUserId()
+        || destination == null
+        || destination.getUserId() != request.getToUserId()) {
+      return new AccountNotFoundException();
+    }
+    if (source.getCurrency() != destination.getCurrency()) {
+      return new WrongCurrencyException();
+    }
+    return null;
+  }
+
+  private static LongLongHashMap netDeltas(List<PendingTransfer> transfers) {
+    LongLongHashMap deltas = new LongLongHashMap(transfers.size() * 2);
+    for (PendingTransfer transfer : transfers) {
+      TransferRequest request = transfer.getTransferRequest();
+      deltas.addTo(request.getFromAccountId(), -request.getAmount());
+      deltas.addTo(request.getToAccountId(), request.getAmount());
+    }
+    return deltas;
+  }
+
+  private static Set<Long> findOverdrawn(LongLongHashMap balances, LongLongHashMap deltas) {
+    Set<Long> overdrawn = new HashSet<>();
+    for (long accountId : deltas.keys()) {
+      long delta = deltas.get(accountId);
+      if (delta < 0 && balances.get(accountId) + delta < 0) {
+        overdrawn.add(accountId);
+      }
+    }
+    return overdrawn;
+  }
+}
@@ -0,0 +1,156 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.audit.AuditLog;
+import com.skypro.simplebanking.dto.AccountOwnership;
+import com.skypro.simplebanking.dto.BalanceChangeDTO;
+import com.skypro.simplebanking.dto.PayoutDTO;
+import com.skypro.simplebanking.dto.PayoutItem;
+import com.skypro.simplebanking.dto.PayoutRequest;
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.entity.BalanceChangeKind;
+import com.skypro.simplebanking.exception.AccountNotFoundException;
+import com.skypro.simplebanking.exception.InsufficientFundsException;
+import com.skypro.simplebanking.exception.InvalidAmountException;
+import com.skypro.simplebanking.exception.RequestTooLargeException;
+import com.skypro.simplebanking.exception.WrongCurrencyException;
+import com.skypro.simplebanking.metrics.CurrencyMetrics;
+import com.skypro.simplebanking.repository.AccountBalanceRepository;
+import com.skypro.simplebanking.repository.AccountRepository;
+import com.skypro.simplebanking.repository.BalanceHistoryRepository;
+import com.skypro.simplebanking.repository.TransferRecordRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class PayoutService {
+  private static final Logger log = LoggerFactory.getLogger(PayoutService.class);
+
+  private final AccountRepository accountRepository;
+  private final AccountBalanceRepository accountBalanceRepository;
+  private final TransferRecordRepository transferRecordRepository;
+  private final BalanceHistoryRepository balanceHistoryRepository;
+  private final CurrencyMetrics currencyMetrics;
+  private final AuditLog auditLog;
+  private final int maxPayouts;
+
+  public PayoutService(
+      AccountRepository accountRepository,
+      AccountBalanceRepository accountBalanceRepository,
+      TransferRecordRepository transferRecordRepository,
+      BalanceHistoryRepository balanceHistoryRepository,
+      CurrencyMetrics currencyMetrics,
+      AuditLog auditLog,
+      @Value("${app.payout.max-payouts:10000}") int maxPayouts) {
+    this.accountRepository = accountRepository;
+    this.accountBalanceRepository = accountBalanceRepository;
+    this.transferRecordRepository = transferRecordRepository;
+    this.balanceHistoryRepository = balanceHistoryRepository;
+    this.currencyMetrics = currencyMetrics;
+    this.auditLog = auditLog;
+    this.maxPayouts = maxPayouts;
+  }
+
+  @Transactional
+  public PayoutDTO payout(long userId, PayoutRequest payoutRequest) {
+    long start = System.nanoTime();
+    List<PayoutItem> payouts = payoutRequest.getPayouts();
+    if (payouts == null || payouts.isEmpty()) {
+      throw new InvalidAmountException();
+    }
+    if (payouts.size() > maxPayouts) {
+      throw new RequestTooLargeException("Payout cannot have more than " + maxPayouts + " items");
+    }
+
+    SortedMap<Long, Long> deltas = new TreeMap<>();
+    Map<Long, Long> recipients = new HashMap<>();
+    long total = 0;
+    for (PayoutItem payout : payouts) {
+      if (payout.getAmount() <= 0) {
+        throw new InvalidAmountException();
+      }
+      try {
+        total = Math.addExact(total, payout.getAmount());
+      } catch (ArithmeticException e) {
+        throw new InvalidAmountException();
+      }
+      deltas.merge(payout.getToAccountId(), payout.getAmount(), Long::sum);
+      Long recipient = recipients.putIfAbsent(payout.getToAccountId(), payout.getToUserId());
+      if (recipient != null && recipient != payout.getToUserId()) {
+        throw new AccountNotFoundException();
+      }
+    }
+    deltas.merge(payoutRequest.getFromAccountId(), -total, Long::sum);
+
+    Map<Long, AccountOwnership> accounts = new HashMap<>();
+    for (AccountOwnership account : accountRepository.findOwnershipByIdIn(deltas.keySet())) {
+      accounts.put(account.getAccountId(), account);
+    }
+    AccountOwnership source = accounts.get(payoutRequest.getFromAccountId());
+    if (source == null || source.getUserId() != userId) {
+      throw new AccountNotFoundException();
+    }
+    for (Map.Entry<Long, Long> recipient : recipients.entrySet()) {
+      AccountOwnership destination = accounts.get(recipient.getKey());
+      if (destination == null || destination.getUserId() != recipient.getValue()) {
+        throw new AccountNotFoundException();
+      }
+      if (destination.getCurrency() != source.getCurrency()) {
+        throw new WrongCurrencyException();
+      }
+    }
+
+    if (!accountBalanceRepository.applyDeltas(deltas)) {
+      throw new InsufficientFundsException(
+          "Cannot pay out " + total + " " + source.getCurrency().name());
+    }
+    Instant now = Instant.now();
+    List<TransferRequest> records = new ArrayList<>(payouts.size());
+    List<BalanceChangeDTO> changes = new ArrayList<>(payouts.size() + 1);
+    changes.add(
+        new BalanceChangeDTO(
+            source.getAccountId(), -total, BalanceChangeKind.TRANSFER_OUT, now));
+    for (PayoutItem payout : payouts) {
+      changes.add(
+          new BalanceChangeDTO(
+              payout.getToAccountId(), payout.getAmount(), BalanceChangeKind.TRANSFER_IN, now));
+      TransferRequest record = new TransferRequest();
+      record.setFromAccountId(source.getAccountId());
+      record.setToUserId(payout.getToUserId());
+      record.setToAccountId(payout.getToAccountId());
+      record.setAmount(payout.getAmount());
+      records.add(record);
+      auditLog.transferred(
+          userId,
+          source.getAccountId(),
+          payout.getToUserId(),
+          payout.getToAccountId(),
+          payout.getAmount(),
+          payout.getAmount());
+    }
+    transferRecordRepository.insertAll(records, false);
+    balanceHistoryRepository.recordAll(changes);
+    currencyMetrics.transferred(source.getCurrency(), total, payouts.size());
+    long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    log.info(
+        "Payout from account {}: {} items to {} accounts, {} {} in {} ms",
+        source.getAccountId(),
+        payouts.size(),
+        recipients.size(),
+        total,
+        source.getCurrency(),
+        durationMillis);
+    return new PayoutDTO(
+        source.getAccountId(), payouts.size(), recipients.size(), total, durationMillis);
+  }
+}
@@ -0,0 +1,198 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.dto.ScheduledTransferDTO;
+import com.skypro.simplebanking.dto.ScheduledTransferRequest;
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.entity.ScheduledTransfer;
+import com.skypro.simplebanking.entity.TransferPeriod;
+import com.skypro.simplebanking.exception.AccountNotFoundException;
+import com.skypro.simplebanking.exception.InvalidAmountException;
+import com.skypro.simplebanking.exception.ScheduledTransferNotFoundException;
+import com.skypro.simplebanking.repository.AccountRepository;
+import com.skypro.simplebanking.repository.ScheduledTransferRepository;
+import com.skypro.simplebanking.scheduling.ScheduledTransferChangedEvent;
+import com.skypro.simplebanking.sharding.ShardRouter;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Schedules of all users are kept on shard 0, where the runner executes them; the accounts they
+ * refer to are looked up on the shards of their owners.
+ */
+@Service
+public class ScheduledTransferService {
+  private static final int MAX_ERROR_LENGTH = 255;
+
+  private final ScheduledTransferRepository scheduledTransferRepository;
+  private final AccountRepository accountRepository;
+  private final TransferService transferService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ShardRouter shardRouter;
+
+  public ScheduledTransferService(
+      ScheduledTransferRepository scheduledTransferRepository,
+      AccountRepository accountRepository,
+      TransferService transferService,
+      ApplicationEventPublisher eventPublisher,
+      ShardRouter shardRouter) {
+    this.scheduledTransferRepository = scheduledTransferRepository;
+    this.accountRepository = accountRepository;
+    this.transferService = transferService;
+    this.eventPublisher = eventPublisher;
+    this.shardRouter = shardRouter;
+  }
+
+  @Transactional(readOnly = true)
+  public List<ScheduledTransferDTO> listSchedules(long userId) {
+    return scheduledTransferRepository.findByUserIdOrderById(userId).stream()
+        .map(ScheduledTransferDTO::from)
+        .collect(Collectors.toList());
+  }
+
+  @Transactional(readOnly = true)
+  public ScheduledTransferDTO getSchedule(long userId, long scheduleId) {
+    return scheduledTransferRepository
+        .findByIdAndUserId(scheduleId, userId)
+        .map(ScheduledTransferDTO::from)
+        .orElseThrow(ScheduledTransferNotFoundException::new);
+  }
+
+  @Transactional
+  public ScheduledTransferDTO createSchedule(long userId, ScheduledTransferRequest request) {
+    ScheduledTransfer schedule = new ScheduledTransfer();
+    schedule.setUserId(userId);
+    apply(schedule, request);
+    scheduledTransferRepository.save(schedule);
+    publishChange(schedule);
+    return ScheduledTransferDTO.from(schedule);
+  }
+
+  @Transactional
+  public ScheduledTransferDTO updateSchedule(
+      long userId, long scheduleId, ScheduledTransferRequest request) {
+    ScheduledTransfer schedule =
+        scheduledTransferRepository
+            .findByIdAndUserId(scheduleId, userId)
+            .orElseThrow(ScheduledTransferNotFoundException::new);
+    apply(schedule, request);
+    publishChange(schedule);
+    return ScheduledTransferDTO.from(schedule);
+  }
+
+  @Transactional
+  public void deleteSchedule(long userId, long scheduleId) {
+    ScheduledTransfer schedule =
+        scheduledTransferRepository
+            .findByIdAndUserId(scheduleId, userId)
+            .orElseThrow(ScheduledTransferNotFoundException::new);
+    scheduledTransferRepository.delete(schedule);
+  }
+
+  @Transactional(readOnly = true)
+  public List<ScheduledTransferChangedEvent> findDue(Instant until) {
+    return scheduledTransferRepository.findByActiveTrueAndNextExecutionBefore(until).stream()
+        .map(
+            schedule ->
+                new ScheduledTransferChangedEvent(schedule.getId(), schedule.getNextExecution()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Runs one due occurrence of the schedule and moves it to the next one. The row lock makes the
+   * execution and the schedule advance atomic, so an occurrence never runs twice, even across
+   * restarts. Returns the next execution time if the schedule is still active.
+   */
+  @Transactional
+  public Optional<Instant> execute(long scheduleId, Instant now) {
+    Optional<ScheduledTransfer> found = scheduledTransferRepository.findForExecution(scheduleId);
+    if (found.isEmpty() || !found.get().isActive()) {
+      return Optional.empty();
+    }
+    ScheduledTransfer schedule = found.get();
+    if (schedule.getNextExecution().isAfter(now)) {
+      return Optional.of(schedule.getNextExecution());
+    }
+    transferService.transfer(schedule.getUserId(), toTransferRequest(schedule));
+    schedule.setLastError(null);
+    return advance(schedule, now);
+  }
+
+  @Transactional
+  public Optional<Instant> recordFailure(long scheduleId, Instant now, RuntimeException error) {
+    Optional<ScheduledTransfer> found = scheduledTransferRepository.findForExecution(scheduleId);
+    if (found.isEmpty() || !found.get().isActive()) {
+      return Optional.empty();
+    }
+    ScheduledTransfer schedule = found.get();
+    String message = error.getClass().getSimpleName();
+    if (error.getMessage() != null) {
+      message = message + ": " + error.getMessage();
+    }
+    schedule.setLastError(
+        message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+    return advance(schedule, now);
+  }
+
+  private Optional<Instant> advance(ScheduledTransfer schedule, Instant now) {
+    schedule.setLastExecution(now);
+    Instant next = schedule.getPeriod().next(schedule.getNextExecution());
+    if (next == null) {
+      schedule.setActive(false);
+      return Optional.empty();
+    }
+    schedule.setNextExecution(next);
+    return Optional.of(next);
+  }
+
+  /** An update without a first execution keeps the schedule's place in its cycle. */
+  private void apply(ScheduledTransfer schedule, ScheduledTransferRequest request) {
+    if (request.getAmount() <= 0) {
+      throw new InvalidAmountException();
+    }
+    checkAccountExists(schedule.getUserId(), request.getFromAccountId());
+    checkAccountExists(request.getToUserId(), request.getToAccountId());
+    schedule.setFromAccountId(request.getFromAccountId());
+    schedule.setToUserId(request.getToUserId());
+    schedule.setToAccountId(request.getToAccountId());
+    schedule.setAmount(request.getAmount());
+    schedule.setPeriod(
+        request.getPeriod() != null ? request.getPeriod() : TransferPeriod.ONCE);
+    if (request.getFirstExecution() != null) {
+      schedule.setNextExecution(request.getFirstExecution());
+    } else if (schedule.getNextExecution() == null) {
+      schedule.setNextExecution(Instant.now());
+    }
+    schedule.setActive(request.isActive());
+  }
+
+  private void checkAccountExists(long userId, long accountId) {
+    boolean exists =
+        shardRouter.inTransaction(
+            shardRouter.shardOfUser(userId),
+            status -> accountRepository.getAccountByUser_IdAndId(userId, accountId).isPresent());
+    if (!exists) {
+      throw new AccountNotFoundException();
+    }
+  }
+
+  private void publishChange(ScheduledTransfer schedule) {
+    if (schedule.isActive()) {
+      eventPublisher.publishEvent(
+          new ScheduledTransferChangedEvent(schedule.getId(), schedule.getNextExecution()));
+    }
+  }
+
+  private static TransferRequest toTransferRequest(ScheduledTransfer schedule) {
+    TransferRequest transferRequest = new TransferRequest();
+    transferRequest.setFromAccountId(schedule.getFromAccountId());
+    transferRequest.setToUserId(schedule.getToUserId());
+    transferRequest.setToAccountId(schedule.getToAccountId());
+    transferRequest.setAmount(schedule.getAmount());
+    return transferRequest;
+  }
+}
@@ -0,0 +1,255 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.dto.BalanceChangeDTO;
+import com.skypro.simplebanking.dto.StatementFormat;
+import com.skypro.simplebanking.entity.Account;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.exception.AccountNotFoundException;
+import com.skypro.simplebanking.exception.InvalidStatementRequestException;
+import com.skypro.simplebanking.history.BalanceHistoryReader;
+import com.skypro.simplebanking.repository.AccountRepository;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes account statements straight from the history cursor into the response. Rows are
+ * formatted into a fixed-size buffer as they arrive and the closing balance is the opening
+ * balance plus a running sum, so a statement of any length is written in constant memory.
+ */
+@Service
+public class StatementService {
+  private final AccountRepository accountRepository;
+  private final BalanceHistoryService balanceHistoryService;
+  private final BalanceHistoryReader balanceHistoryReader;
+  private final TransactionTemplate readTransaction;
+  private final int bufferSize;
+
+  public StatementService(
+      AccountRepository accountRepository,
+      BalanceHistoryService balanceHistoryService,
+      BalanceHistoryReader balanceHistoryReader,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.statement.buffer-size:8192}") int bufferSize) {
+    this.accountRepository = accountRepository;
+    this.balanceHistoryService = balanceHistoryService;
+    this.balanceHistoryReader = balanceHistoryReader;
+    this.readTransaction = new TransactionTemplate(transactionManager);
+    this.readTransaction.setReadOnly(true);
+    this.bufferSize = bufferSize;
+  }
+
+  /** Checks the request before the response is committed; returns the account currency. */
+  @Transactional(readOnly = true)
+  public AccountCurrency prepareStatement(long userId, Long accountId, Instant from, Instant to) {
+    if (!from.isBefore(to)) {
+      throw new InvalidStatementRequestException("Statement period should end after it starts");
+    }
+    Account account =
+        accountRepository
+            .getAccountByUser_IdAndId(userId, accountId)
+            .orElseThrow(AccountNotFoundException::new);
+    return account.getAccountCurrency();
+  }
+
+  /** Writes the changes in {@code (from, to]} framed by the opening and closing balances. */
+  public void writeStatement(
+      long accountId,
+      AccountCurrency currency,
+      Instant from,
+      Instant to,
+      StatementFormat format,
+      OutputStream outputStream)
+      throws IOException {
+    Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+    StatementWriter statementWriter =
+        format == StatementFormat.CSV
+            ? new CsvStatementWriter(writer, bufferSize)
+            : new NdjsonStatementWriter(writer, bufferSize);
+    try {
+      readTransaction.executeWithoutResult(
+          status -> {
+            long[] balance = {balanceHistoryService.balanceAt(accountId, from)};
+            statementWriter.opening(accountId, currency, from, balance[0]);
+            balanceHistoryReader.forEachChange(
+                accountId,
+                from,
+                to,
+                change -> {
+                  balance[0] += change.getDelta();
+                  statementWriter.change(change, balance[0]);
+                });
+            statementWriter.closing(accountId, currency, to, balance[0]);
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    statementWriter.flush();
+  }
+
+  private abstract static class StatementWriter {
+    private final Writer writer;
+    private final char[] buffer;
+    private int position;
+
+    StatementWriter(Writer writer, int bufferSize) {
+      this.writer = writer;
+      this.buffer = new char[bufferSize];
+    }
+
+    abstract void opening(long accountId, AccountCurrency currency, Instant at, long balance);
+
+    abstract void change(BalanceChangeDTO change, long balance);
+
+    abstract void closing(long accountId, AccountCurrency currency, Instant at, long balance);
+
+    StatementWriter append(String value) {
+      int offset = 0;
+      while (offset < value.length()) {
+        if (position == buffer.length) {
+          drain();
+        }
+        int count = Math.min(value.length() - offset, buffer.length - position);
+        value.getChars(offset, offset + count, buffer, position);
+        position += count;
+        offset += count;
+      }
+      return this;
+    }
+
+    StatementWriter append(char value) {
+      if (position == buffer.length) {
+        drain();
+      }
+      buffer[position++] = value;
+      return this;
+    }
+
+    StatementWriter append(long value) {
+      return append(Long.toString(value));
+    }
+
+    StatementWriter append(Object value) {
+      return append(String.valueOf(value));
+    }
+
+    void flush() throws IOException {
+      drain();
+      writer.flush();
+    }
+
+    private void drain() {
+      try {
+        writer.write(buffer, 0, position);
+        position = 0;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private static class CsvStatementWriter extends StatementWriter {
+    CsvStatementWriter(Writer writer, int bufferSize) {
+      super(writer, bufferSize);
+    }
+
+    @Override
+    void opening(long accountId, AccountCurrency currency, Instant at, long balance) {
+      append("account_id,currency,created_at,kind,delta,balance\n");
+      row(accountId, currency, at, "OPENING_BALANCE", "", balance);
+    }
+
+    @Override
+    void change(BalanceChangeDTO change, long balance) {
+      append(change.getAccountId())
+          .append(",,")
+          .append(change.getCreatedAt())
+          .append(',')
+          .append(change.getKind())
+          .append(',')
+          .append(change.getDelta())
+          .append(',')
+          .append(balance)
+          .append('\n');
+    }
+
+    @Override
+    void closing(long accountId, AccountCurrency currency, Instant at, long balance) {
+      row(accountId, currency, at, "CLOSING_BALANCE", "", balance);
+    }
+
+    private void row(
+        long accountId,
+        AccountCurrency currency,
+        Instant at,
+        String kind,
+        String delta,
+        long balance) {
+      append(accountId)
+          .append(',')
+          .append(currency)
+          .append(',')
+          .append(at)
+          .append(',')
+          .append(kind)
+          .append(',')
+          .append(delta)
+          .append(',')
+          .append(balance)
+          .append('\n');
+    }
+  }
+
+  private static class NdjsonStatementWriter extends StatementWriter {
+    NdjsonStatementWriter(Writer writer, int bufferSize) {
+      super(writer, bufferSize);
+    }
+
+    @Override
+    void opening(long accountId, AccountCurrency currency, Instant at, long balance) {
+      summary("opening", accountId, currency, at, balance);
+    }
+
+    @Override
+    void change(BalanceChangeDTO change, long balance) {
+      append("{\"type\":\"change\",\"createdAt\":\"")
+          .append(change.getCreatedAt())
+          .append("\",\"kind\":\"")
+          .append(change.getKind())
+          .append("\",\"delta\":")
+          .append(change.getDelta())
+          .append(",\"balance\":")
+          .append(balance)
+          .append("}\n");
+    }
+
+    @Override
+    void closing(long accountId, AccountCurrency currency, Instant at, long balance) {
+      summary("closing", accountId, currency, at, balance);
+    }
+
+    private void summary(
+        String type, long accountId, AccountCurrency currency, Instant at, long balance) {
+      append("{\"type\":\"")
+          .append(type)
+          .append("\",\"accountId\":")
+          .append(accountId)
+          .append(",\"currency\":\"")
+          .append(currency)
+          .append("\",\"at\":\"")
+          .append(at)
+          .append("\",\"balance\":")
+          .append(balance)
+          .append("}\n");
+    }
+  }
+}
@@ -1,27 +1,93 @@
 package com.skypro.simplebanking.service;
 
+import com.skypro.simplebanking.audit.AuditLog;
+import com.skypro.simplebanking.commit.GroupCommitter;
 import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.entity.BalanceChangeKind;
+import com.skypro.simplebanking.fx.FxQuote;
+import com.skypro.simplebanking.metrics.CurrencyMetrics;
+import com.skypro.simplebanking.repository.TransferRecordRepository;
+import com.skypro.simplebanking.sharding.ShardRouter;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RequestBody;
 
 @Service
 public class TransferService {
   private final AccountService accountService;
+  private final TransferRecordRepository transferRecordRepository;
+  private final CrossShardTransferService crossShardTransferService;
+  private final CurrencyMetrics currencyMetrics;
+  private final AuditLog auditLog;
+  private final ShardRouter shardRouter;
+  private final GroupCommitter groupCommitter;
 
-  public TransferService(AccountService accountService) {
+  public TransferService(
+      AccountService accountService,
+      TransferRecordRepository transferRecordRepository,
+      CrossShardTransferService crossShardTransferService,
+      CurrencyMetrics currencyMetrics,
+      AuditLog auditLog,
+      ShardRouter shardRouter,
+      GroupCommitter groupCommitter) {
     this.accountService = accountService;
+    this.transferRecordRepository = transferRecordRepository;
+    this.crossShardTransferService = crossShardTransferService;
+    this.currencyMetrics = currencyMetrics;
+    this.auditLog = auditLog;
+    this.shardRouter = shardRouter;
+    this.groupCommitter = groupCommitter;
   }
 
-  @Transactional
+  /**
+   * Transfers between users of one shard run in one local transaction, which joins the caller's
+   * transaction when that is on the same shard and otherwise may be shared with concurrent
+   * transfers by the {@link GroupCommitter}. Transfers to another shard run as a saga. Between
+   * accounts in different currencies the credited amount is converted with the current rates.
+   */
   public void transfer(long id, @RequestBody TransferRequest transferRequest) {
-    accountService.validateCurrency(
-        transferRequest.getFromAccountId(), transferRequest.getToAccountId());
+    int shard = shardRouter.shardOfUser(id);
+    if (shard != shardRouter.shardOfUser(transferRequest.getToUserId())) {
+      crossShardTransferService.transfer(id, transferRequest);
+      return;
+    }
+    groupCommitter.execute(
+        shard,
+        () -> {
+          transferLocally(id, transferRequest);
+          return null;
+        });
+  }
+
+  private void transferLocally(long id, TransferRequest transferRequest) {
+    FxQuote quote =
+        accountService.quoteTransfer(
+            transferRequest.getFromAccountId(),
+            transferRequest.getToAccountId(),
+            transferRequest.getAmount());
     accountService.withdrawFromAccount(
-        id, transferRequest.getFromAccountId(), transferRequest.getAmount());
+        id,
+        transferRequest.getFromAccountId(),
+        transferRequest.getAmount(),
+        BalanceChangeKind.TRANSFER_OUT);
     accountService.depositToAccount(
         transferRequest.getToUserId(),
         transferRequest.getToAccountId(),
-        transferRequest.getAmount());
+        quote.getToAmount(),
+        BalanceChangeKind.TRANSFER_IN);
+    if (quote.isConversion()) {
+      currencyMetrics.exchanged(
+          quote.getFromCurrency(),
+          transferRequest.getAmount(),
+          quote.getToCurrency(),
+          quote.getToAmount());
+    }
+    transferRecordRepository.insert(transferRequest, quote);
+    auditLog.transferred(
+        id,
+        transferRequest.getFromAccountId(),
+        transferRequest.getToUserId(),
+        transferRequest.getToAccountId(),
+        transferRequest.getAmount(),
+        quote.getToAmount());
   }
 }
@@ -1,15 +1,31 @@
 package com.skypro.simplebanking.service;
 
+import com.skypro.simplebanking.audit.AuditLog;
+import com.skypro.simplebanking.dto.AccountDTO;
 import com.skypro.simplebanking.dto.BankingUserDetails;
+import com.skypro.simplebanking.dto.ListAccountDTO;
 import com.skypro.simplebanking.dto.ListUserDTO;
 import com.skypro.simplebanking.dto.UserDTO;
+import com.skypro.simplebanking.dto.UserField;
+import com.skypro.simplebanking.dto.UserSummary;
 import com.skypro.simplebanking.entity.User;
+import com.skypro.simplebanking.exception.RequestTooLargeException;
 import com.skypro.simplebanking.exception.UserAlreadyExistsException;
 import com.skypro.simplebanking.repository.UserRepository;
+import com.skypro.simplebanking.repository.UserWriteRepository;
+import com.skypro.simplebanking.search.UserCreatedEvent;
+import com.skypro.simplebanking.search.UsernameIndex;
+import com.skypro.simplebanking.sharding.ShardRouter;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -17,48 +33,133 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
   private final UserRepository userRepository;
+  private final UserWriteRepository userWriteRepository;
   private final AccountService accountService;
   private final PasswordEncoder passwordEncoder;
+  private final UsernameIndex usernameIndex;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ShardRouter shardRouter;
+  private final AuditLog auditLog;
+  private final int maxSearchLimit;
 
   public UserService(
       UserRepository userRepository,
+      UserWriteRepository userWriteRepository,
       AccountService accountService,
-      PasswordEncoder passwordEncoder) {
+      PasswordEncoder passwordEncoder,
+      UsernameIndex usernameIndex,
+      ApplicationEventPublisher eventPublisher,
+      ShardRouter shardRouter,
+      AuditLog auditLog,
+      @Value("${app.user-search.max-limit:100}") int maxSearchLimit) {
     this.userRepository = userRepository;
+    this.userWriteRepository = userWriteRepository;
     this.accountService = accountService;
     this.passwordEncoder = passwordEncoder;
+    this.usernameIndex = usernameIndex;
+    this.eventPublisher = eventPublisher;
+    this.shardRouter = shardRouter;
+    this.auditLog = auditLog;
+    this.maxSearchLimit = maxSearchLimit;
   }
 
   @Override
-  @Transactional(readOnly = true)
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    return userRepository
-        .findByUsername(username)
-        .map(BankingUserDetails::from)
+    return shardRouter
+        .inTransaction(
+            shardRouter.shardOfUsername(username),
+            status -> userRepository.findUserDetailsByUsername(username))
         .orElseThrow(() -> new UsernameNotFoundException("User not found"));
   }
 
-  @Transactional
+  /**
+   * Called after a successful login whose stored hash has an outdated cost or format, with the
+   * password already rehashed by the current encoder.
+   */
+  @Override
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+    String username = user.getUsername();
+    shardRouter.inTransaction(
+        shardRouter.shardOfUsername(username),
+        status -> {
+          userWriteRepository.updatePassword(username, newPassword);
+          return null;
+        });
+    return ((BankingUserDetails) user).withPassword(newPassword);
+  }
+
+  /**
+   * Creates the user on the shard its username hashes to, so that uniqueness is still enforced by
+   * that shard's index and the login lookup knows where to look.
+   */
   public UserDTO createUser(String username, String password) {
-    Optional<User> existingUser = userRepository.findByUsername(username);
-    if (existingUser.isPresent()) {
-      throw new UserAlreadyExistsException();
-    }
-    User user = new User();
-    user.setUsername(username);
-    user.setPassword(passwordEncoder.encode(password));
-    userRepository.save(user);
-    accountService.createDefaultAccounts(user);
-    return UserDTO.from(user);
+    String encodedPassword = passwordEncoder.encode(password);
+    int shard = shardRouter.shardOfUsername(username);
+    return shardRouter.inTransaction(
+        shard,
+        status -> {
+          long userId =
+              userWriteRepository
+                  .insertIfAbsent(username, encodedPassword, shard, shardRouter.getShardCount())
+                  .orElseThrow(UserAlreadyExistsException::new);
+          User user = new User();
+          user.setId(userId);
+          user.setUsername(username);
+          accountService.createDefaultAccounts(user);
+          auditLog.userCreated(userId);
+          eventPublisher.publishEvent(new UserCreatedEvent(user.getId(), user.getUsername()));
+          return UserDTO.from(user);
+        });
   }
+
   @Transactional(readOnly = true)
   public UserDTO getUser(long id) {
-    return userRepository.findById(id).map(UserDTO::from).orElseThrow();
+    return getUser(id, EnumSet.allOf(UserField.class));
   }
+
+  /** Runs only the queries the selected fields need; the user id is already known. */
   @Transactional(readOnly = true)
+  public UserDTO getUser(long id, Set<UserField> fields) {
+    String username = null;
+    if (fields.contains(UserField.USERNAME)) {
+      username = userRepository.findSummaryById(id).orElseThrow().getUsername();
+    }
+    List<AccountDTO> accounts =
+        fields.contains(UserField.ACCOUNTS) ? accountService.getUserAccounts(id) : null;
+    return new UserDTO(fields.contains(UserField.ID) ? id : null, username, accounts);
+  }
+
   public List<ListUserDTO> listUsers() {
-    return userRepository.findAll().stream().map(ListUserDTO::from).collect(Collectors.toList());
+    return listUsers(EnumSet.allOf(UserField.class));
+  }
+
+  public List<ListUserDTO> listUsers(Set<UserField> fields) {
+    List<ListUserDTO> users = new ArrayList<>();
+    for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+      users.addAll(shardRouter.inTransaction(shard, status -> listShardUsers(fields)));
+    }
+    return users;
+  }
+
+  private List<ListUserDTO> listShardUsers(Set<UserField> fields) {
+    Map<Long, List<ListAccountDTO>> accounts =
+        fields.contains(UserField.ACCOUNTS) ? accountService.listAccountsByUser() : null;
+    return userRepository.findAllSummaries().stream()
+        .map(
+            user ->
+                new ListUserDTO(
+                    fields.contains(UserField.ID) ? user.getId() : null,
+                    fields.contains(UserField.USERNAME) ? user.getUsername() : null,
+                    accounts == null ? null : accounts.getOrDefault(user.getId(), List.of())))
+        .collect(Collectors.toList());
+  }
+
+  public List<UserSummary> searchUsers(String prefix, int limit) {
+    if (limit < 1 || limit > maxSearchLimit) {
+      throw new RequestTooLargeException("Limit should be between 1 and " + maxSearchLimit);
+    }
+    return usernameIndex.search(prefix, limit);
   }
 }
@@ -0,0 +1,50 @@
+package com.skypro.simplebanking.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the shard the current thread works on. The routing data source reads it whenever a
+ * connection is opened, so it has to be set before a transaction or a query starts. Threads that
+ * never set it work on shard 0.
+ */
+public final class ShardContext {
+  private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+  private ShardContext() {}
+
+  public static int current() {
+    Integer shard = CURRENT.get();
+    return shard == null ? 0 : shard;
+  }
+
+  public static void enter(int shard) {
+    CURRENT.set(shard);
+  }
+
+  public static void clear() {
+    CURRENT.remove();
+  }
+
+  public static <T> T call(int shard, Supplier<T> work) {
+    Integer previous = CURRENT.get();
+    CURRENT.set(shard);
+    try {
+      return work.get();
+    } finally {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+
+  public static void run(int shard, Runnable work) {
+    call(
+        shard,
+        () -> {
+          work.run();
+          return null;
+        });
+  }
+}
@@ -0,0 +1,80 @@
+package com.skypro.simplebanking.sharding;
+
+import com.skypro.simplebanking.configuration.ShardingProperties;
+import java.util.function.IntConsumer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maps users to shards. A user lives on the shard its username hashes to, and its id is
+ * allocated so that the same shard can be derived from the id alone; all accounts of a user live
+ * on the user's shard. With sharding disabled there is one shard and every user maps to it.
+ *
+ * <p>A transaction is bound to the shard it started on, so work for another shard runs in a new
+ * transaction of its own.
+ *
+ * <p>The number and order of shards is fixed once users exist. The shard of a user is {@code
+ * floorMod(username.hashCode(), shardCount)} and its id is {@code sequenceValue * shardCount +
+ * shard}, neither of which is stored anywhere else. Adding, removing or reordering entries of
+ * {@code app.sharding.shards}, or enabling sharding on a database that already has users, sends
+ * logins to shards that do not hold the user and decodes existing ids to the wrong shard. Growing
+ * the cluster therefore needs an offline migration that moves every user and renumbers its ids,
+ * or a directory table that records the shard of each user.
+ */
+@Component
+public class ShardRouter {
+  private final int shardCount;
+  private final TransactionTemplate joiningTransaction;
+  private final TransactionTemplate newTransaction;
+
+  public ShardRouter(
+      ShardingProperties properties, PlatformTransactionManager transactionManager) {
+    if (properties.isEnabled() && properties.getShards().isEmpty()) {
+      throw new IllegalStateException("Sharding is enabled but no shards are configured");
+    }
+    this.shardCount = properties.isEnabled() ? properties.getShards().size() : 1;
+    this.joiningTransaction = new TransactionTemplate(transactionManager);
+    this.newTransaction = new TransactionTemplate(transactionManager);
+    this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  public int getShardCount() {
+    return shardCount;
+  }
+
+  public int shardOfUser(long userId) {
+    return (int) Math.floorMod(userId, (long) shardCount);
+  }
+
+  public int shardOfUsername(String username) {
+    return Math.floorMod(username.hashCode(), shardCount);
+  }
+
+  /** Turns a value of the shard's user sequence into a user id that maps back to the shard. */
+  public long userId(long sequenceValue, int shard) {
+    return sequenceValue * shardCount + shard;
+  }
+
+  /** Runs the work on the shard, joining the current transaction if it is on the same shard. */
+  public <T> T inTransaction(int shard, TransactionCallback<T> work) {
+    if (shard == ShardContext.current()) {
+      return joiningTransaction.execute(work);
+    }
+    return inNewTransaction(shard, work);
+  }
+
+  /** Runs the work on the shard in a transaction that commits on its own. */
+  public <T> T inNewTransaction(int shard, TransactionCallback<T> work) {
+    return ShardContext.call(shard, () -> newTransaction.execute(work));
+  }
+
+  public void forEachShard(IntConsumer work) {
+    for (int shard = 0; shard < shardCount; shard++) {
+      int current = shard;
+      ShardContext.run(shard, () -> work.accept(current));
+    }
+  }
+}
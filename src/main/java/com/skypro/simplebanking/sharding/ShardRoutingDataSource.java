@@ -0,0 +1,24 @@
+package com.skypro.simplebanking.sharding;
+
+import java.io.Closeable;
+import java.io.IOException;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/** Hands out connections of the shard in {@link ShardContext}. */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return ShardContext.current();
+  }
+
+  @Override
+  public void destroy() throws IOException {
+    for (DataSource dataSource : getResolvedDataSources().values()) {
+      if (dataSource instanceof Closeable) {
+        ((Closeable) dataSource).close();
+      }
+    }
+  }
+}
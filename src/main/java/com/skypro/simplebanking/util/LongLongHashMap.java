@@ -0,0 +1,124 @@
+package com.skypro.simplebanking.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from {@code long} to {@code long} without boxing. Missing keys read as
+ * zero, which is what balance deltas need.
+ */
+public class LongLongHashMap {
+  private static final int MIN_CAPACITY = 16;
+
+  private long[] keys;
+  private long[] values;
+  private boolean[] used;
+  private int size;
+
+  public LongLongHashMap() {
+    this(MIN_CAPACITY);
+  }
+
+  public LongLongHashMap(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < expectedSize * 2) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  public long get(long key) {
+    int slot = find(key);
+    return slot >= 0 ? values[slot] : 0L;
+  }
+
+  public boolean containsKey(long key) {
+    return find(key) >= 0;
+  }
+
+  public void put(long key, long value) {
+    int slot = insertionSlot(key);
+    values[slot] = value;
+  }
+
+  public long addTo(long key, long delta) {
+    int slot = insertionSlot(key);
+    values[slot] += delta;
+    return values[slot];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public long[] keys() {
+    long[] result = new long[size];
+    int index = 0;
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (used[slot]) {
+        result[index++] = keys[slot];
+      }
+    }
+    return result;
+  }
+
+  public long[] sortedKeys() {
+    long[] result = keys();
+    Arrays.sort(result);
+    return result;
+  }
+
+  private int find(long key) {
+    int mask = keys.length - 1;
+    int slot = hash(key) & mask;
+    while (used[slot]) {
+      if (keys[slot] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private int insertionSlot(long key) {
+    if ((size + 1) * 2 > keys.length) {
+      resize();
+    }
+    int mask = keys.length - 1;
+    int slot = hash(key) & mask;
+    while (used[slot]) {
+      if (keys[slot] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    used[slot] = true;
+    keys[slot] = key;
+    values[slot] = 0L;
+    size++;
+    return slot;
+  }
+
+  private void resize() {
+    long[] oldKeys = keys;
+    long[] oldValues = values;
+    boolean[] oldUsed = used;
+    allocate(keys.length * 2);
+    for (int slot = 0; slot < oldKeys.length; slot++) {
+      if (oldUsed[slot]) {
+        put(oldKeys[slot], oldValues[slot]);
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new long[capacity];
+    used = new boolean[capacity];
+    size = 0;
+  }
+
+  private static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
@@ -0,0 +1,82 @@
+create sequence if not exists user_sequence start 1 increment 50;
+create sequence if not exists account_sequence start 1 increment 50;
+create sequence if not exists scheduled_transfer_sequence start 1 increment 50;
+
+create table if not exists users (
+    id bigint not null primary key,
+    username varchar(255),
+    password varchar(255)
+);
+
+create table if not exists accounts (
+    id bigint not null primary key,
+    account_currency integer,
+    amount bigint,
+    user_id bigint not null,
+    constraint accounts_user_fk foreign key (user_id) references users (id)
+);
+
+create table if not exists scheduled_transfers (
+    id bigint not null primary key,
+    user_id bigint not null,
+    from_account_id bigint,
+    to_user_id bigint,
+    to_account_id bigint,
+    amount bigint,
+    period integer,
+    next_execution timestamp,
+    last_execution timestamp,
+    last_error varchar(255),
+    active boolean not null
+);
+create index if not exists scheduled_transfers_due_idx on scheduled_transfers (active, next_execution);
+create index if not exists scheduled_transfers_user_idx on scheduled_transfers (user_id);
+
+create table if not exists transfer_records (
+    id bigserial primary key,
+    from_account_id bigint not null,
+    to_account_id bigint not null,
+    amount bigint not null,
+    netted boolean not null default false,
+    created_at timestamp with time zone not null
+);
+create index if not exists transfer_records_from_idx on transfer_records (from_account_id, created_at);
+create index if not exists transfer_records_to_idx on transfer_records (to_account_id, created_at);
+
+create table if not exists balance_changes (
+    id bigserial,
+    account_id bigint not null,
+    delta bigint not null,
+    kind varchar(16) not null,
+    created_at timestamp with time zone not null,
+    primary key (id, created_at)
+) partition by range (created_at);
+create table if not exists balance_changes_default partition of balance_changes default;
+create index if not exists balance_changes_account_idx on balance_changes (account_id, created_at);
+create index if not exists balance_changes_created_idx on balance_changes (created_at);
+
+create table if not exists balance_checkpoints (
+    account_id bigint not null,
+    taken_at timestamp with time zone not null,
+    balance bigint not null,
+    primary key (account_id, taken_at)
+);
+
+create table if not exists history_segments (
+    partition_name varchar(64) primary key,
+    range_start timestamp with time zone not null,
+    range_end timestamp with time zone not null,
+    file_path varchar(1024) not null,
+    row_count bigint not null,
+    archived_at timestamp with time zone not null,
+    partition_dropped boolean not null default false
+);
+
+create table if not exists currency_metrics_checkpoints (
+    currency varchar(8) primary key,
+    taken_at timestamp with time zone not null,
+    deposit_total bigint not null,
+    withdrawal_total bigint not null,
+    transfer_volume bigint not null,
+    transfer_count bigint not null
+);
@@ -0,0 +1,4 @@
+-- Fails if duplicate usernames already exist; they have to be resolved before upgrading.
+create unique index if not exists users_username_key on users (username);
+create index if not exists users_username_prefix_idx on users (username varchar_pattern_ops);
+create index if not exists accounts_user_id_idx on accounts (user_id, id);
@@ -0,0 +1,23 @@
+-- Cross-shard transfers: the saga lives on the sender's shard, the credit marker on the recipient's.
+create table if not exists transfer_sagas (
+    id bigserial primary key,
+    from_user_id bigint not null,
+    from_account_id bigint not null,
+    to_user_id bigint not null,
+    to_account_id bigint not null,
+    amount bigint not null,
+    currency varchar(8) not null,
+    state varchar(16) not null,
+    error varchar(255),
+    created_at timestamp with time zone not null,
+    updated_at timestamp with time zone not null
+);
+create index if not exists transfer_sagas_pending_idx on transfer_sagas (updated_at)
+    where state = 'DEBITED';
+
+create table if not exists transfer_saga_credits (
+    source_shard integer not null,
+    saga_id bigint not null,
+    created_at timestamp with time zone not null,
+    primary key (source_shard, saga_id)
+);
@@ -0,0 +1,12 @@
+-- Cross-currency transfers record the credited amount and the rate snapshot that priced them.
+alter table transfer_records add column if not exists to_amount bigint;
+alter table transfer_records add column if not exists fx_rate numeric(30, 12);
+alter table transfer_records add column if not exists fx_version bigint;
+
+alter table transfer_sagas add column if not exists to_currency varchar(8);
+alter table transfer_sagas add column if not exists to_amount bigint;
+alter table transfer_sagas add column if not exists fx_rate numeric(30, 12);
+alter table transfer_sagas add column if not exists fx_version bigint;
+update transfer_sagas set to_currency = currency, to_amount = amount where to_currency is null;
+alter table transfer_sagas alter column to_currency set not null;
+alter table transfer_sagas alter column to_amount set not null;
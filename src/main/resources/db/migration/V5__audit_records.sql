@@ -0,0 +1,12 @@
+-- Append-only audit trail written in batches by the background audit writer.
+create table if not exists audit_records (
+    id bigserial primary key,
+    occurred_at timestamp with time zone not null,
+    action varchar(16) not null,
+    user_id bigint not null,
+    account_id bigint not null,
+    target_user_id bigint not null,
+    target_account_id bigint not null,
+    amount bigint not null
+);
+create index if not exists audit_records_occurred_at_idx on audit_records (occurred_at);
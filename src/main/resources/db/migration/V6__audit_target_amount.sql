@@ -0,0 +1,3 @@
+-- Amount credited to the target account in its own currency, which differs from the debited
+-- amount for cross-currency transfers. Records written before this column existed keep 0.
+alter table audit_records add column if not exists target_amount bigint not null default 0;
@@ -0,0 +1,8 @@
+-- Store the period by name, so that adding or reordering periods cannot change stored schedules.
+alter table scheduled_transfers alter column period type varchar(16) using (
+    case period
+        when 0 then 'ONCE'
+        when 1 then 'DAILY'
+        when 2 then 'WEEKLY'
+        when 3 then 'MONTHLY'
+    end);
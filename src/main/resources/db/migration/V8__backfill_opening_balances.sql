@@ -0,0 +1,21 @@
+-- Accounts opened before balance history existed have no OPENING change, so their history does
+-- not add up to their balance and reconciliation reports every one of them. The unexplained part
+-- of the balance is recorded as an OPENING change dated just before the account's first recorded
+-- change, and the account's checkpoints, which were carried forward from zero, are shifted by the
+-- same amount. History already archived to segment files is not visible to this migration; if any
+-- partition was archived before it ran, reconcile afterwards and correct the reported accounts.
+create temporary table opening_backfill on commit drop as
+select a.id as account_id,
+       coalesce(a.amount, 0) - coalesce(h.total, 0) as delta,
+       coalesce(h.first_change, now()) - interval '1 microsecond' as created_at
+from accounts a
+left join (select account_id, sum(delta) as total, min(created_at) as first_change
+           from balance_changes group by account_id) h on h.account_id = a.id
+where not exists (select 1 from balance_changes o where o.account_id = a.id and o.kind = 'OPENING');
+
+insert into balance_changes (account_id, delta, kind, created_at)
+select account_id, delta, 'OPENING', created_at from opening_backfill;
+
+update balance_checkpoints c set balance = c.balance + b.delta
+from opening_backfill b
+where c.account_id = b.account_id;
@@ -0,0 +1,4 @@
+-- Prefix search matches and orders usernames by code point, whatever the database collation, so
+-- the result order and page boundaries are the same on every shard and after merging them.
+create index if not exists users_username_c_idx on users (username collate "C");
+drop index if exists users_username_prefix_idx;
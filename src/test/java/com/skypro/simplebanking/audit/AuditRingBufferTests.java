@@ -0,0 +1,138 @@
+package com.skypro.simplebanking.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AuditRingBufferTests {
+    private static final long NO_WAIT = 0;
+    private static final long FOREVER = Long.MAX_VALUE;
+
+    private static void publish(AuditRingBuffer ring, long sequence, long userId, long amount) {
+        ring.publish(sequence, AuditAction.DEPOSIT, 0, userId, 1, 0, 0, amount, 0);
+    }
+
+    @Test
+    public void drainTo_WrapsAroundTheRing() {
+        AuditRingBuffer ring = new AuditRingBuffer(4);
+        AuditBatch batch = new AuditBatch(8);
+        long amount = 0;
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                publish(ring, ring.claim(NO_WAIT), 1, amount++);
+            }
+            batch.clear();
+            assertThat(ring.drainTo(batch)).isEqualTo(3);
+            for (int i = 0; i < 3; i++) {
+                assertThat(batch.getAmount(i)).isEqualTo(amount - 3 + i);
+            }
+        }
+        assertThat(ring.size()).isZero();
+        assertThat(ring.getPublished()).isEqualTo(30);
+    }
+
+    @Test
+    public void claim_WhenFull_FailsAfterTheWait() {
+        AuditRingBuffer ring = new AuditRingBuffer(2);
+        publish(ring, ring.claim(NO_WAIT), 1, 1);
+        publish(ring, ring.claim(NO_WAIT), 1, 2);
+
+        long start = System.nanoTime();
+        assertThat(ring.claim(TimeUnit.MILLISECONDS.toNanos(20))).isEqualTo(-1);
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(ring.getSaturations()).isEqualTo(1);
+        assertThat(ring.getRejected()).isEqualTo(1);
+
+        assertThat(ring.drainTo(new AuditBatch(2))).isEqualTo(2);
+        assertThat(ring.claim(NO_WAIT)).isEqualTo(2);
+    }
+
+    @Test
+    public void claim_WhenFull_WaitsForTheConsumer() throws Exception {
+        AuditRingBuffer ring = new AuditRingBuffer(2);
+        publish(ring, ring.claim(NO_WAIT), 1, 1);
+        publish(ring, ring.claim(NO_WAIT), 1, 2);
+        ExecutorService producer = Executors.newSingleThreadExecutor();
+        try {
+            Future<Long> claimed = producer.submit(() -> ring.claim(FOREVER));
+            Thread.sleep(50);
+            assertThat(claimed.isDone()).isFalse();
+            ring.drainTo(new AuditBatch(1));
+            assertThat(claimed.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+            assertThat(ring.getRejected()).isZero();
+        } finally {
+            producer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void drainTo_StopsAtUnpublishedSlotsAndPassesSkippedOnes() {
+        AuditRingBuffer ring = new AuditRingBuffer(8);
+        long first = ring.claim(NO_WAIT);
+        long second = ring.claim(NO_WAIT);
+        long third = ring.claim(NO_WAIT);
+        publish(ring, third, 3, 3);
+        ring.skip(second);
+        AuditBatch batch = new AuditBatch(8);
+        assertThat(ring.drainTo(batch)).isZero();
+
+        publish(ring, first, 1, 1);
+        assertThat(ring.drainTo(batch)).isEqualTo(2);
+        assertThat(batch.getUserId(0)).isEqualTo(1);
+        assertThat(batch.getUserId(1)).isEqualTo(3);
+        assertThat(ring.size()).isZero();
+    }
+
+    @Test
+    public void publish_FromManyProducers_KeepsEachProducersOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 10_000;
+        AuditRingBuffer ring = new AuditRingBuffer(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int p = 0; p < producers; p++) {
+                long userId = p;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        publish(ring, ring.claim(FOREVER), userId, i);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            long[] next = new long[producers];
+            int received = 0;
+            AuditBatch batch = new AuditBatch(16);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (received < producers * perProducer) {
+                assertThat(System.nanoTime()).isLessThan(deadline);
+                batch.clear();
+                ring.drainTo(batch);
+                for (int i = 0; i < batch.size(); i++) {
+                    int producer = (int) batch.getUserId(i);
+                    assertThat(batch.getAmount(i)).isEqualTo(next[producer]);
+                    next[producer]++;
+                }
+                received += batch.size();
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            assertThat(next).containsOnly(perProducer);
+            assertThat(ring.getRejected()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.skypro.simplebanking.commit;
+
+import com.skypro.simplebanking.configuration.ShardingProperties;
+import com.skypro.simplebanking.exception.CommitOutcomeUnknownException;
+import com.skypro.simplebanking.sharding.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import javax.persistence.EntityManager;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Runs the committer against a transaction manager whose commits fail as scripted. */
+public class GroupCommitterTests {
+    private GroupCommitter committer;
+
+    @AfterEach
+    public void stop() throws InterruptedException {
+        committer.stop();
+    }
+
+    private GroupCommitter committer(RuntimeException... commitFailures) {
+        ScriptedTransactionManager transactionManager =
+                new ScriptedTransactionManager(List.of(commitFailures));
+        EntityManager entityManager = (EntityManager) Proxy.newProxyInstance(
+                EntityManager.class.getClassLoader(), new Class<?>[] {EntityManager.class},
+                (proxy, method, args) -> null);
+        GroupCommitter committer = new GroupCommitter(
+                new ShardRouter(new ShardingProperties(), transactionManager),
+                new NoConnectionJdbcTemplate(), entityManager, transactionManager,
+                true, 1, 64, 100, 1_000);
+        committer.start();
+        return committer;
+    }
+
+    @Test
+    public void execute_WhenCommitFails_ReportsUnknownOutcomeWithoutRunningAgain() {
+        committer = committer(new TransactionSystemException("connection lost during commit"));
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThatThrownBy(() -> committer.execute(0, runs::incrementAndGet))
+                .isInstanceOf(CommitOutcomeUnknownException.class);
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void execute_WhenGroupRolledBack_RunsWorkAgainAlone() {
+        committer = committer(new UnexpectedRollbackException("marked rollback-only"));
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(committer.execute(0, runs::incrementAndGet)).isEqualTo(2);
+        assertThat(runs.get()).isEqualTo(2);
+    }
+
+    private static class ScriptedTransactionManager extends AbstractPlatformTransactionManager {
+        private final Deque<RuntimeException> commitFailures;
+
+        ScriptedTransactionManager(List<RuntimeException> commitFailures) {
+            this.commitFailures = new ArrayDeque<>(commitFailures);
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) throws TransactionException {
+            RuntimeException failure = commitFailures.poll();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+    /** Savepoints are taken and released on the connection; there is none here. */
+    private static class NoConnectionJdbcTemplate extends JdbcTemplate {
+        @Override
+        public <T> T execute(ConnectionCallback<T> action) {
+            return null;
+        }
+    }
+}
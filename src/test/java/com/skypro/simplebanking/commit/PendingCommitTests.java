@@ -0,0 +1,53 @@
+package com.skypro.simplebanking.commit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PendingCommitTests {
+    private static final long TIMEOUT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void await_WhenCommitted_ReturnsResultOfWork() throws Exception {
+        PendingCommit<String> commit = new PendingCommit<>(0, () -> "done");
+        assertThat(commit.start()).isTrue();
+        commit.run();
+        assertThat(commit.isDone()).isFalse();
+        commit.complete();
+        assertThat(commit.await(TIMEOUT)).isEqualTo("done");
+    }
+
+    @Test
+    public void await_WhenFailed_RethrowsError() {
+        PendingCommit<String> commit = new PendingCommit<>(0, () -> "done");
+        commit.fail(new IllegalArgumentException("rejected"));
+        assertThatThrownBy(() -> commit.await(TIMEOUT))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("rejected");
+    }
+
+    @Test
+    public void await_WhenNotCommittedInTime_TimesOut() {
+        PendingCommit<String> commit = new PendingCommit<>(0, () -> "done");
+        assertThatThrownBy(() -> commit.await(TIMEOUT)).isInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    public void abandon_WhenNotStarted_KeepsCommitterFromRunningIt() {
+        PendingCommit<String> commit = new PendingCommit<>(0, () -> "done");
+        assertThat(commit.abandon()).isTrue();
+        assertThat(commit.start()).isFalse();
+    }
+
+    @Test
+    public void abandon_WhenStarted_Fails() {
+        PendingCommit<String> commit = new PendingCommit<>(0, () -> "done");
+        assertThat(commit.start()).isTrue();
+        assertThat(commit.abandon()).isFalse();
+        assertThat(commit.start()).as("retried alone after the group failed").isTrue();
+    }
+}
@@ -0,0 +1,68 @@
+package com.skypro.simplebanking.controller;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.Base64Utils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Runs with a write budget that admits nothing, so every money-moving request is shed. */
+@SpringBootTest(properties = {
+        "app.admission.retry-after=2s",
+        "app.admission.write.initial-limit=0",
+        "app.admission.write.min-limit=0",
+        "app.admission.write.max-limit=0",
+        "app.admission.write.queue-size=0"})
+@AutoConfigureMockMvc
+@Testcontainers
+public class AdmissionControlIntegrationTests {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withUsername("postgres")
+            .withPassword("73aberiv");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    /** The credentials are wrong: a 503 rather than a 401 shows the request never reached them. */
+    @Test
+    public void depositToAccount_WhenOverloaded_RejectsBeforeAuthentication() throws Exception {
+        String credentials = Base64Utils.encodeToString("Nobody:wrong".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(post("/account/deposit/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + credentials)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONObject().put("amount", 1L).toString()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+    }
+
+    @Test
+    public void getMe_WhenWritesOverloaded_IsStillAdmitted() throws Exception {
+        mockMvc.perform(get("/user/me"))
+                .andExpect(status().isUnauthorized());
+    }
+}
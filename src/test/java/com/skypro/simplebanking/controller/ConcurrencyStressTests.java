@@ -0,0 +1,312 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.PayoutItem;
+import com.skypro.simplebanking.dto.PayoutRequest;
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.entity.Account;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.exception.InsufficientFundsException;
+import com.skypro.simplebanking.repository.AccountRepository;
+import com.skypro.simplebanking.repository.UserRepository;
+import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.PayoutService;
+import com.skypro.simplebanking.service.TransferService;
+import com.skypro.simplebanking.service.UserService;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers the same accounts with random deposits, withdrawals, transfers and payouts from many
+ * threads, each in a transaction that pauses at random before and after the operation, and then checks
+ * that money is conserved per currency, that no balance went negative and that no update was
+ * lost. Payouts change balances with set-based JDBC updates while the other operations go
+ * through JPA entities, so the two write paths race on the same rows. Operations failing on a deadlock or lock conflict are retried; throughput, deadlocks and
+ * retries are logged so that locking strategies can be compared.
+ */
+@SpringBootTest
+@Testcontainers
+public class ConcurrencyStressTests {
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyStressTests.class);
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 200;
+    private static final int MAX_ATTEMPTS = 10;
+    private static final int MAX_PAUSE_MILLIS = 3;
+    private static final long INITIAL_BALANCE = 10_000L;
+    private static final int MAX_AMOUNT = 1_000;
+    private static final String DEADLOCK = "40P01";
+    private static final String SERIALIZATION_FAILURE = "40001";
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+    private static final AtomicInteger runs = new AtomicInteger();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private PayoutService payoutService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withUsername("postgres")
+            .withPassword("73aberiv");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    private static class StressAccount {
+        final long userId;
+        final long accountId;
+        final AccountCurrency currency;
+
+        StressAccount(long userId, Account account) {
+            this.userId = userId;
+            this.accountId = account.getId();
+            this.currency = account.getAccountCurrency();
+        }
+    }
+
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder deadlocks = new LongAdder();
+    private final LongAdder lockFailures = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    /** Runs against a handful of hot accounts and against accounts spread over more users. */
+    @ParameterizedTest
+    @ValueSource(ints = {2, 16})
+    public void moneyMovement_KeepsInvariants(int users) throws Exception {
+        long seed = System.nanoTime();
+        log.info("Stress run with {} users, seed {}", users, seed);
+        int run = runs.incrementAndGet();
+        List<StressAccount> accounts = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String username = "stress" + run + "x" + i;
+            userService.createUser(username, "password");
+            long userId = userRepository.findByUsername(username).orElseThrow().getId();
+            for (Account account : accountRepository.findByUserId(userId)) {
+                accountService.depositToAccount(userId, account.getId(), INITIAL_BALANCE - account.getAmount());
+                accounts.add(new StressAccount(userId, account));
+            }
+        }
+        Map<AccountCurrency, List<StressAccount>> byCurrency = new EnumMap<>(AccountCurrency.class);
+        Map<Long, LongAdder> expected = new ConcurrentHashMap<>();
+        for (StressAccount account : accounts) {
+            byCurrency.computeIfAbsent(account.currency, currency -> new ArrayList<>()).add(account);
+            LongAdder balance = new LongAdder();
+            balance.add(INITIAL_BALANCE);
+            expected.put(account.accountId, balance);
+        }
+        Map<AccountCurrency, Long> totalsBefore = totalsByCurrency(accounts);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        long startedAt;
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                Random random = new Random(seed + t);
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        runOperation(random, accounts, byCurrency, expected);
+                    }
+                    return null;
+                }));
+            }
+            startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+
+        log.info("Stress run with {} users: {} committed, {} rejected in {} ms ({} ops/s),"
+                        + " {} deadlocks, {} lock failures, {} retries",
+                users, committed.sum(), rejected.sum(), elapsedMillis,
+                committed.sum() * 1000 / elapsedMillis, deadlocks.sum(), lockFailures.sum(), retries.sum());
+
+        Map<AccountCurrency, Long> totalsAfter = totalsByCurrency(accounts);
+        Map<AccountCurrency, Long> expectedTotals = new EnumMap<>(AccountCurrency.class);
+        for (StressAccount account : accounts) {
+            expectedTotals.merge(account.currency, expected.get(account.accountId).sum(), Long::sum);
+        }
+        for (StressAccount account : accounts) {
+            long balance = accountRepository.findById(account.accountId).orElseThrow().getAmount();
+            assertThat(balance).as("balance of account %d", account.accountId).isNotNegative();
+            assertThat(balance).as("lost update on account %d", account.accountId)
+                    .isEqualTo(expected.get(account.accountId).sum());
+        }
+        assertThat(totalsAfter).as("money per currency").isEqualTo(expectedTotals);
+        log.info("Totals per currency before {} and after {}", totalsBefore, totalsAfter);
+    }
+
+    private void runOperation(Random random, List<StressAccount> accounts,
+                              Map<AccountCurrency, List<StressAccount>> byCurrency,
+                              Map<Long, LongAdder> expected) {
+        StressAccount account = accounts.get(random.nextInt(accounts.size()));
+        long amount = 1 + random.nextInt(MAX_AMOUNT);
+        int kind = random.nextInt(4);
+        List<StressAccount> sameCurrency = byCurrency.get(account.currency);
+        StressAccount other = sameCurrency.get(random.nextInt(sameCurrency.size()));
+        Runnable operation;
+        Runnable effect;
+        if (kind == 0) {
+            operation = () -> accountService.depositToAccount(account.userId, account.accountId, amount);
+            effect = () -> expected.get(account.accountId).add(amount);
+        } else if (kind == 1) {
+            operation = () -> accountService.withdrawFromAccount(account.userId, account.accountId, amount);
+            effect = () -> expected.get(account.accountId).add(-amount);
+        } else if (kind == 2) {
+            TransferRequest transferRequest = new TransferRequest();
+            transferRequest.setFromAccountId(account.accountId);
+            transferRequest.setToUserId(other.userId);
+            transferRequest.setToAccountId(other.accountId);
+            transferRequest.setAmount(amount);
+            operation = () -> transferService.transfer(account.userId, transferRequest);
+            effect = () -> {
+                expected.get(account.accountId).add(-amount);
+                expected.get(other.accountId).add(amount);
+            };
+        } else {
+            StressAccount another = sameCurrency.get(random.nextInt(sameCurrency.size()));
+            PayoutRequest payoutRequest = new PayoutRequest();
+            payoutRequest.setFromAccountId(account.accountId);
+            payoutRequest.setPayouts(List.of(payoutItem(other, amount), payoutItem(another, amount)));
+            operation = () -> payoutService.payout(account.userId, payoutRequest);
+            effect = () -> {
+                expected.get(account.accountId).add(-2 * amount);
+                expected.get(other.accountId).add(amount);
+                expected.get(another.accountId).add(amount);
+            };
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transaction.executeWithoutResult(status -> {
+                    pause();
+                    operation.run();
+                    pause();
+                });
+                effect.run();
+                committed.increment();
+                return;
+            } catch (InsufficientFundsException e) {
+                rejected.increment();
+                return;
+            } catch (RuntimeException e) {
+                if (!isLockConflict(e) || attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                retries.increment();
+            }
+        }
+    }
+
+    private static PayoutItem payoutItem(StressAccount account, long amount) {
+        PayoutItem payout = new PayoutItem();
+        payout.setToUserId(account.userId);
+        payout.setToAccountId(account.accountId);
+        payout.setAmount(amount);
+        return payout;
+    }
+
+    private boolean isLockConflict(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                String state = ((SQLException) cause).getSQLState();
+                if (DEADLOCK.equals(state)) {
+                    deadlocks.increment();
+                    return true;
+                }
+                if (SERIALIZATION_FAILURE.equals(state) || LOCK_NOT_AVAILABLE.equals(state)) {
+                    lockFailures.increment();
+                    return true;
+                }
+            }
+        }
+        if (error instanceof PessimisticLockingFailureException) {
+            lockFailures.increment();
+            return true;
+        }
+        return false;
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(MAX_PAUSE_MILLIS + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<AccountCurrency, Long> totalsByCurrency(List<StressAccount> accounts) {
+        Map<Long, AccountCurrency> currencies = new HashMap<>();
+        for (StressAccount account : accounts) {
+            currencies.put(account.accountId, account.currency);
+        }
+        Map<AccountCurrency, Long> totals = new EnumMap<>(AccountCurrency.class);
+        jdbcTemplate.query("select id, amount from accounts", resultSet -> {
+            AccountCurrency currency = currencies.get(resultSet.getLong("id"));
+            if (currency != null) {
+                totals.merge(currency, resultSet.getLong("amount"), Long::sum);
+            }
+        });
+        return totals;
+    }
+}
@@ -0,0 +1,165 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.commit.GroupCommitter;
+import com.skypro.simplebanking.entity.Account;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.repository.AccountRepository;
+import com.skypro.simplebanking.repository.UserRepository;
+import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.UserService;
+import com.skypro.simplebanking.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures what a deposit costs when the group committer may put up to 1, 4, 16 or 64 of them
+ * into one transaction, from the same number of concurrent clients that each deposit into an
+ * account of their own, so that rows are never contended and the difference is the commit.
+ * Opt-in with {@code -Dgroup-commit-benchmark=true}; throughput and mean latency per group size
+ * are logged.
+ */
+@SpringBootTest(properties = "app.group-commit.enabled=true")
+@Testcontainers
+@EnabledIfSystemProperty(named = "group-commit-benchmark", matches = "true")
+public class GroupCommitBenchmarkTests {
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitBenchmarkTests.class);
+    private static final int CLIENTS = 64;
+    private static final int DEPOSITS_PER_CLIENT = 100;
+    private static final long WINDOW_MILLIS = 2;
+    private static final int[] GROUP_SIZES = {1, 4, 16, 64};
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withUsername("postgres")
+            .withPassword("73aberiv");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Test
+    public void deposits_ByMaximumGroupSize() throws Exception {
+        List<ClientAccount> accounts = new ArrayList<>(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            String username = "grouped" + c;
+            userService.createUser(username, "password");
+            long userId = userRepository.findByUsername(username).orElseThrow().getId();
+            Account account = accountRepository.findByUserId(userId).stream()
+                    .filter(candidate -> candidate.getAccountCurrency() == AccountCurrency.USD)
+                    .findFirst().orElseThrow();
+            accounts.add(new ClientAccount(userId, account.getId()));
+        }
+
+        Map<Integer, Long> perSecond = new LinkedHashMap<>();
+        for (int groupSize : GROUP_SIZES) {
+            perSecond.put(groupSize, measure(groupSize, accounts));
+        }
+        log.info("Deposits/s from {} clients by maximum group size: {}", CLIENTS, perSecond);
+
+        long expected = 1L + (long) GROUP_SIZES.length * DEPOSITS_PER_CLIENT;
+        for (ClientAccount account : accounts) {
+            assertThat(accountRepository.findById(account.accountId).orElseThrow().getAmount())
+                    .isEqualTo(expected);
+        }
+    }
+
+    private long measure(int groupSize, List<ClientAccount> accounts) throws Exception {
+        GroupCommitter committer = new GroupCommitter(shardRouter, jdbcTemplate, entityManager,
+                transactionManager, true, WINDOW_MILLIS, groupSize, CLIENTS, 5_000);
+        committer.start();
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> clients = new ArrayList<>();
+        long startedAt;
+        try {
+            for (ClientAccount account : accounts) {
+                clients.add(executor.submit(() -> {
+                    start.await();
+                    long waited = 0;
+                    for (int i = 0; i < DEPOSITS_PER_CLIENT; i++) {
+                        long before = System.nanoTime();
+                        committer.execute(0, () ->
+                                accountService.depositToAccount(account.userId, account.accountId, 1L));
+                        waited += System.nanoTime() - before;
+                    }
+                    return waited;
+                }));
+            }
+            startedAt = System.nanoTime();
+            start.countDown();
+            long waited = 0;
+            for (Future<Long> client : clients) {
+                waited += client.get();
+            }
+            long elapsedMillis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+            int deposits = CLIENTS * DEPOSITS_PER_CLIENT;
+            long depositsPerSecond = (long) deposits * 1000 / elapsedMillis;
+            log.info("Group size {}: {} deposits in {} ms ({} deposits/s, mean latency {} us)",
+                    groupSize, deposits, elapsedMillis, depositsPerSecond, waited / deposits / 1000);
+            return depositsPerSecond;
+        } finally {
+            executor.shutdownNow();
+            committer.stop();
+        }
+    }
+
+    private static class ClientAccount {
+        final long userId;
+        final long accountId;
+
+        ClientAccount(long userId, long accountId) {
+            this.userId = userId;
+            this.accountId = accountId;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.commit.GroupCommitter;
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.entity.Account;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.exception.InsufficientFundsException;
+import com.skypro.simplebanking.exception.ServiceOverloadedException;
+import com.skypro.simplebanking.repository.AccountRepository;
+import com.skypro.simplebanking.repository.UserRepository;
+import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.TransferService;
+import com.skypro.simplebanking.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Runs transfers with group commit enabled and a window wide enough to group them. */
+@SpringBootTest(properties = {
+        "app.group-commit.enabled=true",
+        "app.group-commit.window-millis=200",
+        "app.group-commit.timeout-millis=1000"})
+@Testcontainers
+public class GroupCommitIntegrationTests {
+    private static final int TRANSFERS = 10;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private GroupCommitter groupCommitter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withUsername("postgres")
+            .withPassword("73aberiv");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    private Account getAccount(String username, AccountCurrency currency) {
+        long userId = userRepository.findByUsername(username).orElseThrow().getId();
+        return accountRepository.findByUserId(userId).stream()
+                .filter(account -> account.getAccountCurrency() == currency)
+                .findFirst().orElseThrow();
+    }
+
+    @Test
+    public void transfer_WhenGrouped_FailureDoesNotPoisonOthers() throws Exception {
+        userService.createUser("Ivan", "ivan1234");
+        userService.createUser("Petr", "petr1234");
+        long ivanId = userRepository.findByUsername("Ivan").orElseThrow().getId();
+        long petrId = userRepository.findByUsername("Petr").orElseThrow().getId();
+        Account from = getAccount("Ivan", AccountCurrency.USD);
+        Account to = getAccount("Petr", AccountCurrency.USD);
+        accountService.depositToAccount(ivanId, from.getId(), 49L);
+
+        ExecutorService executor = Executors.newFixedThreadPool(TRANSFERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < TRANSFERS; i++) {
+                results.add(executor.submit(() -> {
+                    TransferRequest transferRequest = new TransferRequest();
+                    transferRequest.setFromAccountId(from.getId());
+                    transferRequest.setToUserId(petrId);
+                    transferRequest.setToAccountId(to.getId());
+                    transferRequest.setAmount(10L);
+                    start.await();
+                    transferService.transfer(ivanId, transferRequest);
+                    return null;
+                }));
+            }
+            start.countDown();
+            int completed = 0;
+            int rejected = 0;
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                    completed++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(InsufficientFundsException.class);
+                    rejected++;
+                }
+            }
+            assertThat(completed).isEqualTo(5);
+            assertThat(rejected).isEqualTo(TRANSFERS - 5);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(accountRepository.findById(from.getId()).orElseThrow().getAmount()).isEqualTo(0L);
+        assertThat(accountRepository.findById(to.getId()).orElseThrow().getAmount()).isEqualTo(51L);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from transfer_records where from_account_id = ?",
+                Long.class, from.getId())).isEqualTo(5L);
+    }
+
+    @Test
+    public void execute_WhenCommitterIsStuck_RejectsWaitingCallersWithoutRunningTheirWork()
+            throws Exception {
+        userService.createUser("Stuck", "stuck1234");
+        long userId = userRepository.findByUsername("Stuck").orElseThrow().getId();
+        Account account = getAccount("Stuck", AccountCurrency.USD);
+        CountDownLatch stuck = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            executor.submit(() -> groupCommitter.execute(0, () -> {
+                try {
+                    stuck.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+            Thread.sleep(500);
+            Future<?> follower = executor.submit(() -> groupCommitter.execute(0, () ->
+                    accountService.depositToAccount(userId, account.getId(), 10L)));
+            assertThatThrownBy(follower::get).hasCauseInstanceOf(ServiceOverloadedException.class);
+        } finally {
+            stuck.countDown();
+            executor.shutdown();
+        }
+        groupCommitter.execute(0, () -> null);
+
+        assertThat(accountRepository.findById(account.getId()).orElseThrow().getAmount()).isEqualTo(1L);
+    }
+
+    @Test
+    public void participationFailure_OutsideCommitGroups_StillRollsBackWholeTransaction() {
+        userService.createUser("Outside", "outside1234");
+        long userId = userRepository.findByUsername("Outside").orElseThrow().getId();
+        Account account = getAccount("Outside", AccountCurrency.USD);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> {
+            accountService.depositToAccount(userId, account.getId(), 5L);
+            try {
+                accountService.withdrawFromAccount(userId, account.getId(), 1_000L);
+            } catch (InsufficientFundsException expected) {
+                // the failed withdrawal still dooms the transaction it took part in
+            }
+        })).isInstanceOf(UnexpectedRollbackException.class);
+
+        assertThat(accountRepository.findById(account.getId()).orElseThrow().getAmount()).isEqualTo(1L);
+    }
+}
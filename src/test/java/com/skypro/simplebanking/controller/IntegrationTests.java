@@ -1,11 +1,18 @@
 package com.skypro.simplebanking.controller;
 
+import com.skypro.simplebanking.dto.TransferRequest;
 import com.skypro.simplebanking.entity.Account;
+import com.skypro.simplebanking.entity.AccountCurrency;
 import com.skypro.simplebanking.entity.User;
+import com.skypro.simplebanking.metrics.CurrencyMetrics;
+import com.skypro.simplebanking.netting.TransferNettingEngine;
 import com.skypro.simplebanking.repository.AccountRepository;
+import com.skypro.simplebanking.repository.CurrencyMetricsRepository;
 import com.skypro.simplebanking.repository.UserRepository;
 import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.TransferService;
 import com.skypro.simplebanking.service.UserService;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
@@ -13,12 +20,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.util.Base64Utils;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
@@ -26,12 +37,20 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 
 import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -53,6 +72,21 @@ public class IntegrationTests {
 
     @Autowired
     private UserService userService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TransferNettingEngine transferNettingEngine;
+
+    @Autowired
+    private CurrencyMetrics currencyMetrics;
+
+    @Autowired
+    private CurrencyMetricsRepository currencyMetricsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
     private PasswordEncoder passwordEncoder;
 
     @Container
@@ -111,6 +145,39 @@ public class IntegrationTests {
         return accountList.get(0).getId();
     }
 
+    private JSONObject getFxRatesRequest(JSONObject rates) throws Exception {
+        String current = mockMvc.perform(get("/admin/fx/rates"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return new JSONObject()
+                .put("version", new JSONObject(current).getLong("version") + 1)
+                .put("rates", rates);
+    }
+
+    private Account getAccount(String username, AccountCurrency currency) {
+        long userId = userRepository.findByUsername(username).orElseThrow().getId();
+        return accountRepository.findByUserId(userId).stream()
+                .filter(account -> account.getAccountCurrency() == currency)
+                .findFirst().orElseThrow();
+    }
+
+    private String explain(String query) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set enable_seqscan = off");
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery("explain " + query)) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                } finally {
+                    statement.execute("reset enable_seqscan");
+                }
+                return plan.toString();
+            }
+        });
+    }
+
     private String base64Encoded(String login, String password) {
         return Base64Utils.encodeToString((login + ":" + password).getBytes(StandardCharsets.UTF_8));
     }
@@ -321,4 +388,435 @@ public class IntegrationTests {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    public void createScheduledTransfer() throws Exception {
+        addTwoUsersToRepository();
+        JSONObject scheduleRequest = getTransferRequest("Ivan", 0L);
+        scheduleRequest.put("amount", 1L);
+        scheduleRequest.put("period", "MONTHLY");
+        scheduleRequest.put("firstExecution", "2100-01-01T00:00:00Z");
+        mockMvc.perform(post("/schedule")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scheduleRequest.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.period").value("MONTHLY"))
+                .andExpect(jsonPath("$.active").value(true));
+        mockMvc.perform(get("/schedule")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].amount").value(1L));
+    }
+
+    @Test
+    public void updateScheduledTransfer_WhenFirstExecutionOmitted_KeepsNextExecution() throws Exception {
+        addTwoUsersToRepository();
+        JSONObject scheduleRequest = getTransferRequest("Ivan", 0L);
+        scheduleRequest.put("amount", 1L);
+        scheduleRequest.put("period", "MONTHLY");
+        scheduleRequest.put("firstExecution", "2100-01-01T00:00:00Z");
+        String created = mockMvc.perform(post("/schedule")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scheduleRequest.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long scheduleId = new JSONObject(created).getLong("id");
+        scheduleRequest.put("amount", 2L);
+        scheduleRequest.remove("firstExecution");
+        mockMvc.perform(put("/schedule/{id}", scheduleId)
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scheduleRequest.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(2L))
+                .andExpect(jsonPath("$.period").value("MONTHLY"))
+                .andExpect(jsonPath("$.nextExecution").value("2100-01-01T00:00:00Z"));
+    }
+
+    @Test
+    public void payout() throws Exception {
+        addTwoUsersToRepository();
+        long petrId = userRepository.findByUsername("Petr").orElseThrow().getId();
+        JSONObject payoutItem = new JSONObject();
+        payoutItem.put("toUserId", petrId);
+        payoutItem.put("toAccountId", getAccountId("Petr"));
+        payoutItem.put("amount", 1L);
+        JSONObject payoutRequest = new JSONObject();
+        payoutRequest.put("fromAccountId", getAccountId("Ivan"));
+        payoutRequest.put("payouts", new JSONArray().put(payoutItem));
+        mockMvc.perform(post("/transfer/payout")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payoutRequest.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.payouts").value(1))
+                .andExpect(jsonPath("$.totalAmount").value(1L));
+        mockMvc.perform(get("/account/{id}", getAccountId("Petr"))
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Petr", "petr1234")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(2L));
+    }
+
+    @Test
+    public void batchTransfer() throws Exception {
+        addTwoUsersToRepository();
+        JSONObject affordable = getTransferRequest("Ivan", 0L);
+        affordable.put("amount", 1L);
+        JSONObject tooLarge = getTransferRequest("Ivan", 0L);
+        tooLarge.put("amount", 5L);
+        mockMvc.perform(post("/transfer/batch")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONArray().put(affordable).put(tooLarge).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$[1].status").value("REJECTED"));
+    }
+
+    @Test
+    public void asyncTransfer_WhenRejected_CountsRejection() throws Exception {
+        addTwoUsersToRepository();
+        long rejectedBefore = transferNettingEngine.getMetrics().getDetachedRejected();
+        JSONObject tooLarge = getTransferRequest("Ivan", 0L);
+        tooLarge.put("amount", 5L);
+        mockMvc.perform(post("/transfer/async")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(tooLarge.toString()))
+                .andExpect(status().isAccepted());
+        for (int attempt = 0; attempt < 50
+                && transferNettingEngine.getMetrics().getDetachedRejected() == rejectedBefore; attempt++) {
+            Thread.sleep(100);
+        }
+        assertThat(transferNettingEngine.getMetrics().getDetachedRejected()).isEqualTo(rejectedBefore + 1);
+        assertThat(accountRepository.findById(getAccountId("Ivan")).orElseThrow().getAmount()).isEqualTo(1L);
+    }
+
+    @Test
+    public void getBalanceAt() throws Exception {
+        addUserToRepository();
+        long accountId = getAccountId("Ivan");
+        String beforeDeposit = Instant.now().toString();
+        Thread.sleep(10);
+        accountService.depositToAccount(userRepository.findByUsername("Ivan").orElseThrow().getId(), accountId, 500L);
+        mockMvc.perform(get("/account/{id}/balance", accountId)
+                        .param("at", beforeDeposit)
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(1L));
+        mockMvc.perform(get("/account/{id}/balance", accountId)
+                        .param("at", Instant.now().toString())
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(501L));
+    }
+
+    @Test
+    @WithMockUser(username = "ADMIN", roles = "ADMIN", password = "admin1234")
+    public void reconciliation() throws Exception {
+        addTwoUsersToRepository();
+        mockMvc.perform(post("/admin/reconciliation"))
+                .andExpect(status().isAccepted());
+        for (int attempt = 0; attempt < 50; attempt++) {
+            String progress = mockMvc.perform(get("/admin/reconciliation"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            if (!new JSONObject(progress).getString("status").equals("RUNNING")) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        mockMvc.perform(get("/admin/reconciliation"))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.accountsChecked").value(6))
+                .andExpect(jsonPath("$.mismatches").value(0));
+    }
+
+    @Test
+    public void getStatement() throws Exception {
+        addUserToRepository();
+        long accountId = getAccountId("Ivan");
+        String from = Instant.now().toString();
+        Thread.sleep(10);
+        accountService.depositToAccount(userRepository.findByUsername("Ivan").orElseThrow().getId(), accountId, 500L);
+        MvcResult result = mockMvc.perform(get("/account/{id}/statement", accountId)
+                        .param("from", from)
+                        .param("to", Instant.now().toString())
+                        .param("format", "ndjson")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"type\":\"opening\"")))
+                .andExpect(content().string(containsString("\"kind\":\"DEPOSIT\",\"delta\":500,\"balance\":501")))
+                .andExpect(content().string(containsString("\"type\":\"closing\"")));
+    }
+
+    @Test
+    @WithMockUser(username = "ADMIN", roles = "ADMIN", password = "admin1234")
+    public void getCurrencyMetrics() throws Exception {
+        mockMvc.perform(get("/admin/metrics/currencies").param("minutes", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].transfersPerMinute.length()").value(5));
+    }
+
+    @Test
+    public void currencyMetricsCheckpoint_AddsOnlyNewFlowsAndSeesOtherInstances() {
+        addUserToRepository();
+        currencyMetrics.checkpoint();
+        long before = currencyMetricsRepository.findCheckpoints().get(AccountCurrency.USD)[0];
+        long ivanId = userRepository.findByUsername("Ivan").orElseThrow().getId();
+        accountService.depositToAccount(ivanId, getAccount("Ivan", AccountCurrency.USD).getId(), 5L);
+        currencyMetrics.checkpoint();
+        currencyMetrics.checkpoint();
+        assertThat(currencyMetricsRepository.findCheckpoints().get(AccountCurrency.USD)[0])
+                .isEqualTo(before + 5L);
+
+        jdbcTemplate.update("update currency_metrics_checkpoints set deposit_total = deposit_total + 1000"
+                + " where currency = 'USD'");
+        currencyMetrics.checkpoint();
+        assertThat(currencyMetrics.snapshot(1).stream()
+                .filter(metrics -> metrics.getCurrency() == AccountCurrency.USD)
+                .findFirst().orElseThrow().getDepositTotal())
+                .isEqualTo(before + 1005L);
+    }
+
+    @Test
+    public void getMe_WhenAuthenticatedRepeatedly_IsNotRateLimited() throws Exception {
+        addUserToRepository();
+        for (int i = 0; i < 50; i++) {
+            mockMvc.perform(get("/user/me")
+                            .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234")))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    public void getMe_WhenPasswordsGuessed_RejectsAfterFailedAttempts() throws Exception {
+        userRepository.deleteAll();
+        accountRepository.deleteAll();
+        userService.createUser("Guessed", "guessed1234");
+        int failures = 0;
+        MvcResult result;
+        do {
+            result = mockMvc.perform(get("/user/me")
+                            .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Guessed", "guess" + failures)))
+                    .andReturn();
+        } while (result.getResponse().getStatus() == 401 && ++failures < 100);
+        assertThat(result.getResponse().getStatus()).isEqualTo(429);
+        assertThat(result.getResponse().getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(failures).isGreaterThanOrEqualTo(20);
+        mockMvc.perform(get("/user/me")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Guessed", "guessed1234")))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    public void depositToAccount_WhenVelocityLimitExceeded() throws Exception {
+        addUserToRepository();
+        mockMvc.perform(post("/account/deposit/{id}", getAccountId("Ivan"))
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(getBalanceChangeRequest(60_000_000L).toString()))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    public void getUserAccounts() throws Exception {
+        addTwoUsersToRepository();
+        long ownAccountId = getAccountId("Ivan");
+        long foreignAccountId = getAccountId("Petr");
+        mockMvc.perform(get("/account")
+                        .param("ids", ownAccountId + "," + foreignAccountId)
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts.length()").value(1))
+                .andExpect(jsonPath("$.accounts[0].id").value(ownAccountId))
+                .andExpect(jsonPath("$.notFound[0]").value(foreignAccountId));
+    }
+
+    @Test
+    public void getMyProfile_WithFields() throws Exception {
+        addUserToRepository();
+        mockMvc.perform(get("/user/me")
+                        .param("fields", "id,username")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("Ivan"))
+                .andExpect(jsonPath("$.accounts").doesNotExist());
+    }
+
+    @Test
+    public void searchUsers() throws Exception {
+        addTwoUsersToRepository();
+        mockMvc.perform(get("/user/search")
+                        .param("prefix", "Pe")
+                        .param("limit", "5")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].username").value("Petr"));
+    }
+
+    @Test
+    public void accountAndUserLookupsUseIndexes() {
+        assertThat(explain("select * from accounts where user_id = 1 and id = 1")).doesNotContain("Seq Scan");
+        assertThat(explain("select * from accounts where user_id = 1")).doesNotContain("Seq Scan");
+        assertThat(explain("select * from users where username = 'Ivan'")).doesNotContain("Seq Scan");
+        assertThat(explain("select * from users where username collate \"C\" like 'Iv%'"
+                + " order by username collate \"C\" limit 5")).doesNotContain("Seq Scan").doesNotContain("Sort");
+    }
+
+    @Test
+    public void createUser_WhenCreatedConcurrently() throws Exception {
+        userRepository.deleteAll();
+        accountRepository.deleteAll();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    userService.createUser("Anna", "anna1234");
+                } catch (RuntimeException ignored) {
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from users where username = 'Anna'", Long.class)).isEqualTo(1L);
+    }
+
+    @Test
+    @WithMockUser(username = "ADMIN", roles = "ADMIN", password = "admin1234")
+    public void transfer_BetweenCurrencies() throws Exception {
+        addTwoUsersToRepository();
+        JSONObject rates = getFxRatesRequest(
+                new JSONObject().put("USD", new JSONObject().put("EUR", 0.5)));
+        String loaded = mockMvc.perform(put("/admin/fx/rates")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(rates.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rates.USD.EUR").value(0.5))
+                .andReturn().getResponse().getContentAsString();
+        long version = new JSONObject(loaded).getLong("version");
+        try {
+            long ivanId = userRepository.findByUsername("Ivan").orElseThrow().getId();
+            Account from = getAccount("Ivan", AccountCurrency.USD);
+            Account to = getAccount("Petr", AccountCurrency.EUR);
+            accountService.depositToAccount(ivanId, from.getId(), 99L);
+            TransferRequest transferRequest = new TransferRequest();
+            transferRequest.setFromAccountId(from.getId());
+            transferRequest.setToUserId(userRepository.findByUsername("Petr").orElseThrow().getId());
+            transferRequest.setToAccountId(to.getId());
+            transferRequest.setAmount(100L);
+            transferService.transfer(ivanId, transferRequest);
+
+            assertThat(accountRepository.findById(from.getId()).orElseThrow().getAmount()).isEqualTo(0L);
+            assertThat(accountRepository.findById(to.getId()).orElseThrow().getAmount()).isEqualTo(51L);
+            assertThat(jdbcTemplate.queryForObject(
+                    "select fx_version from transfer_records where from_account_id = ? order by id desc limit 1",
+                    Long.class, from.getId())).isEqualTo(version);
+        } finally {
+            mockMvc.perform(put("/admin/fx/rates")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(getFxRatesRequest(new JSONObject()).toString()))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "ADMIN", roles = "ADMIN", password = "admin1234")
+    public void replaceFxRates_WithoutVersion() throws Exception {
+        long before = new JSONObject(mockMvc.perform(get("/admin/fx/rates"))
+                .andReturn().getResponse().getContentAsString()).getLong("version");
+        mockMvc.perform(put("/admin/fx/rates")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rates\":{}}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/admin/fx/rates"))
+                .andExpect(jsonPath("$.version").value(before));
+    }
+
+    @Test
+    @WithMockUser(username = "ADMIN", roles = "ADMIN", password = "admin1234")
+    public void transfer_WhenConvertedAmountRoundsToZero() throws Exception {
+        addTwoUsersToRepository();
+        JSONObject rates = getFxRatesRequest(
+                new JSONObject().put("USD", new JSONObject().put("EUR", 0.5)));
+        mockMvc.perform(put("/admin/fx/rates")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(rates.toString()))
+                .andExpect(status().isOk());
+        try {
+            long ivanId = userRepository.findByUsername("Ivan").orElseThrow().getId();
+            Account from = getAccount("Ivan", AccountCurrency.USD);
+            Account to = getAccount("Petr", AccountCurrency.EUR);
+            accountService.depositToAccount(ivanId, from.getId(), 99L);
+            long fromBefore = accountRepository.findById(from.getId()).orElseThrow().getAmount();
+            long toBefore = accountRepository.findById(to.getId()).orElseThrow().getAmount();
+            JSONObject transferRequest = new JSONObject();
+            transferRequest.put("fromAccountId", from.getId());
+            transferRequest.put("toUserId", userRepository.findByUsername("Petr").orElseThrow().getId());
+            transferRequest.put("toAccountId", to.getId());
+            transferRequest.put("amount", 1L);
+            mockMvc.perform(post("/transfer/")
+                            .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234"))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(transferRequest.toString()))
+                    .andExpect(status().isBadRequest());
+
+            assertThat(accountRepository.findById(from.getId()).orElseThrow().getAmount()).isEqualTo(fromBefore);
+            assertThat(accountRepository.findById(to.getId()).orElseThrow().getAmount()).isEqualTo(toBefore);
+        } finally {
+            mockMvc.perform(put("/admin/fx/rates")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(getFxRatesRequest(new JSONObject()).toString()))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    public void depositToAccount_IsAudited() throws Exception {
+        addUserToRepository();
+        long accountId = getAccountId("Ivan");
+        mockMvc.perform(post("/account/deposit/{id}", accountId)
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(getBalanceChangeRequest(500L).toString()))
+                .andExpect(status().isOk());
+        String query = "select count(*) from audit_records"
+                + " where action = 'DEPOSIT' and account_id = ? and amount = 500";
+        for (int attempt = 0; attempt < 50; attempt++) {
+            if (jdbcTemplate.queryForObject(query, Long.class, accountId) > 0) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        assertThat(jdbcTemplate.queryForObject(query, Long.class, accountId)).isEqualTo(1L);
+    }
+
+    @Test
+    public void getMe_WhenStoredHashIsOutdated_RehashesOnLogin() throws Exception {
+        addUserToRepository();
+        jdbcTemplate.update("update users set password = ? where username = ?",
+                BCrypt.hashpw("ivan1234", BCrypt.gensalt(4)), "Ivan");
+        mockMvc.perform(get("/user/me")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234")))
+                .andExpect(status().isOk());
+        String rehashed = jdbcTemplate.queryForObject(
+                "select password from users where username = ?", String.class, "Ivan");
+        assertThat(rehashed).startsWith("{bcrypt}");
+        mockMvc.perform(get("/user/me")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded("Ivan", "ivan1234")))
+                .andExpect(status().isOk());
+        assertThat(jdbcTemplate.queryForObject(
+                "select password from users where username = ?", String.class, "Ivan")).isEqualTo(rehashed);
+    }
+
 }
@@ -0,0 +1,165 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.dto.TransferResultDTO;
+import com.skypro.simplebanking.entity.Account;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.netting.TransferNettingEngine;
+import com.skypro.simplebanking.repository.AccountRepository;
+import com.skypro.simplebanking.repository.UserRepository;
+import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.TransferService;
+import com.skypro.simplebanking.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures transfer throughput for circular traffic between two hot accounts, once with every
+ * transfer in its own transaction and once through the netting engine, from the same number of
+ * concurrent clients. Opt-in with {@code -Dnetting-benchmark=true}; both figures are logged.
+ */
+@SpringBootTest
+@Testcontainers
+@EnabledIfSystemProperty(named = "netting-benchmark", matches = "true")
+public class NettingBenchmarkTests {
+    private static final Logger log = LoggerFactory.getLogger(NettingBenchmarkTests.class);
+    private static final int CLIENTS = 16;
+    private static final int TRANSFERS_PER_CLIENT = 500;
+    private static final long INITIAL_BALANCE = 100_000L;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TransferNettingEngine transferNettingEngine;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withUsername("postgres")
+            .withPassword("73aberiv");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Test
+    public void circularTransfers_DirectVersusNetted() throws Exception {
+        long directPerSecond = measure("direct",
+                request -> transferService.transfer(request.userId, request.transfer));
+        long nettedPerSecond = measure("netted", request -> {
+            TransferResultDTO result = transferNettingEngine
+                    .submitAndAwait(request.userId, List.of(request.transfer)).get(0);
+            assertThat(result.getStatus()).isEqualTo(TransferResultDTO.Status.COMPLETED);
+        });
+        log.info("Circular transfers between two accounts from {} clients: direct {} transfers/s,"
+                + " netted {} transfers/s", CLIENTS, directPerSecond, nettedPerSecond);
+    }
+
+    private long measure(String name, Consumer<ClientTransfer> transfer) throws Exception {
+        FundedAccount first = createFundedAccount("netting" + name + "a");
+        FundedAccount second = createFundedAccount("netting" + name + "b");
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> clients = new ArrayList<>();
+        long startedAt;
+        try {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < TRANSFERS_PER_CLIENT; i++) {
+                        transfer.accept(i % 2 == 0 ? between(first, second) : between(second, first));
+                    }
+                    return null;
+                }));
+            }
+            startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> client : clients) {
+                client.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        long balanceTotal = accountRepository.findById(first.accountId).orElseThrow().getAmount()
+                + accountRepository.findById(second.accountId).orElseThrow().getAmount();
+        assertThat(balanceTotal).as("money conserved").isEqualTo(2 * INITIAL_BALANCE);
+        long perSecond = (long) CLIENTS * TRANSFERS_PER_CLIENT * 1000 / elapsedMillis;
+        log.info("{}: {} transfers in {} ms ({} transfers/s)",
+                name, CLIENTS * TRANSFERS_PER_CLIENT, elapsedMillis, perSecond);
+        return perSecond;
+    }
+
+    private FundedAccount createFundedAccount(String username) {
+        userService.createUser(username, "password");
+        long userId = userRepository.findByUsername(username).orElseThrow().getId();
+        Account account = accountRepository.findByUserId(userId).stream()
+                .filter(candidate -> candidate.getAccountCurrency() == AccountCurrency.USD)
+                .findFirst().orElseThrow();
+        accountService.depositToAccount(userId, account.getId(), INITIAL_BALANCE - account.getAmount());
+        return new FundedAccount(userId, account.getId());
+    }
+
+    private static ClientTransfer between(FundedAccount from, FundedAccount to) {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountId(from.accountId);
+        request.setToUserId(to.userId);
+        request.setToAccountId(to.accountId);
+        request.setAmount(1L);
+        return new ClientTransfer(from.userId, request);
+    }
+
+    private static class FundedAccount {
+        final long userId;
+        final long accountId;
+
+        FundedAccount(long userId, long accountId) {
+            this.userId = userId;
+            this.accountId = accountId;
+        }
+    }
+
+    private static class ClientTransfer {
+        final long userId;
+        final TransferRequest transfer;
+
+        ClientTransfer(long userId, TransferRequest transfer) {
+            this.userId = userId;
+            this.transfer = transfer;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.password.OffloadedPasswordEncoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.Base64Utils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Runs with one hashing thread, a queue of one and a cost slow enough to keep both occupied. */
+@SpringBootTest(properties = {
+        "app.password-hashing.strength=14",
+        "app.password-hashing.threads=1",
+        "app.password-hashing.queue-capacity=1"})
+@AutoConfigureMockMvc
+@Testcontainers
+public class PasswordHashingIntegrationTests {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    private OffloadedPasswordEncoder passwordEncoder;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withUsername("postgres")
+            .withPassword("73aberiv");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Test
+    public void getMe_WhenHashingQueueFull_RespondsOverloaded() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("a"));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("b"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((passwordEncoder.getMetrics().getActive() < 1 || passwordEncoder.getMetrics().getQueued() < 1)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(passwordEncoder.getMetrics().getQueued()).isEqualTo(1);
+
+        String credentials = Base64Utils.encodeToString("Nobody:wrong".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(get("/user/me")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + credentials))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+        running.get(30, TimeUnit.SECONDS);
+        queued.get(30, TimeUnit.SECONDS);
+        assertThat(passwordEncoder.getMetrics().getRejected()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,182 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.service.UserService;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.Base64Utils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Runs the application on two shards, two databases of the same Postgres container. */
+@SpringBootTest(properties = "app.sharding.enabled=true")
+@AutoConfigureMockMvc
+@Testcontainers
+public class ShardingIntegrationTests {
+    private static final int SHARDS = 2;
+    private static final AtomicInteger usernames = new AtomicInteger();
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withUsername("postgres")
+            .withPassword("73aberiv");
+
+    @DynamicPropertySource
+    static void shardProperties(DynamicPropertyRegistry registry) {
+        for (int shard = 0; shard < SHARDS; shard++) {
+            int current = shard;
+            registry.add("app.sharding.shards[" + shard + "].url", () -> shardUrl(current));
+            registry.add("app.sharding.shards[" + shard + "].username", postgres::getUsername);
+            registry.add("app.sharding.shards[" + shard + "].password", postgres::getPassword);
+        }
+    }
+
+    private static synchronized String shardUrl(int shard) {
+        if (shard == 0) {
+            return postgres.getJdbcUrl();
+        }
+        String database = "shard" + shard;
+        JdbcTemplate jdbcTemplate = shardJdbcTemplate(0);
+        Integer exists = jdbcTemplate.queryForObject(
+                "select count(*) from pg_database where datname = ?", Integer.class, database);
+        if (exists == 0) {
+            jdbcTemplate.execute("create database " + database);
+        }
+        return postgres.getJdbcUrl().replace("/" + postgres.getDatabaseName(), "/" + database);
+    }
+
+    private static JdbcTemplate shardJdbcTemplate(int shard) {
+        String url = shard == 0 ? postgres.getJdbcUrl() : shardUrl(shard);
+        return new JdbcTemplate(
+                new DriverManagerDataSource(url, postgres.getUsername(), postgres.getPassword()));
+    }
+
+    private static String usernameOnShard(int shard) {
+        while (true) {
+            String username = "user" + usernames.incrementAndGet();
+            if (Math.floorMod(username.hashCode(), SHARDS) == shard) {
+                return username;
+            }
+        }
+    }
+
+    private String base64Encoded(String login, String password) {
+        return Base64Utils.encodeToString((login + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private JSONObject getMe(String username) throws Exception {
+        String response = mockMvc.perform(get("/user/me")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded(username, "password")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return new JSONObject(response);
+    }
+
+    private JSONObject getAccount(JSONObject user, String currency) throws Exception {
+        JSONArray accounts = user.getJSONArray("accounts");
+        for (int i = 0; i < accounts.length(); i++) {
+            if (accounts.getJSONObject(i).getString("currency").equals(currency)) {
+                return accounts.getJSONObject(i);
+            }
+        }
+        throw new AssertionError("No " + currency + " account");
+    }
+
+    private String getTransferRequest(JSONObject from, JSONObject to, String fromCurrency,
+                                      String toCurrency, long amount) throws Exception {
+        JSONObject transferRequest = new JSONObject();
+        transferRequest.put("fromAccountId", getAccount(from, fromCurrency).getLong("id"));
+        transferRequest.put("toUserId", to.getLong("id"));
+        transferRequest.put("toAccountId", getAccount(to, toCurrency).getLong("id"));
+        transferRequest.put("amount", amount);
+        return transferRequest.toString();
+    }
+
+    private String getSagaState(int shard, long fromAccountId) {
+        return shardJdbcTemplate(shard).queryForObject(
+                "select state from transfer_sagas where from_account_id = ? order by id desc limit 1",
+                String.class, fromAccountId);
+    }
+
+    @Test
+    public void createUser_StoresUserOnItsShard() throws Exception {
+        for (int shard = 0; shard < SHARDS; shard++) {
+            String username = usernameOnShard(shard);
+            userService.createUser(username, "password");
+            JSONObject user = getMe(username);
+            assertThat(Math.floorMod(user.getLong("id"), SHARDS)).isEqualTo(shard);
+            for (int other = 0; other < SHARDS; other++) {
+                Integer users = shardJdbcTemplate(other).queryForObject(
+                        "select count(*) from users where username = ?", Integer.class, username);
+                assertThat(users).isEqualTo(other == shard ? 1 : 0);
+            }
+        }
+    }
+
+    @Test
+    public void transfer_AcrossShards() throws Exception {
+        String sender = usernameOnShard(0);
+        String recipient = usernameOnShard(1);
+        userService.createUser(sender, "password");
+        userService.createUser(recipient, "password");
+        JSONObject from = getMe(sender);
+        JSONObject to = getMe(recipient);
+        long senderBalance = getAccount(from, "USD").getLong("amount");
+        long recipientBalance = getAccount(to, "USD").getLong("amount");
+
+        mockMvc.perform(post("/transfer")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded(sender, "password"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(getTransferRequest(from, to, "USD", "USD", 1L)))
+                .andExpect(status().isOk());
+
+        assertThat(getAccount(getMe(sender), "USD").getLong("amount")).isEqualTo(senderBalance - 1);
+        assertThat(getAccount(getMe(recipient), "USD").getLong("amount")).isEqualTo(recipientBalance + 1);
+        assertThat(getSagaState(0, getAccount(from, "USD").getLong("id"))).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    public void transfer_AcrossShards_WhenCreditFails() throws Exception {
+        String sender = usernameOnShard(1);
+        String recipient = usernameOnShard(0);
+        userService.createUser(sender, "password");
+        userService.createUser(recipient, "password");
+        JSONObject from = getMe(sender);
+        JSONObject to = getMe(recipient);
+        long senderBalance = getAccount(from, "USD").getLong("amount");
+
+        mockMvc.perform(post("/transfer")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + base64Encoded(sender, "password"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(getTransferRequest(from, to, "USD", "EUR", 1L)))
+                .andExpect(status().isBadRequest());
+
+        assertThat(getAccount(getMe(sender), "USD").getLong("amount")).isEqualTo(senderBalance);
+        assertThat(getSagaState(1, getAccount(from, "USD").getLong("id"))).isEqualTo("COMPENSATED");
+    }
+}
@@ -0,0 +1,128 @@
+package com.skypro.simplebanking.controller;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the time from launching a fresh JVM until the application serves its first successful
+ * request, creating a user, once in the default profile and once in the fast-startup profile.
+ * Opt-in with {@code -Dstartup-benchmark=true}. To measure with the AppCDS archive of the
+ * {@code appcds} Maven profile, pass its class path and archive:
+ * {@code -Dstartup-benchmark.classpath=target/simple-banking-0.0.1-SNAPSHOT.jar:$(cat target/cds.classpath)
+ * -Dstartup-benchmark.jvm-args=-XX:SharedArchiveFile=target/app.jsa}.
+ */
+@Testcontainers
+@EnabledIfSystemProperty(named = "startup-benchmark", matches = "true")
+public class StartupBenchmarkTests {
+    private static final Logger log = LoggerFactory.getLogger(StartupBenchmarkTests.class);
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final int RUNS = 3;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withUsername("postgres")
+            .withPassword("73aberiv");
+
+    @Test
+    public void timeToFirstRequest() throws Exception {
+        long defaultMillis = measure("default", 0);
+        long fastMillis = measure("fast-startup", 1);
+        log.info("Time to first successful request: default {} ms, fast-startup {} ms",
+                defaultMillis, fastMillis);
+    }
+
+    /** Returns the best of several launches, the first of which also migrates the schema. */
+    private long measure(String profile, int profileIndex) throws Exception {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long millis = launchAndRequest(profile, "bench" + profileIndex + "x" + run);
+            log.info("Profile {} run {}: {} ms", profile, run, millis);
+            best = Math.min(best, millis);
+        }
+        return best;
+    }
+
+    private long launchAndRequest(String profile, String username) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        String jvmArgs = System.getProperty("startup-benchmark.jvm-args", "");
+        if (!jvmArgs.isBlank()) {
+            command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        }
+        command.add("-Dspring.profiles.active=" + profile);
+        command.add("-Dserver.port=" + port);
+        command.add("-Dspring.datasource.url=" + postgres.getJdbcUrl());
+        command.add("-Dspring.datasource.username=" + postgres.getUsername());
+        command.add("-Dspring.datasource.password=" + postgres.getPassword());
+        command.add("-cp");
+        command.add(System.getProperty("startup-benchmark.classpath", System.getProperty("java.class.path")));
+        command.add("com.skypro.simplebanking.SimpleBankingApplication");
+
+        JSONObject createUserRequest = new JSONObject();
+        createUserRequest.put("username", username);
+        createUserRequest.put("password", "password");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/user/"))
+                .header("Content-Type", "application/json")
+                .header("X-SECURITY-ADMIN-KEY", "SUPER_SECRET_KEY_FROM_ADMIN")
+                .POST(HttpRequest.BodyPublishers.ofString(createUserRequest.toString()))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File(System.getProperty("java.io.tmpdir"), "startup-" + username + ".log"))
+                .start();
+        try {
+            long deadline = start + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                assertThat(process.isAlive()).as("application exited during startup").isTrue();
+                try {
+                    HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError("No successful request within " + STARTUP_TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.limiter.ConnectionLimitingDataSource;
+import com.skypro.simplebanking.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Serves requests on virtual threads with fewer connections than concurrent requests. Run with
+ * {@code -Dvirtual-threads=false} to put the same load on Tomcat's platform-thread pool; the load
+ * test logs its throughput for comparison.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.virtual-threads.max-connections=4",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "app.rate-limit.authentication.per-second=100000",
+        "app.rate-limit.authentication.burst=100000",
+        "app.rate-limit.user.per-second=100000",
+        "app.rate-limit.user.burst=100000",
+        "app.admission.read.initial-limit=400",
+        "app.admission.read.queue-size=1000",
+        "app.admission.read.queue-timeout=1m",
+        "app.admission.read.latency-threshold=1m"})
+@Testcontainers
+public class VirtualThreadsIntegrationTests {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsIntegrationTests.class);
+    private static final boolean VIRTUAL_THREADS =
+            Boolean.parseBoolean(System.getProperty("virtual-threads", "true"));
+    private static final int CLIENTS = 100;
+    private static final int REQUESTS_PER_CLIENT = 5;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ServletWebServerApplicationContext applicationContext;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserService userService;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withUsername("postgres")
+            .withPassword("73aberiv");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.virtual-threads.enabled", () -> String.valueOf(VIRTUAL_THREADS));
+    }
+
+    @Test
+    public void requestExecutor_UsesVirtualThreads() throws Exception {
+        TomcatWebServer webServer = (TomcatWebServer) applicationContext.getWebServer();
+        Executor executor = webServer.getTomcat().getConnector().getProtocolHandler().getExecutor();
+        CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+        executor.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+        assertThat(virtual.get()).isEqualTo(VIRTUAL_THREADS);
+        assertThat(dataSource instanceof ConnectionLimitingDataSource).isEqualTo(VIRTUAL_THREADS);
+    }
+
+    @Test
+    public void getMe_UnderLoad() throws Exception {
+        userService.createUser("Loaded", "loaded1234");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBasicAuth("Loaded", "loaded1234");
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            long start = System.nanoTime();
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                results.add(clients.submit(() -> {
+                    int ok = 0;
+                    for (int j = 0; j < REQUESTS_PER_CLIENT; j++) {
+                        ResponseEntity<String> response =
+                                restTemplate.exchange("/user/me", HttpMethod.GET, request, String.class);
+                        if (response.getStatusCode() == HttpStatus.OK) {
+                            ok++;
+                        }
+                    }
+                    return ok;
+                }));
+            }
+            int ok = 0;
+            for (Future<Integer> result : results) {
+                ok += result.get();
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            log.info("{} threads: {} requests in {} ms, {} requests/s",
+                    VIRTUAL_THREADS ? "Virtual" : "Platform", CLIENTS * REQUESTS_PER_CLIENT,
+                    elapsedMillis, CLIENTS * REQUESTS_PER_CLIENT * 1000L / Math.max(1, elapsedMillis));
+            assertThat(ok).isEqualTo(CLIENTS * REQUESTS_PER_CLIENT);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+}
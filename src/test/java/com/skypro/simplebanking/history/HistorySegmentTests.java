@@ -0,0 +1,156 @@
+package com.skypro.simplebanking.history;
+
+import com.skypro.simplebanking.dto.BalanceChangeDTO;
+import com.skypro.simplebanking.entity.BalanceChangeKind;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HistorySegmentTests {
+    private static final long ALL_FROM = Long.MIN_VALUE;
+    private static final long ALL_TO = Long.MAX_VALUE;
+
+    @TempDir
+    Path directory;
+
+    private long nextId;
+
+    private Path write(long[][] rows) throws IOException {
+        Path path = directory.resolve("segment-" + nextId++ + ".seg");
+        try (HistorySegmentWriter writer = new HistorySegmentWriter(path)) {
+            for (long[] row : rows) {
+                writer.append(nextId++, row[0], row[1], row[2], BalanceChangeKind.values()[(int) row[3]]);
+            }
+            assertThat(writer.finish()).isEqualTo(rows.length);
+        }
+        return path;
+    }
+
+    private static List<BalanceChangeDTO> changes(HistorySegment segment, long accountId, long from, long to) {
+        List<BalanceChangeDTO> changes = new ArrayList<>();
+        segment.forEach(accountId, from, to, changes::add);
+        return changes;
+    }
+
+    @Test
+    public void emptySegment_RoundTrips() throws Exception {
+        HistorySegment segment = HistorySegment.open(write(new long[0][]));
+        assertThat(segment.sum(1, ALL_FROM, ALL_TO)).isZero();
+        assertThat(changes(segment, 1, ALL_FROM, ALL_TO)).isEmpty();
+    }
+
+    @Test
+    public void severalAccounts_RoundTripWithNegativeDeltas() throws Exception {
+        Instant createdAt = Instant.parse("2023-05-17T10:15:30.123456Z");
+        long micros = HistorySegmentFormat.toMicros(createdAt);
+        HistorySegment segment = HistorySegment.open(write(new long[][]{
+                {1, micros, 500, BalanceChangeKind.DEPOSIT.ordinal()},
+                {1, micros + 1, -200, BalanceChangeKind.WITHDRAWAL.ordinal()},
+                {2, micros, -7, BalanceChangeKind.TRANSFER_OUT.ordinal()},
+                {5, micros + 2, Long.MIN_VALUE / 2, BalanceChangeKind.REVERSAL.ordinal()}}));
+
+        assertThat(segment.sum(1, ALL_FROM, ALL_TO)).isEqualTo(300);
+        assertThat(segment.sum(2, ALL_FROM, ALL_TO)).isEqualTo(-7);
+        assertThat(segment.sum(5, ALL_FROM, ALL_TO)).isEqualTo(Long.MIN_VALUE / 2);
+        assertThat(segment.sum(3, ALL_FROM, ALL_TO)).isZero();
+
+        List<BalanceChangeDTO> first = changes(segment, 1, ALL_FROM, ALL_TO);
+        assertThat(first).hasSize(2);
+        assertThat(first.get(0).getAccountId()).isEqualTo(1);
+        assertThat(first.get(0).getDelta()).isEqualTo(500);
+        assertThat(first.get(0).getKind()).isEqualTo(BalanceChangeKind.DEPOSIT);
+        assertThat(first.get(0).getCreatedAt()).isEqualTo(createdAt);
+        assertThat(first.get(1).getDelta()).isEqualTo(-200);
+        assertThat(first.get(1).getKind()).isEqualTo(BalanceChangeKind.WITHDRAWAL);
+        assertThat(changes(segment, 5, ALL_FROM, ALL_TO).get(0).getKind()).isEqualTo(BalanceChangeKind.REVERSAL);
+    }
+
+    /** The range is exclusive at the start and inclusive at the end, on and off the fast path. */
+    @Test
+    public void sum_RespectsBlockBoundaries() throws Exception {
+        HistorySegment segment = HistorySegment.open(write(new long[][]{
+                {1, 10, 1, 1},
+                {1, 20, 10, 1},
+                {1, 30, 100, 1}}));
+
+        assertThat(segment.sum(1, 9, 30)).isEqualTo(111);
+        assertThat(segment.sum(1, 10, 30)).isEqualTo(110);
+        assertThat(segment.sum(1, 9, 29)).isEqualTo(11);
+        assertThat(segment.sum(1, 0, 10)).isEqualTo(1);
+        assertThat(segment.sum(1, 20, 20)).isZero();
+        assertThat(segment.sum(1, 30, 40)).isZero();
+        assertThat(segment.sum(1, 0, 9)).isZero();
+        assertThat(changes(segment, 1, 10, 30)).extracting(BalanceChangeDTO::getDelta).containsExactly(10L, 100L);
+        assertThat(changes(segment, 1, 9, 10)).extracting(BalanceChangeDTO::getDelta).containsExactly(1L);
+    }
+
+    @Test
+    public void largeBlocksAndManyAccounts_RoundTrip() throws Exception {
+        int accounts = 3000;
+        int rowsOfBigAccount = 50_000;
+        List<long[]> rows = new ArrayList<>();
+        for (int i = 0; i < rowsOfBigAccount; i++) {
+            rows.add(new long[]{0, i, i % 2 == 0 ? i : -i, 1});
+        }
+        for (int account = 1; account <= accounts; account++) {
+            rows.add(new long[]{account, account, account, 1});
+        }
+        HistorySegment segment = HistorySegment.open(write(rows.toArray(new long[0][])));
+
+        assertThat(segment.sum(0, ALL_FROM, ALL_TO)).isEqualTo(-rowsOfBigAccount / 2);
+        assertThat(segment.sum(0, -1, rowsOfBigAccount - 2)).isEqualTo(-rowsOfBigAccount / 2 + rowsOfBigAccount - 1);
+        assertThat(changes(segment, 0, ALL_FROM, ALL_TO)).hasSize(rowsOfBigAccount);
+        for (int account = 1; account <= accounts; account++) {
+            assertThat(segment.sum(account, ALL_FROM, ALL_TO)).isEqualTo(account);
+        }
+    }
+
+    @Test
+    public void append_WhenAccountsOutOfOrder_Fails() throws Exception {
+        try (HistorySegmentWriter writer = new HistorySegmentWriter(directory.resolve("unordered.seg"))) {
+            writer.append(1, 2, 0, 1, BalanceChangeKind.DEPOSIT);
+            assertThatThrownBy(() -> writer.append(2, 1, 0, 1, BalanceChangeKind.DEPOSIT))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    public void open_WhenTruncated_Fails() throws Exception {
+        Path path = write(new long[][]{{1, 10, 1, 1}, {2, 10, 2, 1}});
+        long size = Files.size(path);
+        for (long truncatedSize : new long[]{0, 3, size / 2, size - 1}) {
+            Path truncated = directory.resolve("truncated-" + truncatedSize + ".seg");
+            Files.copy(path, truncated);
+            try (FileChannel channel = FileChannel.open(truncated, StandardOpenOption.WRITE)) {
+                channel.truncate(truncatedSize);
+            }
+            assertThatThrownBy(() -> HistorySegment.open(truncated))
+                    .as("segment truncated to %d of %d bytes", truncatedSize, size)
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    /** A file that lost its middle but kept a valid-looking footer is still rejected. */
+    @Test
+    public void open_WhenIndexDoesNotFit_Fails() throws Exception {
+        Path path = write(new long[][]{{1, 10, 1, 1}, {2, 10, 2, 1}});
+        byte[] bytes = Files.readAllBytes(path);
+        byte[] shortened = new byte[bytes.length - 8];
+        System.arraycopy(bytes, 0, shortened, 0, 4);
+        System.arraycopy(bytes, 12, shortened, 4, bytes.length - 12);
+        Path corrupted = directory.resolve("corrupted.seg");
+        Files.write(corrupted, shortened);
+        assertThatThrownBy(() -> HistorySegment.open(corrupted)).isInstanceOf(IOException.class);
+    }
+}
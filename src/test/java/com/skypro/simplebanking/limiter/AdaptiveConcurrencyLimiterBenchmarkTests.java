@@ -0,0 +1,101 @@
+package com.skypro.simplebanking.limiter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Puts 250 clients on a limiter of 16, each holding its permit for 5 ms as if waiting on the
+ * database, once on platform and once on virtual threads, and logs throughput and the peak number
+ * of carrier threads. Queued virtual threads must not pin carriers, so the carriers should stay at
+ * the scheduler's parallelism. Opt-in with {@code -Dlimiter-benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "limiter-benchmark", matches = "true")
+public class AdaptiveConcurrencyLimiterBenchmarkTests {
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiterBenchmarkTests.class);
+    private static final int CLIENTS = 250;
+    private static final int REQUESTS_PER_CLIENT = 40;
+    private static final int LIMIT = 16;
+
+    @Test
+    public void queuedRequests_VirtualVersusPlatformThreads() throws Exception {
+        measure("platform", Thread.ofPlatform().factory());
+        int virtualCarriers = measure("virtual", Thread.ofVirtual().factory());
+        assertThat(virtualCarriers).isLessThanOrEqualTo(Runtime.getRuntime().availableProcessors());
+    }
+
+    private int measure(String name, ThreadFactory threads) throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                LIMIT, LIMIT, LIMIT, CLIENTS, Duration.ofSeconds(30), Duration.ofMinutes(1), 0.9);
+        AtomicInteger peakCarriers = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread sampler = new Thread(() -> {
+            while (!done.get()) {
+                peakCarriers.accumulateAndGet(countCarriers(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Thread> clients = new ArrayList<>(CLIENTS);
+        long start = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            Thread client = threads.newThread(() -> {
+                for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                    try {
+                        if (!limiter.tryAcquire()) {
+                            rejected.incrementAndGet();
+                            continue;
+                        }
+                        long began = System.nanoTime();
+                        Thread.sleep(5);
+                        limiter.release(System.nanoTime() - began);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+            clients.add(client);
+            client.start();
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        done.set(true);
+        sampler.join();
+        int requests = CLIENTS * REQUESTS_PER_CLIENT;
+        log.info("{} threads: {} requests in {} ms ({} requests/s), {} rejected, peak {} carrier threads",
+                name, requests, elapsedMillis, requests * 1000L / elapsedMillis, rejected.get(),
+                peakCarriers.get());
+        return peakCarriers.get();
+    }
+
+    /** Carriers of virtual threads are the workers of a pool other than the common pool. */
+    private static int countCarriers() {
+        int carriers = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread instanceof ForkJoinWorkerThread
+                    && ((ForkJoinWorkerThread) thread).getPool() != ForkJoinPool.commonPool()) {
+                carriers++;
+            }
+        }
+        return carriers;
+    }
+}
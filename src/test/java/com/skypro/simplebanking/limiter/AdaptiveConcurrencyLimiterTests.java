@@ -0,0 +1,89 @@
+package com.skypro.simplebanking.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimiterTests {
+    private static final Duration THRESHOLD = Duration.ofMillis(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit, int minLimit, int maxLimit) {
+        return new AdaptiveConcurrencyLimiter(
+                initialLimit, minLimit, maxLimit, 0, Duration.ZERO, THRESHOLD, 0.5);
+    }
+
+    /** Fills the limit and releases every permit as a fast request. */
+    private static void runFullRound(AdaptiveConcurrencyLimiter limiter) throws InterruptedException {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(FAST);
+        }
+    }
+
+    @Test
+    public void tryAcquire_WhenLimitReached_Rejects() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 10);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    public void release_WhenFastAndLimitUsed_IncreasesAdditively() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 10);
+        runFullRound(limiter);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        runFullRound(limiter);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    public void release_WhenLimitBarelyUsed_KeepsLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 10);
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(FAST);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void release_WhenSlow_DecreasesMultiplicatively() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(16, 1, 20);
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.release(SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(8);
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.release(SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void limit_StaysWithinFloorAndCeiling() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 2, 8);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(SLOW);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        for (int i = 0; i < 200; i++) {
+            runFullRound(limiter);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    public void initialLimit_IsClampedToBounds() {
+        assertThat(limiter(100, 2, 8).getLimit()).isEqualTo(8);
+        assertThat(limiter(0, 2, 8).getLimit()).isEqualTo(2);
+    }
+}
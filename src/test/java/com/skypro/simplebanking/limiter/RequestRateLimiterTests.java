@@ -0,0 +1,44 @@
+package com.skypro.simplebanking.limiter;
+
+import com.skypro.simplebanking.configuration.RateLimitProperties;
+import com.skypro.simplebanking.exception.CommitOutcomeUnknownException;
+import com.skypro.simplebanking.exception.InsufficientFundsException;
+import com.skypro.simplebanking.exception.RateLimitExceededException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RequestRateLimiterTests {
+    private static RequestRateLimiter limiter(long velocityAmount) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getVelocity().setUserAmount(velocityAmount);
+        properties.getVelocity().setAccountAmount(velocityAmount);
+        return new RequestRateLimiter(properties);
+    }
+
+    @Test
+    public void chargeMovement_WhenMovementFails_CreditsAmountBack() {
+        RequestRateLimiter limiter = limiter(100);
+
+        assertThatThrownBy(() -> limiter.chargeMovement(1L, 2L, 80L, () -> {
+            throw new InsufficientFundsException("Cannot withdraw 80 USD");
+        })).isInstanceOf(InsufficientFundsException.class);
+
+        assertThat(limiter.chargeMovement(1L, 2L, 80L, () -> "done")).isEqualTo("done");
+        assertThatThrownBy(() -> limiter.checkMovement(1L, 2L, 80L))
+                .isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    public void chargeMovement_WhenCommitOutcomeUnknown_KeepsCharge() {
+        RequestRateLimiter limiter = limiter(100);
+
+        assertThatThrownBy(() -> limiter.chargeMovement(1L, 2L, 80L, () -> {
+            throw new CommitOutcomeUnknownException("Commit did not finish in time", null);
+        })).isInstanceOf(CommitOutcomeUnknownException.class);
+
+        assertThatThrownBy(() -> limiter.checkMovement(1L, 2L, 80L))
+                .isInstanceOf(RateLimitExceededException.class);
+    }
+}
@@ -0,0 +1,76 @@
+package com.skypro.simplebanking.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SlidingWindowCounterTests {
+    private static final long WINDOW = TimeUnit.MINUTES.toNanos(1);
+    private static final long START = 1_000 * WINDOW;
+    private static final long LIMIT = 100;
+
+    @Test
+    public void tryAdd_WhenLimitReachedWithinWindow_Rejects() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, START);
+        assertThat(counter.tryAdd(60, LIMIT, START)).isTrue();
+        assertThat(counter.tryAdd(40, LIMIT, START + WINDOW / 2)).isTrue();
+        assertThat(counter.tryAdd(1, LIMIT, START + WINDOW - 1)).isFalse();
+    }
+
+    @Test
+    public void tryAdd_WhenAmountAloneExceedsLimit_Rejects() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, START);
+        assertThat(counter.tryAdd(LIMIT + 1, LIMIT, START)).isFalse();
+        assertThat(counter.tryAdd(LIMIT, LIMIT, START)).isTrue();
+    }
+
+    /** The previous window counts in full at the rollover and fades out linearly over the next. */
+    @Test
+    public void tryAdd_AfterRollover_WeightsPreviousWindowByOverlap() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, START);
+        assertThat(counter.tryAdd(LIMIT, LIMIT, START)).isTrue();
+        assertThat(counter.tryAdd(1, LIMIT, START + WINDOW)).isFalse();
+        long quarter = START + WINDOW + WINDOW / 4;
+        assertThat(counter.tryAdd(26, LIMIT, quarter)).isFalse();
+        assertThat(counter.tryAdd(25, LIMIT, quarter)).isTrue();
+        assertThat(counter.tryAdd(1, LIMIT, quarter)).isFalse();
+    }
+
+    @Test
+    public void tryAdd_WhenTwoWindowsPassed_StartsFromZero() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, START);
+        counter.tryAdd(LIMIT, LIMIT, START);
+        assertThat(counter.isEmpty(START + WINDOW)).isFalse();
+        assertThat(counter.isEmpty(START + 2 * WINDOW)).isTrue();
+        assertThat(counter.tryAdd(LIMIT, LIMIT, START + 2 * WINDOW)).isTrue();
+    }
+
+    /** A writer that read the clock before the rollover must not wipe the new window. */
+    @Test
+    public void tryAdd_WhenCallerClockIsBehind_KeepsNewerWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, START);
+        counter.tryAdd(30, LIMIT, START + WINDOW);
+        assertThat(counter.tryAdd(70, LIMIT, START + WINDOW - 1)).isTrue();
+        assertThat(counter.tryAdd(1, LIMIT, START + WINDOW)).isFalse();
+    }
+
+    @Test
+    public void subtract_GivesBackAmountOnlyWithinSameWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, START);
+        counter.tryAdd(LIMIT, LIMIT, START);
+        counter.subtract(40, START);
+        assertThat(counter.tryAdd(40, LIMIT, START)).isTrue();
+        counter.subtract(40, START + WINDOW);
+        assertThat(counter.tryAdd(1, LIMIT, START + WINDOW)).isFalse();
+    }
+
+    @Test
+    public void nanosUntilNextWindow_CountsToWindowBoundary() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, START);
+        assertThat(counter.nanosUntilNextWindow(START)).isEqualTo(WINDOW);
+        assertThat(counter.nanosUntilNextWindow(START + WINDOW / 4)).isEqualTo(3 * WINDOW / 4);
+        assertThat(counter.nanosUntilNextWindow(-WINDOW / 4)).isEqualTo(WINDOW / 4);
+    }
+}
@@ -0,0 +1,86 @@
+package com.skypro.simplebanking.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketTests {
+    private static final long START = TimeUnit.SECONDS.toNanos(1_000);
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /** Ten tokens a second, so one every 100 ms, and bursts of three. */
+    private static TokenBucket bucket(long now) {
+        return new TokenBucket(10, 3, now);
+    }
+
+    @Test
+    public void tryAcquire_WhenBurstExhausted_ReturnsWaitForNextToken() {
+        TokenBucket bucket = bucket(START);
+        assertThat(bucket.tryAcquire(START)).isZero();
+        assertThat(bucket.tryAcquire(START)).isZero();
+        assertThat(bucket.tryAcquire(START)).isZero();
+        assertThat(bucket.tryAcquire(START)).isEqualTo(INTERVAL);
+        assertThat(bucket.tryAcquire(START + INTERVAL / 2)).isEqualTo(INTERVAL / 2);
+    }
+
+    @Test
+    public void tryAcquire_RefillsOneTokenPerInterval() {
+        TokenBucket bucket = bucket(START);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(START);
+        }
+        assertThat(bucket.tryAcquire(START + INTERVAL)).isZero();
+        assertThat(bucket.tryAcquire(START + INTERVAL)).isEqualTo(INTERVAL);
+        assertThat(bucket.tryAcquire(START + 3 * INTERVAL)).isZero();
+        assertThat(bucket.tryAcquire(START + 3 * INTERVAL)).isZero();
+        assertThat(bucket.tryAcquire(START + 3 * INTERVAL)).isEqualTo(INTERVAL);
+    }
+
+    @Test
+    public void tryAcquire_WhenIdleLong_DoesNotSaveMoreThanBurst() {
+        TokenBucket bucket = bucket(START);
+        long later = START + TimeUnit.HOURS.toNanos(1);
+        assertThat(bucket.isFull(later)).isTrue();
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire(later)).isZero();
+        }
+        assertThat(bucket.tryAcquire(later)).isEqualTo(INTERVAL);
+        assertThat(bucket.isFull(later)).isFalse();
+    }
+
+    @Test
+    public void nanosUntilAvailable_DoesNotTakeToken() {
+        TokenBucket bucket = bucket(START);
+        for (int i = 0; i < 2; i++) {
+            bucket.tryAcquire(START);
+        }
+        assertThat(bucket.nanosUntilAvailable(START)).isZero();
+        assertThat(bucket.nanosUntilAvailable(START)).isZero();
+        bucket.tryAcquire(START);
+        assertThat(bucket.nanosUntilAvailable(START)).isEqualTo(INTERVAL);
+        assertThat(bucket.nanosUntilAvailable(START + INTERVAL)).isZero();
+    }
+
+    /** {@link System#nanoTime()} may be negative; only differences matter. */
+    @Test
+    public void tryAcquire_WhenClockNegative_BehavesTheSame() {
+        long start = -START;
+        TokenBucket bucket = bucket(start);
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire(start)).isZero();
+        }
+        assertThat(bucket.tryAcquire(start)).isEqualTo(INTERVAL);
+        assertThat(bucket.tryAcquire(start + INTERVAL)).isZero();
+    }
+
+    @Test
+    public void retryAfterSeconds_RoundsUpToWholeSecondsAtLeastOne() {
+        assertThat(RequestRateLimiter.retryAfterSeconds(0)).isEqualTo(1);
+        assertThat(RequestRateLimiter.retryAfterSeconds(INTERVAL)).isEqualTo(1);
+        assertThat(RequestRateLimiter.retryAfterSeconds(TimeUnit.SECONDS.toNanos(1))).isEqualTo(1);
+        assertThat(RequestRateLimiter.retryAfterSeconds(TimeUnit.SECONDS.toNanos(1) + 1)).isEqualTo(2);
+        assertThat(RequestRateLimiter.retryAfterSeconds(TimeUnit.MINUTES.toNanos(59) + 1)).isEqualTo(3541);
+    }
+}
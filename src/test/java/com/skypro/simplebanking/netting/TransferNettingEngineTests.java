@@ -0,0 +1,61 @@
+package com.skypro.simplebanking.netting;
+
+import com.skypro.simplebanking.configuration.ShardingProperties;
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.exception.ServiceOverloadedException;
+import com.skypro.simplebanking.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Queueing and shutdown only; no batch reaches the database, so there are no services. */
+public class TransferNettingEngineTests {
+    private static TransferNettingEngine engine(int maxBatchSize, int queueCapacity) {
+        return new TransferNettingEngine(null, null, new ShardRouter(new ShardingProperties(), null),
+                0, maxBatchSize, queueCapacity, 1_000);
+    }
+
+    private static TransferRequest transfer() {
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setFromAccountId(1L);
+        transferRequest.setToUserId(2L);
+        transferRequest.setToAccountId(3L);
+        transferRequest.setAmount(10L);
+        return transferRequest;
+    }
+
+    @Test
+    public void submitAndAwait_WhenBatchDoesNotFit_QueuesNoneOfIt() {
+        TransferNettingEngine engine = engine(1_000, 3);
+        engine.submit(1L, transfer());
+
+        assertThatThrownBy(() -> engine.submitAndAwait(1L, Collections.nCopies(3, transfer())))
+                .isInstanceOf(ServiceOverloadedException.class);
+        assertThat(engine.getMetrics().getQueued()).isEqualTo(1);
+
+        engine.submit(1L, transfer());
+        engine.submit(1L, transfer());
+        assertThat(engine.getMetrics().getQueued()).isEqualTo(3);
+    }
+
+    @Test
+    public void stop_FailsAndCountsTransfersStillQueued() throws Exception {
+        TransferNettingEngine engine = engine(1, 100);
+        List<TransferRequest> transfers = Collections.nCopies(50, transfer());
+        for (TransferRequest transferRequest : transfers) {
+            engine.submitDetached(1L, transferRequest);
+        }
+        engine.start();
+        engine.stop();
+
+        assertThat(engine.getMetrics().getQueued()).isZero();
+        assertThat(engine.getMetrics().getDetachedSubmitted()).isEqualTo(50);
+        assertThat(engine.getMetrics().getDetachedRejected()).isEqualTo(50);
+        assertThatThrownBy(() -> engine.submit(1L, transfer()))
+                .isInstanceOf(ServiceOverloadedException.class);
+    }
+}
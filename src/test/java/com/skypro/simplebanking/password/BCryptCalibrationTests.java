@@ -0,0 +1,25 @@
+package com.skypro.simplebanking.password;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BCryptCalibrationTests {
+
+    @Test
+    public void calibrate_WhenNothingFitsBudget_ReturnsMinStrength() {
+        assertThat(BCryptCalibration.calibrate(Duration.ZERO, 4, 6)).isEqualTo(4);
+    }
+
+    @Test
+    public void calibrate_WhenEverythingFitsBudget_ReturnsMaxStrength() {
+        assertThat(BCryptCalibration.calibrate(Duration.ofHours(1), 4, 6)).isEqualTo(6);
+    }
+
+    @Test
+    public void calibrate_WhenMinEqualsMax_ReturnsIt() {
+        assertThat(BCryptCalibration.calibrate(Duration.ofHours(1), 5, 5)).isEqualTo(5);
+    }
+}
@@ -0,0 +1,81 @@
+package com.skypro.simplebanking.password;
+
+import com.skypro.simplebanking.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OffloadedPasswordEncoderTests {
+
+    /** Hashes by echoing the password, but only once the test opens the gate. */
+    private static class GatedEncoder implements PasswordEncoder {
+        final CountDownLatch gate = new CountDownLatch(1);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                gate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    @Test
+    public void matches_WhenQueueFull_RejectsAsOverloaded() throws Exception {
+        GatedEncoder delegate = new GatedEncoder();
+        OffloadedPasswordEncoder encoder = new OffloadedPasswordEncoder(delegate, 1, 1);
+        try {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((encoder.getMetrics().getActive() < 1 || encoder.getMetrics().getQueued() < 1)
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+
+            assertThatThrownBy(() -> encoder.matches("c", "c"))
+                    .isInstanceOf(ServiceOverloadedException.class)
+                    .extracting("retryAfterSeconds").isEqualTo(1L);
+            assertThat(encoder.getMetrics().getRejected()).isEqualTo(1);
+
+            delegate.gate.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("b");
+            assertThat(encoder.matches("c", "c")).isTrue();
+        } finally {
+            delegate.gate.countDown();
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    public void matches_WhenDelegateThrows_RethrowsOnCaller() {
+        PasswordEncoder failing = new GatedEncoder() {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                throw new IllegalArgumentException("bad hash");
+            }
+        };
+        OffloadedPasswordEncoder encoder = new OffloadedPasswordEncoder(failing, 1, 1);
+        try {
+            assertThatThrownBy(() -> encoder.matches("a", "b"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("bad hash");
+        } finally {
+            encoder.destroy();
+        }
+    }
+}
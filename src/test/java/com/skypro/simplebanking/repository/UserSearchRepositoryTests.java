@@ -0,0 +1,36 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.dto.UserSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserSearchRepositoryTests {
+
+    private static List<String> sorted(String... usernames) {
+        return Stream.of(usernames)
+                .map(username -> new UserSummary(0L, username))
+                .sorted(UserSearchRepository.USERNAME_ORDER)
+                .map(UserSummary::getUsername)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void usernameOrder_SortsUppercaseBeforeLowercaseAndPrefixesFirst() {
+        assertThat(sorted("ivan", "Ivan", "Iv", "Ivanov", "_x"))
+                .containsExactly("Iv", "Ivan", "Ivanov", "_x", "ivan");
+    }
+
+    /** UTF-16 code units put U+FF21 after a surrogate pair; code points and UTF-8 bytes do not. */
+    @Test
+    public void usernameOrder_ComparesByCodePointLikeUtf8Bytes() {
+        String fullwidth = "\uFF21";
+        String emoji = new String(Character.toChars(0x1F600));
+        assertThat(emoji.compareTo(fullwidth)).isNegative();
+        assertThat(sorted(emoji, fullwidth)).containsExactly(fullwidth, emoji);
+    }
+}
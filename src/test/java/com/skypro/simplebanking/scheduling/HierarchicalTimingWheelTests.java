@@ -0,0 +1,102 @@
+package com.skypro.simplebanking.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HierarchicalTimingWheelTests {
+
+    /** One millisecond ticks and four buckets per level, so anything past 4 ms overflows. */
+    private static HierarchicalTimingWheel<String> wheel() {
+        return new HierarchicalTimingWheel<>(1, 4, 0);
+    }
+
+    /** Advances one tick at a time and records the tick at which every task expired. */
+    private static List<String> stepTo(HierarchicalTimingWheel<String> wheel, long untilMillis) {
+        List<String> expired = new ArrayList<>();
+        for (long now = 1; now <= untilMillis; now++) {
+            for (String task : wheel.advance(now)) {
+                expired.add(task + "@" + now);
+            }
+        }
+        return expired;
+    }
+
+    @Test
+    public void add_WhenDeadlineHasPassed_ReturnsFalse() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        wheel.advance(10);
+        assertThat(wheel.add(5, "late")).isFalse();
+        assertThat(wheel.add(10, "now")).isFalse();
+        assertThat(wheel.add(11, "next")).isTrue();
+    }
+
+    @Test
+    public void advance_ExpiresTasksInDueTimeOrder() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        wheel.add(9, "c");
+        wheel.add(2, "a");
+        wheel.add(100, "d");
+        wheel.add(3, "b");
+
+        assertThat(wheel.advance(200)).containsExactly("a", "b", "c", "d");
+    }
+
+    @Test
+    public void advance_CascadesOverflowLevelsToTheExactTick() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        wheel.add(3, "root");
+        wheel.add(14, "level1");
+        wheel.add(50, "level2");
+        wheel.add(100, "level3");
+
+        assertThat(stepTo(wheel, 120))
+                .containsExactly("root@3", "level1@14", "level2@50", "level3@100");
+    }
+
+    @Test
+    public void advance_WhenTasksShareDeadline_ExpiresAllTogether() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        wheel.add(37, "a");
+        wheel.add(37, "b");
+
+        assertThat(wheel.advance(36)).isEmpty();
+        assertThat(wheel.advance(37)).containsExactlyInAnyOrder("a", "b");
+        assertThat(wheel.advance(1000)).isEmpty();
+    }
+
+    @Test
+    public void cancel_WhenTaskInRootLevel_RemovesIt() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        wheel.add(2, "cancelled");
+        wheel.add(2, "kept");
+
+        assertThat(wheel.cancel(2, "cancelled")).isTrue();
+        assertThat(wheel.advance(10)).containsExactly("kept");
+    }
+
+    @Test
+    public void cancel_WhenTaskInOverflowLevel_RemovesItBeforeItCascades() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        wheel.add(100, "cancelled");
+        wheel.add(100, "kept");
+        wheel.advance(70);
+
+        assertThat(wheel.cancel(100, "cancelled")).isTrue();
+        assertThat(stepTo(wheel, 120)).containsExactly("kept@100");
+    }
+
+    @Test
+    public void cancel_WhenTaskUnknownOrExpired_ReturnsFalse() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        wheel.add(5, "task");
+
+        assertThat(wheel.cancel(6, "task")).isFalse();
+        assertThat(wheel.cancel(5, "other")).isFalse();
+        assertThat(wheel.advance(5)).containsExactly("task");
+        assertThat(wheel.cancel(5, "task")).isFalse();
+    }
+}
@@ -0,0 +1,104 @@
+package com.skypro.simplebanking.search;
+
+import com.skypro.simplebanking.configuration.ShardingProperties;
+import com.skypro.simplebanking.dto.UserSummary;
+import com.skypro.simplebanking.repository.UserRepository;
+import com.skypro.simplebanking.repository.UserSearchRepository;
+import com.skypro.simplebanking.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Runs the index against an in-memory user table instead of a database. */
+public class UsernameIndexTests {
+    private final List<UserSummary> table = new CopyOnWriteArrayList<>();
+    private final List<String> databaseSearches = new ArrayList<>();
+
+    private UsernameIndex index(int maxSize) {
+        UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(), new Class<?>[] {UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAllSummaries")) {
+                        return new ArrayList<>(table);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        UserSearchRepository userSearchRepository = new UserSearchRepository(null) {
+            @Override
+            public List<UserSummary> findByPrefix(String prefix, int limit) {
+                databaseSearches.add(prefix);
+                return table.stream()
+                        .filter(user -> user.getUsername().startsWith(prefix))
+                        .sorted(UserSearchRepository.USERNAME_ORDER)
+                        .limit(limit)
+                        .collect(Collectors.toList());
+            }
+        };
+        return new UsernameIndex(userRepository, userSearchRepository,
+                new ShardRouter(new ShardingProperties(), null), true, maxSize);
+    }
+
+    private static List<String> usernames(List<UserSummary> users) {
+        return users.stream().map(UserSummary::getUsername).collect(Collectors.toList());
+    }
+
+    @Test
+    public void search_ServesPrefixFromMemoryInCodePointOrder() {
+        String emoji = new String(Character.toChars(0x1F600));
+        table.add(new UserSummary(1L, "Iv" + emoji));
+        table.add(new UserSummary(2L, "Iv\uFF21"));
+        table.add(new UserSummary(3L, "Ivan"));
+        table.add(new UserSummary(4L, "Petr"));
+        UsernameIndex index = index(100);
+
+        assertThat(usernames(index.search("Iv", 10))).containsExactly("Ivan", "Iv\uFF21", "Iv" + emoji);
+        assertThat(usernames(index.search("Iv", 2))).containsExactly("Ivan", "Iv\uFF21");
+        assertThat(databaseSearches).isEmpty();
+    }
+
+    @Test
+    public void search_WhenIndexHasNoMatch_AsksTheDatabase() {
+        UsernameIndex index = index(100);
+        table.add(new UserSummary(5L, "Olga"));
+
+        assertThat(usernames(index.search("Ol", 10))).containsExactly("Olga");
+        assertThat(databaseSearches).containsExactly("Ol");
+    }
+
+    @Test
+    public void reload_PicksUpUsersCreatedElsewhere() {
+        table.add(new UserSummary(1L, "Ivan"));
+        UsernameIndex index = index(100);
+        table.add(new UserSummary(2L, "Ivanov"));
+
+        assertThat(usernames(index.search("Iv", 10))).containsExactly("Ivan");
+        index.reload();
+        assertThat(usernames(index.search("Iv", 10))).containsExactly("Ivan", "Ivanov");
+        assertThat(databaseSearches).isEmpty();
+    }
+
+    @Test
+    public void onUserCreated_AddsUserWithoutReload() {
+        UsernameIndex index = index(100);
+        index.onUserCreated(new UserCreatedEvent(7L, "Anna"));
+
+        assertThat(index.search("An", 10)).extracting(UserSummary::getId).containsExactly(7L);
+        assertThat(databaseSearches).isEmpty();
+    }
+
+    @Test
+    public void search_WhenUsersOutgrowIndex_GoesToTheDatabase() {
+        table.add(new UserSummary(1L, "Ivan"));
+        table.add(new UserSummary(2L, "Ivanov"));
+        UsernameIndex index = index(1);
+
+        assertThat(usernames(index.search("Iv", 10))).containsExactly("Ivan", "Ivanov");
+        assertThat(databaseSearches).containsExactly("Iv");
+    }
+}
@@ -0,0 +1,81 @@
+package com.skypro.simplebanking.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LongLongHashMapTests {
+
+    @Test
+    public void get_WhenKeyMissing_ReadsZero() {
+        LongLongHashMap map = new LongLongHashMap();
+        assertThat(map.get(42L)).isZero();
+        assertThat(map.containsKey(42L)).isFalse();
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    public void addTo_AccumulatesAndKeepsKeysThatNetToZero() {
+        LongLongHashMap map = new LongLongHashMap();
+        assertThat(map.addTo(7L, 5L)).isEqualTo(5L);
+        assertThat(map.addTo(7L, -5L)).isZero();
+        assertThat(map.containsKey(7L)).isTrue();
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void put_OverwritesExistingValue() {
+        LongLongHashMap map = new LongLongHashMap();
+        map.put(3L, 10L);
+        map.put(3L, -4L);
+        assertThat(map.get(3L)).isEqualTo(-4L);
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void put_HandlesExtremeKeys() {
+        LongLongHashMap map = new LongLongHashMap();
+        map.put(0L, 1L);
+        map.put(Long.MIN_VALUE, 2L);
+        map.put(Long.MAX_VALUE, 3L);
+        map.put(-1L, 4L);
+        assertThat(map.get(0L)).isEqualTo(1L);
+        assertThat(map.get(Long.MIN_VALUE)).isEqualTo(2L);
+        assertThat(map.get(Long.MAX_VALUE)).isEqualTo(3L);
+        assertThat(map.get(-1L)).isEqualTo(4L);
+        assertThat(map.sortedKeys()).containsExactly(Long.MIN_VALUE, -1L, 0L, Long.MAX_VALUE);
+    }
+
+    /** Keys spaced by the table size all land near the same slot and must probe past each other. */
+    @Test
+    public void addTo_WhenKeysCollideAndTableGrows_KeepsEveryEntry() {
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            long key = i % 2 == 0 ? (long) i << 16 : random.nextLong();
+            long delta = random.nextInt(2_000) - 1_000;
+            map.addTo(key, delta);
+            expected.merge(key, delta, Long::sum);
+        }
+        assertThat(map.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> assertThat(map.get(key)).as("key %d", key).isEqualTo(value));
+        assertThat(map.sortedKeys())
+                .containsExactly(expected.keySet().stream().mapToLong(Long::longValue).sorted().toArray());
+    }
+
+    @Test
+    public void keys_WhenPresized_ReturnsEachKeyOnce() {
+        LongLongHashMap map = new LongLongHashMap(1_000);
+        for (long key = 0; key < 1_000; key++) {
+            map.addTo(key, 1L);
+            map.addTo(key, 1L);
+        }
+        assertThat(map.keys()).hasSize(1_000).doesNotHaveDuplicates();
+        assertThat(map.get(999L)).isEqualTo(2L);
+    }
+}